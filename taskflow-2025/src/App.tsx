@@ -1,6 +1,6 @@
 "use client"
 
-import { useState, useEffect } from "react";
+import { useState, useEffect, useRef, useCallback } from "react";
 import * as api from "./services/api";
 import { ThemeProvider, createTheme } from "@mui/material/styles";
 import CssBaseline from "@mui/material/CssBaseline";
@@ -24,6 +24,10 @@ function App() {
   const [darkMode, setDarkMode] = useState(false);
   const [isLoadingLists, setIsLoadingLists] = useState(false);
   const [error, setError] = useState<string | null>(null);
+  // Dernier numéro de séquence appliqué, pour la synchronisation incrémentale
+  const seqRef = useRef(0);
+  const syncingRef = useRef<Promise<void> | null>(null);
+  const pendingSyncRef = useRef(false);
 
   // Récupère l'utilisateur au chargement
   useEffect(() => {
@@ -33,13 +37,38 @@ function App() {
     }
   }, []);
 
+  // Récupère uniquement les changements depuis la dernière synchronisation
+  const syncLists = useCallback((): Promise<void> => {
+    if (syncingRef.current) {
+      // Un changement arrivé pendant la synchronisation en cours sera récupéré au tour suivant
+      pendingSyncRef.current = true;
+      return syncingRef.current;
+    }
+    const run = async () => {
+      do {
+        pendingSyncRef.current = false;
+        let sync;
+        do {
+          sync = await api.syncChanges(seqRef.current);
+          const applied = sync;
+          setLists(current => api.applySync(current, applied));
+          seqRef.current = sync.seq;
+        } while (sync.hasMore);
+      } while (pendingSyncRef.current);
+    };
+    syncingRef.current = run().finally(() => {
+      syncingRef.current = null;
+    });
+    return syncingRef.current;
+  }, []);
+
   // Charge les listes UNIQUEMENT si l'utilisateur est connecté
   useEffect(() => {
     if (user) {
       setIsLoadingLists(true);
       setError(null);
-      api.getLists()
-        .then(fetchedLists => setLists(fetchedLists))
+      seqRef.current = 0;
+      syncLists()
         .catch(fetchError => {
           console.error("Failed to fetch lists:", fetchError);
           setError("Failed to load lists. Please try again later.");
@@ -48,7 +77,15 @@ function App() {
     } else {
       setLists([]);
     }
-  }, [user]);
+  }, [user, syncLists]);
+
+  // Les changements (y compris ceux des autres onglets) arrivent par le flux SSE
+  useEffect(() => {
+    if (!user) return;
+    return api.subscribeToChanges(() => {
+      syncLists().catch(syncError => console.error("Failed to sync lists:", syncError));
+    });
+  }, [user, syncLists]);
 
   const handleLogin = (userData: User) => {
     setUser(userData);
@@ -65,8 +102,7 @@ function App() {
     if (!user) return;
     setIsLoadingLists(true);
     setError(null);
-    api.getLists()
-      .then(fetchedLists => setLists(fetchedLists))
+    syncLists()
       .catch(fetchError => {
         console.error("Failed to fetch lists after update:", fetchError);
         setError("Failed to update lists. Please check your connection or try again.");
@@ -1,4 +1,4 @@
-import type { TodoList, Task } from '../types';
+import type { TodoList, Task, SyncResponse } from '../types';
 
 const API_BASE_URL = 'http://localhost:5050/api'; // Placeholder for Spring Boot API
 
@@ -90,6 +90,94 @@ export const deleteTask = async (listId: string, taskId: string): Promise<void>
   }
 };
 
+// Synchronisation incrémentale : ne renvoie que les changements postérieurs à `since`
+export const syncChanges = async (since: number): Promise<SyncResponse> => {
+  const response = await fetch(`${API_BASE_URL}/sync?since=${since}`, {
+    method: 'GET',
+    headers: { 'Content-Type': 'application/json', ...getAuthHeaders() },
+  });
+  if (!response.ok) {
+    throw new Error('Erreur lors de la synchronisation');
+  }
+  return response.json();
+};
+
+// Applique une réponse de synchronisation à l'état local des listes
+export const applySync = (lists: TodoList[], sync: SyncResponse): TodoList[] => {
+  if (sync.snapshot) {
+    return sync.snapshotLists;
+  }
+  const deletedLists = new Set(sync.deletedLists);
+  const deletedTasks = new Set(sync.deletedTasks);
+  const byId = new Map<string, TodoList>();
+  lists
+    .filter(list => !deletedLists.has(list.id))
+    .forEach(list => byId.set(list.id, { ...list, tasks: list.tasks.filter(task => !deletedTasks.has(task.id)) }));
+  sync.lists.forEach(change => {
+    const existing = byId.get(change.id);
+    byId.set(change.id, { ...existing, ...change, tasks: existing ? existing.tasks : [] });
+  });
+  sync.tasks.forEach(({ listId, task }) => {
+    const list = byId.get(listId);
+    if (!list) return;
+    const index = list.tasks.findIndex(t => t.id === task.id);
+    const tasks = [...list.tasks];
+    if (index >= 0) {
+      tasks[index] = task;
+    } else {
+      tasks.push(task);
+    }
+    byId.set(listId, { ...list, tasks });
+  });
+  return Array.from(byId.values());
+};
+
+// Ouvre le flux SSE des changements. EventSource ne permet pas d'en-tête : le flux accepte en paramètre
+// un jeton de courte durée, demandé à chaque (re)connexion puisqu'il expire avant la reconnexion automatique.
+export const subscribeToChanges = (onChange: () => void): (() => void) => {
+  let source: EventSource | null = null;
+  let retry: ReturnType<typeof setTimeout> | undefined;
+  let closed = false;
+
+  const connect = async () => {
+    try {
+      const response = await fetch(`${API_BASE_URL}/events/token`, {
+        method: 'POST',
+        headers: getAuthHeaders(),
+      });
+      if (!response.ok) {
+        throw new Error('Erreur lors de la récupération du jeton du flux');
+      }
+      const { token } = await response.json();
+      if (closed) return;
+      source = new EventSource(`${API_BASE_URL}/events?access_token=${encodeURIComponent(token)}`);
+      source.addEventListener('connected', onChange);
+      source.addEventListener('change', onChange);
+      source.onerror = () => {
+        source?.close();
+        scheduleReconnect();
+      };
+    } catch {
+      scheduleReconnect();
+    }
+  };
+
+  const scheduleReconnect = () => {
+    if (!closed) {
+      retry = setTimeout(connect, 5000);
+    }
+  };
+
+  if (localStorage.getItem('taskflow_token')) {
+    connect();
+  }
+  return () => {
+    closed = true;
+    clearTimeout(retry);
+    source?.close();
+  };
+};
+
 export interface AuthResponse {
   token: string;
 }
@@ -17,3 +17,25 @@ export interface TodoList {
   tasks: Task[]
   createdAt: string
 }
+
+export interface ListChange {
+  id: string
+  title: string
+  createdAt: string
+}
+
+export interface TaskChange {
+  listId: string
+  task: Task
+}
+
+export interface SyncResponse {
+  seq: number
+  hasMore: boolean
+  snapshot: boolean
+  snapshotLists: TodoList[]
+  lists: ListChange[]
+  tasks: TaskChange[]
+  deletedLists: string[]
+  deletedTasks: string[]
+}
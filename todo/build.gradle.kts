@@ -2,14 +2,26 @@ plugins {
 	java
 	id("org.springframework.boot") version "3.5.0"
 	id("io.spring.dependency-management") version "1.1.7"
+	id("me.champeau.jmh") version "0.7.2"
+	// Même version que l'hibernate-core géré par Spring Boot 3.5.0
+	id("org.hibernate.orm") version "6.6.15.Final"
 }
 
 group = "com.example"
 version = "0.0.1-SNAPSHOT"
 
+// Mode threads virtuels (opt-in) : ./gradlew bootRun -PvirtualThreads
+val virtualThreads = providers.gradleProperty("virtualThreads").isPresent
+
+// Démarrage rapide (opt-in) : ./gradlew bootJar -Paot ajoute au jar le contexte précalculé par Spring AOT
+val aot = providers.gradleProperty("aot").isPresent
+
+// Amélioration du bytecode des entités (désactivable pour comparer : ./gradlew jmh -Penhancement=false)
+val enhancement = providers.gradleProperty("enhancement").getOrElse("true").toBoolean()
+
 java {
 	toolchain {
-		languageVersion = JavaLanguageVersion.of(17)
+		languageVersion = JavaLanguageVersion.of(if (virtualThreads) 21 else 17)
 	}
 }
 
@@ -17,18 +29,44 @@ repositories {
 	mavenCentral()
 }
 
+// Harnais de charge de bout en bout (src/loadtest) : ./gradlew loadTest
+sourceSets {
+	create("loadtest") {
+		compileClasspath += sourceSets.main.get().output
+		runtimeClasspath += sourceSets.main.get().output
+	}
+}
+
+configurations["loadtestImplementation"].extendsFrom(configurations.implementation.get())
+configurations["loadtestRuntimeOnly"].extendsFrom(configurations.runtimeOnly.get())
+
 dependencies {
 	implementation("org.springframework.boot:spring-boot-starter-web")
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
 	implementation("org.springframework.boot:spring-boot-starter-validation")
+	// Formats binaires négociés en plus du JSON
+	implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor")
+	implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
 	implementation("org.springframework.boot:spring-boot-starter-security")
+	implementation("org.springframework.boot:spring-boot-starter-aop")
+
+	// Métriques : Actuator + Prometheus, statistiques Hibernate
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
+	runtimeOnly("io.micrometer:micrometer-registry-prometheus")
+	implementation("org.hibernate.orm:hibernate-micrometer")
+
+	// Cache des réponses GET /api/lists
+	implementation("com.github.ben-manes.caffeine:caffeine")
+
+	// Comptage des instructions SQL par requête
+	implementation("net.ttddyy:datasource-proxy:1.10.1")
 
 	implementation("io.jsonwebtoken:jjwt-api:0.11.5")
 	runtimeOnly("io.jsonwebtoken:jjwt-impl:0.11.5")
 	runtimeOnly("io.jsonwebtoken:jjwt-jackson:0.11.5")
 	
-	// H2 Database
-	runtimeOnly("com.h2database:h2")
+	// H2 Database (API MVStore utilisée par le compactage incrémental)
+	implementation("com.h2database:h2")
 	
 	// Springdoc OpenAPI for Swagger UI
 	implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.5.0")
@@ -40,8 +78,166 @@ dependencies {
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
 	testImplementation("org.springframework.security:spring-security-test")
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
+	"loadtestImplementation"("org.hdrhistogram:HdrHistogram:2.2.2")
+	jmh("io.micrometer:micrometer-registry-prometheus")
 }
 
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
+
+// Chaque suite a sa propre base H2 jetable (src/test/resources/config), supprimée avant le lancement
+val testDbDir = layout.buildDirectory.dir("test-db")
+tasks.test {
+	systemProperty("test-db.dir", testDbDir.get().asFile.path)
+	doFirst {
+		delete(testDbDir)
+	}
+}
+
+// La suite de tests rejouée avec le moteur en mémoire (profil memory) : ./gradlew memoryTest
+// Les pièces jointes (clé étrangère vers la table task) et le tampon d'écriture différée
+// (UPDATE JDBC sur la table task) supposent le moteur JPA : leurs tests sont exclus.
+val memoryStoreDir = layout.buildDirectory.dir("memory-test")
+val memoryTest = tasks.register<Test>("memoryTest") {
+	group = "verification"
+	description = "Runs the test suite against the in-memory repository engine."
+	testClassesDirs = sourceSets.test.get().output.classesDirs
+	classpath = sourceSets.test.get().runtimeClasspath
+	systemProperty("spring.profiles.active", "memory")
+	systemProperty("memory-store.dir", memoryStoreDir.get().asFile.path)
+	systemProperty("test-db.dir", memoryStoreDir.get().dir("h2").asFile.path)
+	exclude("**/AttachmentControllerIntegrationTest*", "**/TaskToggleBufferTest*")
+	shouldRunAfter(tasks.test)
+	doFirst {
+		delete(memoryStoreDir)
+	}
+}
+
+tasks.check {
+	dependsOn(memoryTest)
+}
+
+tasks.named<org.springframework.boot.gradle.tasks.run.BootRun>("bootRun") {
+	if (virtualThreads) {
+		systemProperty("spring.threads.virtual.enabled", "true")
+		jvmArgs("-Djdk.tracePinnedThreads=short")
+	}
+}
+
+// Le traitement AOT fige les conditions (@Profile, @ConditionalOnProperty) au moment du build :
+// il est fait pour le profil prod, et s'active au lancement avec -Dspring.aot.enabled=true.
+if (aot) {
+	apply(plugin = "org.springframework.boot.aot")
+	tasks.named<org.springframework.boot.gradle.tasks.aot.ProcessAot>("processAot") {
+		args("--spring.profiles.active=prod")
+	}
+}
+
+// Archive AppCDS : le jar est extrait (lib/ à côté du jar applicatif), puis un lancement
+// d'entraînement jusqu'au refresh du contexte enregistre les classes chargées dans build/cds/application.jsa.
+// Lancement : java -XX:SharedArchiveFile=application.jsa -jar application/todo-<version>.jar
+val cdsDir = layout.buildDirectory.dir("cds")
+val javaLauncher = javaToolchains.launcherFor(java.toolchain)
+val extractedJar = cdsDir.map { it.file("application/${tasks.bootJar.get().archiveFileName.get()}") }
+val cdsArchive = cdsDir.map { it.file("application.jsa") }
+
+tasks.register<JavaExec>("extractBootJar") {
+	group = "build"
+	description = "Extracts the boot jar into build/cds/application for class data sharing."
+	dependsOn(tasks.bootJar)
+	classpath(tasks.bootJar.flatMap { it.archiveFile })
+	mainClass = "org.springframework.boot.loader.launch.JarLauncher"
+	systemProperty("jarmode", "tools")
+	args("extract", "--destination", cdsDir.get().dir("application").asFile.path, "--force")
+	outputs.dir(cdsDir.map { it.dir("application") })
+}
+
+tasks.register<Exec>("cdsArchive") {
+	group = "build"
+	description = "Records an AppCDS archive from a training run of the extracted application."
+	dependsOn("extractBootJar")
+	inputs.dir(cdsDir.map { it.dir("application") })
+	outputs.file(cdsArchive)
+	doFirst {
+		executable = javaLauncher.get().executablePath.asFile.absolutePath
+		args(listOfNotNull(
+			"-XX:ArchiveClassesAtExit=${cdsArchive.get().asFile.absolutePath}",
+			"-Dspring.context.exit=onRefresh",
+			if (aot) "-Dspring.aot.enabled=true" else null,
+			"-jar", extractedJar.get().asFile.absolutePath,
+			"--spring.profiles.active=prod",
+			"--spring.datasource.url=jdbc:h2:mem:cds-training"))
+	}
+}
+
+// Temps jusqu'à la première requête : démarrage actuel comparé au profil prod, à l'AOT et à l'archive CDS.
+// ./gradlew startupBenchmark -Paot -Pstartup.runs=10 (rapport dans build/reports/startup/)
+tasks.register<JavaExec>("startupBenchmark") {
+	group = "verification"
+	description = "Measures time-to-first-request of the current startup against the prod, AOT and CDS variants."
+	dependsOn("cdsArchive")
+	classpath = sourceSets["loadtest"].runtimeClasspath
+	mainClass = "com.example.todo.loadtest.StartupBenchmark"
+	systemProperty("startup.jar", extractedJar.get().asFile.path)
+	systemProperty("startup.cds-archive", cdsArchive.get().asFile.path)
+	systemProperty("startup.aot", aot.toString())
+	systemProperty("startup.runs", findProperty("startup.runs") ?: "5")
+	systemProperty("startup.report-dir", layout.buildDirectory.dir("reports/startup").get().asFile.path)
+	doFirst {
+		systemProperty("startup.java", javaLauncher.get().executablePath.asFile.absolutePath)
+	}
+}
+
+// Restauration d'une sauvegarde à chaud dans une instance neuve, application arrêtée :
+// ./gradlew restoreBackup -Pbackup.file=data/backups/backup-20250101-030000-000.zip [-Pbackup.target=data]
+tasks.register<JavaExec>("restoreBackup") {
+	group = "application"
+	description = "Restores an online backup archive into a database directory."
+	classpath = sourceSets.main.get().runtimeClasspath
+	mainClass = "org.h2.tools.Restore"
+	doFirst {
+		val file = findProperty("backup.file") ?: throw GradleException("Missing -Pbackup.file=<archive>")
+		args("-file", file.toString(), "-dir", findProperty("backup.target")?.toString() ?: "data")
+	}
+}
+
+// Suivi des modifications dans les entités elles-mêmes (plus d'instantané comparé champ par champ
+// au flush), attributs paresseux et synchronisation des deux côtés des associations bidirectionnelles
+hibernate {
+	if (enhancement) {
+		enhancement {
+			enableDirtyTracking = true
+			enableLazyInitialization = true
+			enableAssociationManagement = true
+		}
+	}
+}
+
+// Microbenchmarks (src/jmh) : ./gradlew jmh -PjmhTag=<commit>
+// Les résultats JSON sont écrits dans build/reports/jmh/ pour comparaison entre commits.
+jmh {
+	resultFormat = "JSON"
+	resultsFile = layout.buildDirectory.file(
+		"reports/jmh/results-${providers.gradleProperty("jmhTag").getOrElse("latest")}.json")
+	findProperty("jmhInclude")?.let { includes.add(it as String) }
+	// Ex. -PjmhProfilers=gc pour l'allocation par opération
+	findProperty("jmhProfilers")?.let { profilers.addAll((it as String).split(",")) }
+	fork = 1
+	warmupIterations = 3
+	iterations = 5
+}
+
+// Démarre TodoApplication sur une base H2 en mémoire et la soumet à un débit constant par paliers.
+// Paramètres : -Ploadtest.rates=50,100,200 -Ploadtest.duration-seconds=30 -Ploadtest.mix=login=5,list=40,...
+tasks.register<JavaExec>("loadTest") {
+	group = "verification"
+	description = "Runs the end-to-end load test against an embedded TodoApplication."
+	classpath = sourceSets["loadtest"].runtimeClasspath
+	mainClass = "com.example.todo.loadtest.LoadTestRunner"
+	systemProperty("loadtest.report-dir", layout.buildDirectory.dir("reports/loadtest").get().asFile.path)
+	project.properties
+		.filterKeys { it.startsWith("loadtest.") }
+		.forEach { (key, value) -> systemProperty(key, value.toString()) }
+}
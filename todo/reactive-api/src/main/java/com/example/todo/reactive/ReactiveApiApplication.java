@@ -0,0 +1,13 @@
+package com.example.todo.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveApiApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveApiApplication.class, args);
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.example.todo.reactive.controller;
+
+import com.example.todo.reactive.model.ListRow;
+import com.example.todo.reactive.model.TaskRow;
+import com.example.todo.reactive.model.TaskView;
+import com.example.todo.reactive.model.TodoListView;
+import com.example.todo.reactive.repository.ListRowRepository;
+import com.example.todo.reactive.repository.TaskRowRepository;
+import com.example.todo.reactive.security.JwtWebFilter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Lectures non bloquantes des listes et des tâches, au même format que l'API servlet.
+ * Une liste inaccessible est traitée comme inexistante (404).
+ */
+@RestController
+@RequestMapping("/api/lists")
+public class ListReadController {
+
+    private final ListRowRepository listRepository;
+    private final TaskRowRepository taskRepository;
+
+    public ListReadController(ListRowRepository listRepository, TaskRowRepository taskRepository) {
+        this.listRepository = listRepository;
+        this.taskRepository = taskRepository;
+    }
+
+    /**
+     * Listes de l'utilisateur avec leurs tâches : une requête pour les listes, une pour toutes leurs tâches.
+     */
+    @GetMapping
+    public Flux<TodoListView> getLists(@RequestAttribute(JwtWebFilter.USER_ID_ATTRIBUTE) String userId) {
+        return listRepository.findAccessibleByUserId(userId)
+                .collectList()
+                .flatMapMany(lists -> {
+                    if (lists.isEmpty()) {
+                        return Flux.empty();
+                    }
+                    List<String> ids = lists.stream().map(ListRow::id).toList();
+                    return taskRepository.findByListIds(ids)
+                            .collect(Collectors.groupingBy(TaskRow::todoListId))
+                            .flatMapIterable(tasksByList -> lists.stream()
+                                    .map(l -> TodoListView.of(l, tasksByList.getOrDefault(l.id(), List.of())))
+                                    .toList());
+                });
+    }
+
+    @GetMapping("/{listId}")
+    public Mono<TodoListView> getList(@RequestAttribute(JwtWebFilter.USER_ID_ATTRIBUTE) String userId,
+                                      @PathVariable String listId) {
+        return listRepository.findAccessible(listId, userId)
+                .switchIfEmpty(Mono.error(notFound()))
+                .flatMap(list -> taskRepository.findByListId(listId)
+                        .collectList()
+                        .map(tasks -> TodoListView.of(list, tasks)));
+    }
+
+    @GetMapping("/{listId}/tasks")
+    public Flux<TaskView> getTasks(@RequestAttribute(JwtWebFilter.USER_ID_ATTRIBUTE) String userId,
+                                   @PathVariable String listId) {
+        return listRepository.findAccessible(listId, userId)
+                .switchIfEmpty(Mono.error(notFound()))
+                .flatMapMany(list -> taskRepository.findByListId(listId))
+                .map(TaskView::of);
+    }
+
+    @GetMapping("/{listId}/tasks/{taskId}")
+    public Mono<TaskView> getTask(@RequestAttribute(JwtWebFilter.USER_ID_ATTRIBUTE) String userId,
+                                  @PathVariable String listId,
+                                  @PathVariable String taskId) {
+        return listRepository.findAccessible(listId, userId)
+                .flatMap(list -> taskRepository.findByIdAndTodoListId(taskId, listId))
+                .switchIfEmpty(Mono.error(notFound()))
+                .map(TaskView::of);
+    }
+
+    private ResponseStatusException notFound() {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "List or task not found");
+    }
+}
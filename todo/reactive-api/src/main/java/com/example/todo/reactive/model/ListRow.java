@@ -0,0 +1,18 @@
+package com.example.todo.reactive.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ligne de la table {@code todo_list}, telle que créée par l'entité JPA {@code com.example.todo.model.TodoList}.
+ */
+@Table("todo_list")
+public record ListRow(
+        @Id String id,
+        String title,
+        String userId,
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,19 @@
+package com.example.todo.reactive.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ligne de la table {@code task}, telle que créée par l'entité JPA {@code com.example.todo.model.Task}.
+ */
+@Table("task")
+public record TaskRow(
+        @Id String id,
+        String text,
+        boolean done,
+        LocalDateTime createdAt,
+        String todoListId
+) {
+}
@@ -0,0 +1,18 @@
+package com.example.todo.reactive.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Représentation JSON d'une tâche, identique à celle renvoyée par l'API servlet pour {@code Task}.
+ */
+public record TaskView(
+        String id,
+        String text,
+        boolean done,
+        LocalDateTime createdAt
+) {
+
+    public static TaskView of(TaskRow task) {
+        return new TaskView(task.id(), task.text(), task.done(), task.createdAt());
+    }
+}
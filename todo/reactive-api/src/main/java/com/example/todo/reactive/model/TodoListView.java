@@ -0,0 +1,22 @@
+package com.example.todo.reactive.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Représentation JSON d'une liste, identique à celle renvoyée par l'API servlet pour {@code TodoList}.
+ */
+public record TodoListView(
+        String id,
+        String title,
+        List<TaskView> tasks,
+        LocalDateTime createdAt,
+        String userId
+) {
+
+    public static TodoListView of(ListRow list, List<TaskRow> tasks) {
+        return new TodoListView(list.id(), list.title(),
+                tasks.stream().map(TaskView::of).toList(),
+                list.createdAt(), list.userId());
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.todo.reactive.repository;
+
+import com.example.todo.reactive.model.ListRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ListRowRepository extends ReactiveCrudRepository<ListRow, String> {
+
+    /**
+     * Listes visibles par un utilisateur : celles qu'il possède et celles partagées avec lui.
+     */
+    @Query("select l.* from todo_list l " +
+           "where l.user_id = :userId " +
+           "or l.id in (select m.list_id from list_membership m where m.user_id = :userId) " +
+           "order by l.created_at")
+    Flux<ListRow> findAccessibleByUserId(String userId);
+
+    /**
+     * Renvoie la liste si l'utilisateur y a accès, vide sinon.
+     */
+    @Query("select l.* from todo_list l " +
+           "where l.id = :listId and (l.user_id = :userId " +
+           "or exists (select 1 from list_membership m where m.list_id = l.id and m.user_id = :userId))")
+    Mono<ListRow> findAccessible(String listId, String userId);
+}
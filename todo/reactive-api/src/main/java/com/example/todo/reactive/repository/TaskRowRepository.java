@@ -0,0 +1,22 @@
+package com.example.todo.reactive.repository;
+
+import com.example.todo.reactive.model.TaskRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+@Repository
+public interface TaskRowRepository extends ReactiveCrudRepository<TaskRow, String> {
+
+    @Query("select * from task where todo_list_id in (:listIds) order by created_at")
+    Flux<TaskRow> findByListIds(Collection<String> listIds);
+
+    @Query("select * from task where todo_list_id = :listId order by created_at")
+    Flux<TaskRow> findByListId(String listId);
+
+    Mono<TaskRow> findByIdAndTodoListId(String id, String todoListId);
+}
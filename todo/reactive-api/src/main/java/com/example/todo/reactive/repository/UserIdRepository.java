@@ -0,0 +1,25 @@
+package com.example.todo.reactive.repository;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Résout l'identifiant d'un utilisateur (table {@code app_user}) à partir de l'email porté par le JWT.
+ */
+@Repository
+public class UserIdRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public UserIdRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<String> findIdByEmail(String email) {
+        return databaseClient.sql("select id from app_user where email = :email")
+                .bind("email", email)
+                .map(row -> row.get("id", String.class))
+                .one();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.todo.reactive.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Optional;
+
+/**
+ * Vérifie les jetons émis par le {@code JwtService} de l'API servlet : même secret,
+ * même dérivation de clé HMAC, sujet = email de l'utilisateur.
+ */
+@Component
+public class JwtVerifier {
+
+    private static final String SCOPE_CLAIM = "scope";
+
+    @Value("${jwt.secret}")
+    private String jwtSecretString;
+
+    private Key signingKey;
+
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecretString.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Renvoie le sujet du jeton s'il est valide (signature et expiration), vide sinon.
+     * Les jetons à portée restreinte (flux SSE de l'API servlet) sont refusés.
+     */
+    public Optional<String> verify(String token) {
+        try {
+            Claims claims = Jwts.parserBuilder()
+                    .setSigningKey(signingKey)
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+            if (claims.get(SCOPE_CLAIM) != null) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(claims.getSubject());
+        } catch (JwtException | IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.todo.reactive.security;
+
+import com.example.todo.reactive.repository.UserIdRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authentifie les requêtes {@code /api/**} avec le jeton Bearer et place l'identifiant
+ * de l'utilisateur dans l'attribut {@link #USER_ID_ATTRIBUTE} de l'échange.
+ * Sans jeton valide, ou si l'utilisateur n'existe plus, la requête reçoit un 401.
+ */
+@Component
+public class JwtWebFilter implements WebFilter {
+
+    public static final String USER_ID_ATTRIBUTE = JwtWebFilter.class.getName() + ".userId";
+
+    private final JwtVerifier jwtVerifier;
+    private final UserIdRepository userIdRepository;
+
+    // Email -> id : l'id d'un utilisateur ne change jamais, inutile de le relire à chaque requête
+    private final Map<String, String> userIds = new ConcurrentHashMap<>();
+
+    @Value("${auth.user-cache-size:100000}")
+    private int userCacheSize;
+
+    public JwtWebFilter(JwtVerifier jwtVerifier, UserIdRepository userIdRepository) {
+        this.jwtVerifier = jwtVerifier;
+        this.userIdRepository = userIdRepository;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!exchange.getRequest().getPath().value().startsWith("/api/")) {
+            return chain.filter(exchange);
+        }
+        String email = bearerToken(exchange).flatMap(jwtVerifier::verify).orElse(null);
+        if (email == null) {
+            return unauthorized(exchange);
+        }
+        // Le 401 ne porte que sur l'utilisateur introuvable : la chaîne se termine elle aussi sans valeur
+        return resolveUserId(email)
+                .switchIfEmpty(Mono.defer(() -> unauthorized(exchange)).then(Mono.empty()))
+                .flatMap(userId -> {
+                    exchange.getAttributes().put(USER_ID_ATTRIBUTE, userId);
+                    return chain.filter(exchange);
+                });
+    }
+
+    private Mono<String> resolveUserId(String email) {
+        String cached = userIds.get(email);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return userIdRepository.findIdByEmail(email).doOnNext(id -> {
+            if (userIds.size() >= userCacheSize) {
+                userIds.clear();
+            }
+            userIds.put(email, id);
+        });
+    }
+
+    private Optional<String> bearerToken(ServerWebExchange exchange) {
+        String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
+            return Optional.of(header.substring(7));
+        }
+        return Optional.empty();
+    }
+
+    private Mono<Void> unauthorized(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        return exchange.getResponse().setComplete();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.todo.reactive.security;
+
+import com.example.todo.reactive.repository.UserIdRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtWebFilterTest {
+
+    private static final String SECRET = "test-secret-that-is-long-enough-for-hmac-sha-512-signatures-0123456789";
+
+    private UserIdRepository userIdRepository;
+    private JwtWebFilter filter;
+    private final AtomicBoolean chainCalled = new AtomicBoolean();
+
+    // Comme un contrôleur : fixe le statut sans valider la réponse, la chaîne se termine vide
+    private final WebFilterChain chain = exchange -> {
+        chainCalled.set(true);
+        exchange.getResponse().setStatusCode(HttpStatus.OK);
+        return Mono.empty();
+    };
+
+    @BeforeEach
+    void setUp() {
+        JwtVerifier verifier = new JwtVerifier();
+        ReflectionTestUtils.setField(verifier, "jwtSecretString", SECRET);
+        verifier.init();
+        userIdRepository = mock(UserIdRepository.class);
+        filter = new JwtWebFilter(verifier, userIdRepository);
+        ReflectionTestUtils.setField(filter, "userCacheSize", 100);
+    }
+
+    @Test
+    void filter_withValidToken_passesRequestThroughWith200() {
+        when(userIdRepository.findIdByEmail("user@example.com")).thenReturn(Mono.just("user-1"));
+        MockServerWebExchange exchange = exchange("Bearer " + token("user@example.com"));
+
+        filter.filter(exchange, chain).block();
+
+        assertTrue(chainCalled.get());
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals("user-1", exchange.getAttribute(JwtWebFilter.USER_ID_ATTRIBUTE));
+    }
+
+    @Test
+    void filter_withUnknownUser_returns401() {
+        when(userIdRepository.findIdByEmail("gone@example.com")).thenReturn(Mono.empty());
+        MockServerWebExchange exchange = exchange("Bearer " + token("gone@example.com"));
+
+        filter.filter(exchange, chain).block();
+
+        assertFalse(chainCalled.get());
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_withInvalidToken_returns401() {
+        MockServerWebExchange exchange = exchange("Bearer not-a-jwt");
+
+        filter.filter(exchange, chain).block();
+
+        assertFalse(chainCalled.get());
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+    }
+
+    private static MockServerWebExchange exchange(String authorization) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/lists")
+                .header(HttpHeaders.AUTHORIZATION, authorization));
+    }
+
+    private static String token(String email) {
+        return Jwts.builder()
+                .setSubject(email)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+    }
+}
@@ -1 +1,4 @@
 rootProject.name = "todo"
+
+// API de lecture réactive (WebFlux + R2DBC) sur le même schéma
+include("reactive-api")
@@ -0,0 +1,133 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.TodoApplication;
+import com.example.todo.model.Task;
+import com.example.todo.model.TodoList;
+import com.example.todo.model.User;
+import com.example.todo.repository.TodoListRepository;
+import com.example.todo.repository.UserRepository;
+import com.example.todo.service.TodoListService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût du chargement puis du flush d'une liste de {@code tasks} tâches :
+ * sans modification (vérification de toutes les entités), avec une seule tâche modifiée, et par
+ * {@link TodoListService#updateTodoList}, qui réécrit toute la collection. À lancer avec et sans
+ * amélioration du bytecode pour comparer, l'allocation par opération étant donnée par le profileur gc :
+ * <pre>
+ * ./gradlew jmh -PjmhInclude=DirtyChecking -PjmhProfilers=gc -PjmhTag=enhanced
+ * ./gradlew jmh -PjmhInclude=DirtyChecking -PjmhProfilers=gc -PjmhTag=snapshot -Penhancement=false
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DirtyCheckingBenchmark {
+
+    @Param({"100", "1000"})
+    public int tasks;
+
+    private ConfigurableApplicationContext context;
+    private TodoListService todoListService;
+    private TodoListRepository todoListRepository;
+    private TransactionTemplate transactionTemplate;
+    private String listId;
+    private TodoList update;
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:dirty-checking-benchmark;DB_CLOSE_DELAY=-1");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.jpa.properties.hibernate.format_sql", "false");
+        properties.put("spring.jpa.properties.hibernate.generate_statistics", "false");
+        properties.put("spring.h2.console.enabled", "false");
+        properties.put("server.port", "0");
+        properties.put("management.server.port", "0");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.example.todo", "WARN");
+        context = new SpringApplicationBuilder(TodoApplication.class).properties(properties).run();
+        todoListService = context.getBean(TodoListService.class);
+        todoListRepository = context.getBean(TodoListRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        User user = new User();
+        user.setEmail("dirty-checking-benchmark@example.com");
+        user.setName("Benchmark");
+        user.setPassword("password");
+        String userId = context.getBean(UserRepository.class).save(user).getId();
+
+        TodoList list = new TodoList();
+        list.setTitle("Benchmark list");
+        list.setUserId(userId);
+        for (int i = 0; i < tasks; i++) {
+            Task task = new Task();
+            task.setText("Task " + i);
+            list.addTask(task);
+        }
+        TodoList saved = todoListService.createTodoList(list);
+        listId = saved.getId();
+
+        // Corps d'un PUT /api/lists/{id} : mêmes tâches, détachées
+        update = new TodoList();
+        update.setTitle(saved.getTitle());
+        for (Task task : saved.getTasks()) {
+            Task copy = Fixtures.task(task.getText(), task.isDone());
+            Fixtures.setField(copy, "id", task.getId());
+            update.addTask(copy);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int flushUnchanged() {
+        return transactionTemplate.execute(status -> {
+            TodoList list = todoListRepository.findById(listId).orElseThrow();
+            int size = list.getTasks().size();
+            todoListRepository.flush();
+            return size;
+        });
+    }
+
+    @Benchmark
+    public int flushOneTaskChanged() {
+        int index = round++ % tasks;
+        return transactionTemplate.execute(status -> {
+            TodoList list = todoListRepository.findById(listId).orElseThrow();
+            Task task = list.getTasks().get(index);
+            task.setDone(!task.isDone());
+            todoListRepository.flush();
+            return list.getTasks().size();
+        });
+    }
+
+    @Benchmark
+    public TodoList updateTodoList() {
+        Task task = update.getTasks().get(round++ % tasks);
+        task.setDone(!task.isDone());
+        return todoListService.updateTodoList(listId, update);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.model.Task;
+import com.example.todo.model.TodoList;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Données de test des benchmarks. Les entités n'exposent pas de setter d'id :
+ * il est posé par réflexion, comme le ferait Hibernate.
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    public static TodoList list(int taskCount) {
+        TodoList list = new TodoList();
+        setField(list, "id", UUID.randomUUID().toString());
+        list.setTitle("Benchmark list");
+        list.setUserId(UUID.randomUUID().toString());
+        list.setCreatedAt(LocalDateTime.now());
+        for (int i = 0; i < taskCount; i++) {
+            list.addTask(task("Task " + i, i % 3 == 0));
+        }
+        return list;
+    }
+
+    public static Task task(String text, boolean done) {
+        Task task = new Task();
+        setField(task, "id", UUID.randomUUID().toString());
+        task.setText(text);
+        task.setDone(done);
+        task.setCreatedAt(LocalDateTime.now());
+        return task;
+    }
+
+    public static void setField(Object target, String name, Object value) {
+        try {
+            Field field = findField(target.getClass(), name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + name + " on " + target.getClass(), e);
+        }
+    }
+
+    private static Field findField(Class<?> type, String name) throws NoSuchFieldException {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredField(name);
+            } catch (NoSuchFieldException ignored) {
+                // Chercher dans la classe parente
+            }
+        }
+        throw new NoSuchFieldException(name);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.service.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Génération et validation des jetons, exécutées à chaque connexion et à chaque requête authentifiée.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService();
+        Fixtures.setField(jwtService, "jwtSecretString",
+                "your-very-secure-secret-key-that-is-long-and-random-and-changed-from-default");
+        Fixtures.setField(jwtService, "jwtExpirationMs", 3_600_000L);
+        jwtService.init();
+        token = jwtService.generateToken("benchmark@example.com");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("benchmark@example.com");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(token);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.todo.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût par appel de log vu par le thread de la requête : écriture synchrone (comme la console de dev),
+ * écriture via l'AsyncAppender borné du profil prod, et appel DEBUG désactivé.
+ * La sortie est jetée pour mesurer le formatage et la synchronisation, pas le terminal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class LoggingOverheadBenchmark {
+
+    private LoggerContext context;
+    private Logger syncLogger;
+    private Logger asyncLogger;
+
+    @Setup
+    public void setup() {
+        context = new LoggerContext();
+
+        OutputStreamAppender<ILoggingEvent> sync = nullAppender("SYNC");
+        syncLogger = context.getLogger("bench.sync");
+        syncLogger.setAdditive(false);
+        syncLogger.setLevel(Level.INFO);
+        syncLogger.addAppender(sync);
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setName("ASYNC");
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(1638);
+        async.setNeverBlock(true);
+        async.addAppender(nullAppender("ASYNC_TARGET"));
+        async.start();
+        asyncLogger = context.getLogger("bench.async");
+        asyncLogger.setAdditive(false);
+        asyncLogger.setLevel(Level.INFO);
+        asyncLogger.addAppender(async);
+    }
+
+    private OutputStreamAppender<ILoggingEvent> nullAppender(String name) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %t --- %-40.40logger{39} : %m%n");
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setName(name);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void syncInfo() {
+        syncLogger.info("Tâche taskId={} mise à jour avec succès", "3f2a9c1e");
+    }
+
+    @Benchmark
+    public void asyncInfo() {
+        asyncLogger.info("Tâche taskId={} mise à jour avec succès", "3f2a9c1e");
+    }
+
+    @Benchmark
+    public void disabledDebug() {
+        asyncLogger.debug("Mise à jour de la tâche taskId={}", "3f2a9c1e");
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.service.JwtService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de l'instrumentation sur le chemin d'une requête : incrément du compteur du filtre JWT
+ * et enregistrement d'un timer HTTP avec histogramme, comparés à la vérification du jeton seule.
+ * Exécuté sur plusieurs threads pour mesurer aussi la contention sur les compteurs partagés.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class MetricsOverheadBenchmark {
+
+    private JwtService jwtService;
+    private String token;
+    private Counter counter;
+    private Timer timer;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService();
+        Fixtures.setField(jwtService, "jwtSecretString",
+                "your-very-secure-secret-key-that-is-long-and-random-and-changed-from-default");
+        Fixtures.setField(jwtService, "jwtExpirationMs", 3_600_000L);
+        jwtService.init();
+        token = jwtService.generateToken("benchmark@example.com");
+
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        counter = Counter.builder("auth.jwt.requests").tag("outcome", "valid").register(registry);
+        timer = Timer.builder("http.server.requests")
+                .tag("uri", "/api/lists").tag("method", "GET").tag("status", "200")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @Benchmark
+    public JwtService.TokenStatus checkToken() {
+        return jwtService.checkToken(token);
+    }
+
+    @Benchmark
+    public JwtService.TokenStatus checkTokenCounted() {
+        JwtService.TokenStatus status = jwtService.checkToken(token);
+        counter.increment();
+        return status;
+    }
+
+    @Benchmark
+    public void counterIncrement() {
+        counter.increment();
+    }
+
+    @Benchmark
+    public void timerRecord() {
+        timer.record(1_500_000L, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.config.PasswordEncoderConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vérification BCrypt au coût configuré par {@link PasswordEncoderConfig}, payée à chaque connexion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PasswordEncoderBenchmark {
+
+    private PasswordEncoder passwordEncoder;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        passwordEncoder = new PasswordEncoderConfig().passwordEncoder();
+        hash = passwordEncoder.encode("benchmark-password");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches("benchmark-password", hash);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.model.TodoList;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON, CBOR et Smile pour une liste de 10, 1 000 et 100 000 tâches : débit de sérialisation
+ * et de désérialisation. La taille de chaque charge utile est affichée au démarrage de l'essai.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PayloadFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"10", "1000", "100000"})
+    public int tasks;
+
+    private ObjectMapper mapper;
+    private TodoList list;
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws Exception {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        mapper = new ObjectMapper(factory)
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        list = Fixtures.list(tasks);
+        payload = mapper.writeValueAsBytes(list);
+        System.out.printf("%n[payload] format=%s tasks=%d bytes=%d%n", format, tasks, payload.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return mapper.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public TodoList deserialize() throws Exception {
+        return mapper.readValue(payload, TodoList.class);
+    }
+}
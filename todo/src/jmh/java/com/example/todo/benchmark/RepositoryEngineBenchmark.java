@@ -0,0 +1,115 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.TodoApplication;
+import com.example.todo.model.Task;
+import com.example.todo.model.TodoList;
+import com.example.todo.model.User;
+import com.example.todo.repository.UserRepository;
+import com.example.todo.service.TaskService;
+import com.example.todo.service.TodoListService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latence des opérations les plus fréquentes selon le moteur de stockage : JPA sur H2 en mémoire
+ * ({@code jpa}), moteur en mémoire avec journal non forcé ({@code memory}) ou forcé à chaque
+ * validation ({@code memory-sync}, la configuration par défaut du profil). Les appels passent par
+ * les services, transactions et journal des changements compris.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepositoryEngineBenchmark {
+
+    @Param({"jpa", "memory", "memory-sync"})
+    public String engine;
+
+    private static final int LISTS = 20;
+    private static final int TASKS_PER_LIST = 10;
+
+    private ConfigurableApplicationContext context;
+    private Path storeDir;
+    private TodoListService todoListService;
+    private TaskService taskService;
+    private String userId;
+    private final List<String> taskIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        storeDir = Files.createTempDirectory("memory-store-");
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:engine-benchmark;DB_CLOSE_DELAY=-1");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.jpa.properties.hibernate.format_sql", "false");
+        properties.put("spring.jpa.properties.hibernate.generate_statistics", "false");
+        properties.put("spring.h2.console.enabled", "false");
+        properties.put("server.port", "0");
+        properties.put("management.server.port", "0");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.example.todo", "WARN");
+        if (engine.startsWith("memory")) {
+            properties.put("spring.profiles.active", "memory");
+            properties.put("memory-store.dir", storeDir.toString());
+            properties.put("memory-store.wal.sync", Boolean.toString(engine.equals("memory-sync")));
+        }
+        context = new SpringApplicationBuilder(TodoApplication.class).properties(properties).run();
+        todoListService = context.getBean(TodoListService.class);
+        taskService = context.getBean(TaskService.class);
+
+        User user = new User();
+        user.setEmail("engine-benchmark@example.com");
+        user.setName("Benchmark");
+        user.setPassword("password");
+        userId = context.getBean(UserRepository.class).save(user).getId();
+        for (int i = 0; i < LISTS; i++) {
+            TodoList list = new TodoList();
+            list.setTitle("List " + i);
+            list.setUserId(userId);
+            for (int j = 0; j < TASKS_PER_LIST; j++) {
+                Task task = new Task();
+                task.setText("Task " + j);
+                list.addTask(task);
+            }
+            todoListService.createTodoList(list).getTasks().forEach(task -> taskIds.add(task.getId()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(storeDir);
+    }
+
+    @Benchmark
+    public List<TodoList> getAllTodoLists() {
+        return todoListService.getAllTodoListsByUserId(userId);
+    }
+
+    @Benchmark
+    public Task toggleTask() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return taskService.toggleTaskStatus(taskIds.get(random.nextInt(taskIds.size())), random.nextBoolean());
+    }
+}
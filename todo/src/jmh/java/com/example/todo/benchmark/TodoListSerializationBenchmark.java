@@ -0,0 +1,52 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.model.TodoList;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation JSON de ce que renvoie {@code GET /api/lists}, selon le nombre de listes et de tâches.
+ * L'ObjectMapper est configuré comme celui de Spring Boot (modules java.time, dates en ISO-8601).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TodoListSerializationBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int lists;
+
+    @Param({"0", "10", "100"})
+    public int tasksPerList;
+
+    private ObjectMapper objectMapper;
+    private List<TodoList> graph;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        graph = new ArrayList<>();
+        for (int i = 0; i < lists; i++) {
+            graph.add(Fixtures.list(tasksPerList));
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(graph);
+    }
+}
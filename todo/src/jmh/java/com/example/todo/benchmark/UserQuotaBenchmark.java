@@ -0,0 +1,51 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.ratelimit.TokenBuckets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de l'admission par quota utilisateur sous contention : plusieurs threads consomment des
+ * jetons dans de nombreux seaux ({@code users} élevé) ou dans un seul (pire cas, un client très actif).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(8)
+public class UserQuotaBenchmark {
+
+    @Param({"1", "10000"})
+    public int users;
+
+    @Param({"1", "64"})
+    public int shards;
+
+    private TokenBuckets buckets;
+    private String[] keys;
+
+    @Setup
+    public void setup() {
+        // Capacité et débit assez grands pour que toutes les demandes soient acceptées
+        buckets = new TokenBuckets(shards, 1e12, 1e12, TimeUnit.MINUTES.toNanos(10));
+        keys = new String[users];
+        for (int i = 0; i < users; i++) {
+            keys[i] = "user-" + i;
+        }
+    }
+
+    @Benchmark
+    public TokenBuckets.Result tryConsume() {
+        String key = keys[ThreadLocalRandom.current().nextInt(keys.length)];
+        return buckets.tryConsume(key, 1, System.nanoTime());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.todo.service;
+
+import com.example.todo.benchmark.Fixtures;
+import com.example.todo.model.Task;
+import com.example.todo.model.TodoList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boucle de fusion des tâches de {@link TodoListService#updateTodoList} : une mise à jour typique
+ * modifie une tâche sur vingt, en supprime une sur vingt et en ajoute quelques-unes.
+ * Placé dans le package du service pour accéder à {@code mergeTasks}.
+ * <p>
+ * Le lot de listes est construit une fois par itération, hors mesure ; chaque appel fusionne une mise
+ * à jour dans chacune des {@value #BATCH} listes. La fusion modifie la liste : les passages suivants
+ * alternent deux mises à jour qui ne diffèrent que par le texte modifié, pour que chacun détecte autant
+ * de changements. Les tâches supprimées ne le sont qu'au premier passage ; ensuite, chaque passage retire
+ * celles que le précédent a ajoutées.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskMergeBenchmark {
+
+    private static final int BATCH = 64;
+
+    @Param({"10", "100", "1000"})
+    public int taskCount;
+
+    private final TodoList[] existing = new TodoList[BATCH];
+    private final List<List<Task>> first = new ArrayList<>(BATCH);
+    private final List<List<Task>> second = new ArrayList<>(BATCH);
+    private boolean useSecond;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        first.clear();
+        second.clear();
+        for (int i = 0; i < BATCH; i++) {
+            existing[i] = Fixtures.list(taskCount);
+            first.add(update(existing[i], " (edited)"));
+            second.add(update(existing[i], " (edited again)"));
+        }
+        useSecond = false;
+    }
+
+    private List<Task> update(TodoList list, String edit) {
+        List<Task> tasks = list.getTasks();
+        List<Task> incoming = new ArrayList<>(taskCount);
+        for (int i = 0; i < tasks.size(); i++) {
+            if (i % 20 == 0) {
+                continue;
+            }
+            Task current = tasks.get(i);
+            Task update = new Task();
+            Fixtures.setField(update, "id", current.getId());
+            update.setText(i % 10 == 0 ? current.getText() + edit : current.getText());
+            update.setDone(current.isDone());
+            incoming.add(update);
+        }
+        for (int i = 0; i < Math.max(1, taskCount / 50); i++) {
+            Task added = new Task();
+            added.setText("New task " + i);
+            incoming.add(added);
+        }
+        return incoming;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void merge(Blackhole blackhole) {
+        List<List<Task>> updates = useSecond ? second : first;
+        useSecond = !useSecond;
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(TodoListService.mergeTasks(existing[i], updates.get(i), new HashSet<>()));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.todo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Client HTTP minimal de l'API REST. Chaque méthode lève {@link IOException}
+ * si la réponse n'a pas le statut attendu, ce qui la compte comme une erreur.
+ */
+public class ApiClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+
+    public ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public void register(String email, String name, String password) throws IOException, InterruptedException {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("email", email)
+                .put("name", name)
+                .put("password", password);
+        send(request("/api/auth/register", null).POST(json(body)), 201);
+    }
+
+    public String login(String email, String password) throws IOException, InterruptedException {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("email", email)
+                .put("password", password);
+        return send(request("/api/auth/login", null).POST(json(body)), 200).get("token").asText();
+    }
+
+    public JsonNode getLists(String token) throws IOException, InterruptedException {
+        return send(request("/api/lists", token).GET(), 200);
+    }
+
+    public JsonNode createList(String token, String title, List<String> taskTexts)
+            throws IOException, InterruptedException {
+        ObjectNode body = objectMapper.createObjectNode().put("title", title);
+        ArrayNode tasks = body.putArray("tasks");
+        taskTexts.forEach(text -> tasks.addObject().put("text", text).put("done", false));
+        return send(request("/api/lists", token).POST(json(body)), 201);
+    }
+
+    public JsonNode createTask(String token, String listId, String text) throws IOException, InterruptedException {
+        ObjectNode body = objectMapper.createObjectNode().put("text", text).put("done", false);
+        return send(request("/api/lists/" + listId + "/tasks", token).POST(json(body)), 201);
+    }
+
+    public JsonNode toggleTask(String token, String listId, String taskId, boolean done)
+            throws IOException, InterruptedException {
+        return send(request("/api/lists/" + listId + "/tasks/" + taskId + "/toggle", token)
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(Boolean.toString(done))), 200);
+    }
+
+    /**
+     * Remplace le titre et les tâches d'une liste ; seules les {@code keepTasks} dernières tâches sont renvoyées
+     * pour que les listes ne grossissent pas indéfiniment au fil du test.
+     */
+    public JsonNode updateList(String token, JsonNode list, String title, int keepTasks)
+            throws IOException, InterruptedException {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("id", list.get("id").asText())
+                .put("title", title);
+        ArrayNode tasks = body.putArray("tasks");
+        List<JsonNode> current = new ArrayList<>();
+        list.get("tasks").forEach(current::add);
+        current.subList(Math.max(0, current.size() - keepTasks), current.size()).forEach(task -> tasks.addObject()
+                .put("id", task.get("id").asText())
+                .put("text", task.get("text").asText())
+                .put("done", task.get("done").asBoolean()));
+        return send(request("/api/lists/" + list.get("id").asText(), token).PUT(json(body)), 200);
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpRequest.BodyPublisher json(JsonNode body) throws IOException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+    }
+
+    private JsonNode send(HttpRequest.Builder builder, int expectedStatus) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != expectedStatus) {
+            throw new IOException(response.request().method() + " " + response.request().uri().getPath()
+                    + " returned " + response.statusCode());
+        }
+        byte[] body = response.body();
+        return body.length == 0 ? objectMapper.nullNode() : readJson(body);
+    }
+
+    private JsonNode readJson(byte[] body) throws IOException {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            // /register répond en texte brut
+            return objectMapper.getNodeFactory().textNode(new String(body));
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.todo.loadtest;
+
+import com.example.todo.TodoApplication;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Test de charge de bout en bout : démarre {@link TodoApplication} sur une base H2 en mémoire,
+ * crée des utilisateurs puis applique un débit constant par paliers.
+ * <p>
+ * Chaque requête a un instant d'envoi prévu ({@code début + i / débit}) et sa latence est mesurée
+ * depuis cet instant, pas depuis l'envoi réel : quand le serveur ralentit, le retard accumulé
+ * est compté au lieu d'être masqué (correction de l'omission coordonnée).
+ * <p>
+ * Paramètres (propriétés système) :
+ * {@code loadtest.users}, {@code loadtest.rates} (req/s, séparés par des virgules),
+ * {@code loadtest.duration-seconds}, {@code loadtest.warmup-seconds}, {@code loadtest.concurrency},
+ * {@code loadtest.mix}, {@code loadtest.report-dir}. Les propriétés {@code loadtest.app.*}
+ * sont transmises à l'application sans le préfixe.
+ */
+public class LoadTestRunner {
+
+    private static final String APP_PREFIX = "loadtest.app.";
+
+    private final List<VirtualUser> users;
+    private final ApiClient client;
+    private final Map<Operation, Integer> mix;
+    private final int totalWeight;
+    private final int concurrency;
+
+    private LoadTestRunner(List<VirtualUser> users, ApiClient client, Map<Operation, Integer> mix, int concurrency) {
+        this.users = users;
+        this.client = client;
+        this.mix = mix;
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.concurrency = concurrency;
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("The workload mix has no enabled operation");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int userCount = Integer.getInteger("loadtest.users", 100);
+        List<Integer> rates = parseRates(System.getProperty("loadtest.rates", "50,100,200,400"));
+        int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 30);
+        int warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", 10);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 256);
+        Map<Operation, Integer> mix = Operation.parseMix(System.getProperty("loadtest.mix"));
+        Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "build/reports/loadtest"));
+
+        try (ConfigurableApplicationContext context = startApplication()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            ApiClient client = new ApiClient("http://localhost:" + port);
+
+            List<VirtualUser> users = new ArrayList<>(userCount);
+            for (int i = 0; i < userCount; i++) {
+                users.add(VirtualUser.create(client, i));
+            }
+
+            LoadTestRunner runner = new LoadTestRunner(users, client, mix, concurrency);
+            Files.createDirectories(reportDir);
+            try (PrintStream report = new PrintStream(
+                    Files.newOutputStream(reportDir.resolve("report.txt")), true, StandardCharsets.UTF_8)) {
+                report.printf("users=%d duration=%ds concurrency=%d mix=%s%n%n",
+                        userCount, durationSeconds, concurrency, mix);
+
+                if (warmupSeconds > 0) {
+                    System.out.printf("Warm-up: %d req/s for %ds%n", rates.get(0), warmupSeconds);
+                    runner.runStep(rates.get(0), warmupSeconds);
+                }
+
+                List<String> curve = new ArrayList<>();
+                curve.add("target_rps,achieved_rps,errors,p50_ms,p99_ms,p999_ms,max_ms");
+                for (int rate : rates) {
+                    System.out.printf("Step: %d req/s for %ds%n", rate, durationSeconds);
+                    StepResult result = runner.runStep(rate, durationSeconds);
+                    result.print(System.out);
+                    result.print(report);
+                    result.writeHistograms(reportDir);
+                    curve.add(result.curveLine());
+                }
+                Files.write(reportDir.resolve("throughput.csv"), curve, StandardCharsets.UTF_8);
+            }
+            System.out.println("Reports written to " + reportDir.toAbsolutePath());
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.jpa.properties.hibernate.format_sql", "false");
+        properties.put("spring.h2.console.enabled", "false");
+        properties.put("server.port", "0");
+        properties.put("management.server.port", "0");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.example.todo", "WARN");
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith(APP_PREFIX))
+                .forEach(name -> properties.put(name.substring(APP_PREFIX.length()), System.getProperty(name)));
+        return new SpringApplicationBuilder(TodoApplication.class).properties(properties).run();
+    }
+
+    /**
+     * Envoie {@code rate * durationSeconds} requêtes à intervalles réguliers et enregistre
+     * leur latence, par opération, depuis leur instant d'envoi prévu.
+     */
+    private StepResult runStep(int rate, int durationSeconds) throws Exception {
+        Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+        Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+
+        long intervalNanos = 1_000_000_000L / rate;
+        long total = (long) rate * durationSeconds;
+        long start = System.nanoTime() + 10_000_000L;
+        AtomicLong next = new AtomicLong();
+        AtomicLong lastCompletion = new AtomicLong(start);
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> futures = new ArrayList<>(concurrency);
+            for (int w = 0; w < concurrency; w++) {
+                futures.add(workers.submit(() -> {
+                    long i;
+                    while ((i = next.getAndIncrement()) < total) {
+                        long intended = start + i * intervalNanos;
+                        long wait;
+                        while ((wait = intended - System.nanoTime()) > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                        Operation operation = pick();
+                        VirtualUser user = users.get((int) (i % users.size()));
+                        try {
+                            user.perform(operation, client);
+                        } catch (IOException e) {
+                            errors.get(operation).increment();
+                        }
+                        long now = System.nanoTime();
+                        recorders.get(operation).recordValue(now - intended);
+                        lastCompletion.accumulateAndGet(now, Math::max);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        Map<Operation, Long> errorCounts = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, recorders.get(operation).getIntervalHistogram());
+            errorCounts.put(operation, errors.get(operation).sum());
+        }
+        double elapsedSeconds = (lastCompletion.get() - start) / 1e9;
+        return new StepResult(rate, total / Math.max(elapsedSeconds, 1e-9), histograms, errorCounts);
+    }
+
+    private Operation pick() {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    private static List<Integer> parseRates(String rates) {
+        List<Integer> result = new ArrayList<>();
+        for (String rate : rates.split(",")) {
+            result.add(Integer.parseInt(rate.trim()));
+        }
+        return result;
+    }
+
+    /**
+     * Résultat d'un palier : histogrammes de latence par opération (en nanosecondes).
+     */
+    private record StepResult(int targetRate, double achievedRate,
+                              Map<Operation, Histogram> histograms, Map<Operation, Long> errors) {
+
+        Histogram overall() {
+            Histogram overall = new Histogram(3);
+            histograms.values().forEach(overall::add);
+            return overall;
+        }
+
+        long totalErrors() {
+            return errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        void print(PrintStream out) {
+            out.printf("== target %d req/s, achieved %.1f req/s, %d errors%n",
+                    targetRate, achievedRate, totalErrors());
+            out.printf("%-8s %9s %7s %9s %9s %9s %9s%n", "op", "count", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+            histograms.forEach((operation, histogram) -> printLine(out, operation.key(), histogram, errors.get(operation)));
+            printLine(out, "all", overall(), totalErrors());
+            out.println();
+        }
+
+        private void printLine(PrintStream out, String name, Histogram histogram, long errorCount) {
+            if (histogram.getTotalCount() == 0) {
+                return;
+            }
+            out.printf("%-8s %9d %7d %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getTotalCount(), errorCount,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+        }
+
+        void writeHistograms(Path dir) throws IOException {
+            for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+                if (entry.getValue().getTotalCount() == 0) {
+                    continue;
+                }
+                Path file = dir.resolve("rate-" + targetRate + "-" + entry.getKey().key() + ".hgrm");
+                try (PrintStream out = new PrintStream(Files.newOutputStream(file), true, StandardCharsets.UTF_8)) {
+                    // Valeurs en millisecondes
+                    entry.getValue().outputPercentileDistribution(out, 1_000_000.0);
+                }
+            }
+        }
+
+        String curveLine() {
+            Histogram overall = overall();
+            return String.format(Locale.ROOT, "%d,%.1f,%d,%.2f,%.2f,%.2f,%.2f", targetRate, achievedRate,
+                    totalErrors(), millis(overall.getValueAtPercentile(50)), millis(overall.getValueAtPercentile(99)),
+                    millis(overall.getValueAtPercentile(99.9)), millis(overall.getMaxValue()));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.todo.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Opérations du mélange de charge, avec leur poids par défaut.
+ * <p>
+ * {@code update} est désactivée par défaut : {@code PUT /api/lists/{id}} exige un id de corps égal
+ * à celui du chemin, mais {@code TodoList.setId} ignore l'id reçu, si bien que l'appel répond toujours 400.
+ */
+public enum Operation {
+    LOGIN("login", 5),
+    LIST("list", 40),
+    CREATE_TASK("create", 20),
+    TOGGLE("toggle", 25),
+    UPDATE_LIST("update", 0);
+
+    private final String key;
+    private final int defaultWeight;
+
+    Operation(String key, int defaultWeight) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Lit un mélange de la forme {@code login=5,list=40,create=20,toggle=25}.
+     * Les opérations absentes gardent leur poids par défaut ; un poids de 0 les désactive.
+     */
+    public static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (Operation operation : values()) {
+            weights.put(operation, operation.defaultWeight);
+        }
+        if (mix == null || mix.isBlank()) {
+            return weights;
+        }
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            weights.put(fromKey(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    private static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + key);
+    }
+}
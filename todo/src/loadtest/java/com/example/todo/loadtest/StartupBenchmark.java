@@ -0,0 +1,209 @@
+package com.example.todo.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mesure le temps jusqu'à la première requête : chaque variante lance l'application extraite
+ * dans une JVM neuve, puis envoie {@code POST /api/auth/login} en boucle jusqu'à obtenir une
+ * réponse HTTP (quel que soit son statut). Le chronomètre part juste avant le lancement du
+ * processus, il inclut donc le démarrage de la JVM, le chargement des classes et le premier
+ * passage par la sécurité, MVC et JPA.
+ * <p>
+ * Variantes : {@code current} (profil par défaut, tel qu'aujourd'hui), {@code prod}, puis
+ * {@code prod+cds} ou {@code prod+aot+cds} si l'archive AppCDS existe.
+ * <p>
+ * Paramètres (propriétés système) : {@code startup.java}, {@code startup.jar},
+ * {@code startup.cds-archive}, {@code startup.aot}, {@code startup.runs}, {@code startup.report-dir}.
+ */
+public class StartupBenchmark {
+
+    private static final Pattern STARTED = Pattern.compile("Started TodoApplication in ([0-9.]+) seconds");
+    private static final long TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final String java;
+    private final Path jar;
+    private final Path workDir;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private StartupBenchmark(String java, Path jar, Path workDir) {
+        this.java = java;
+        this.jar = jar;
+        this.workDir = workDir;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String java = System.getProperty("startup.java", "java");
+        Path jar = Path.of(required("startup.jar"));
+        String archive = System.getProperty("startup.cds-archive");
+        boolean aot = Boolean.getBoolean("startup.aot");
+        int runs = Integer.getInteger("startup.runs", 5);
+        Path reportDir = Path.of(System.getProperty("startup.report-dir", "build/reports/startup"));
+        Files.createDirectories(reportDir);
+
+        List<Variant> variants = new ArrayList<>();
+        variants.add(new Variant("current", List.of(), List.of()));
+        variants.add(new Variant("prod", List.of(), List.of("--spring.profiles.active=prod")));
+        if (archive != null && Files.exists(Path.of(archive))) {
+            List<String> jvmArgs = new ArrayList<>(List.of("-XX:SharedArchiveFile=" + archive));
+            if (aot) {
+                jvmArgs.add("-Dspring.aot.enabled=true");
+            }
+            variants.add(new Variant(aot ? "prod+aot+cds" : "prod+cds", jvmArgs, List.of("--spring.profiles.active=prod")));
+        }
+
+        StartupBenchmark benchmark = new StartupBenchmark(java, jar, reportDir);
+        // Premier lancement non mesuré : crée le schéma (ddl-auto=update) et chauffe le cache disque
+        benchmark.run(variants.get(0), "warmup");
+
+        List<Result> results = new ArrayList<>();
+        for (Variant variant : variants) {
+            long[] firstRequest = new long[runs];
+            double[] reported = new double[runs];
+            for (int i = 0; i < runs; i++) {
+                Run run = benchmark.run(variant, variant.name() + "-" + i);
+                firstRequest[i] = run.firstRequestNanos();
+                reported[i] = run.reportedSeconds();
+            }
+            results.add(new Result(variant.name(), firstRequest, reported));
+        }
+
+        try (PrintStream report = new PrintStream(
+                Files.newOutputStream(reportDir.resolve("startup.txt")), true, StandardCharsets.UTF_8)) {
+            for (PrintStream out : List.of(report, System.out)) {
+                out.printf("runs=%d java=%s%n%n", runs, java);
+                out.printf("%-14s %12s %12s %12s %14s %10s%n",
+                        "variant", "p50 (ms)", "min (ms)", "max (ms)", "spring (s)", "vs current");
+                double baseline = results.get(0).median();
+                for (Result result : results) {
+                    out.printf(Locale.ROOT, "%-14s %12.0f %12.0f %12.0f %14.2f %9.0f%%%n",
+                            result.variant(), result.median() / 1e6, result.min() / 1e6, result.max() / 1e6,
+                            result.medianReported(), 100 * (result.median() / baseline - 1));
+                }
+            }
+        }
+        System.out.println("Report written to " + reportDir.resolve("startup.txt").toAbsolutePath());
+    }
+
+    private Run run(Variant variant, String label) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(variant.jvmArgs());
+        command.addAll(List.of("-jar", jar.toString()));
+        command.addAll(variant.appArgs());
+        command.addAll(List.of(
+                "--server.port=" + port,
+                "--management.server.port=0",
+                "--spring.datasource.url=jdbc:h2:file:" + workDir.resolve("db").toAbsolutePath()
+                        + ";DB_CLOSE_ON_EXIT=FALSE"));
+        Path log = workDir.resolve(label + ".log");
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long firstRequest = awaitFirstResponse(process, port) - start;
+            return new Run(firstRequest, reportedStartup(log));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private long awaitFirstResponse(Process process, int port) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"startup@example.com\",\"password\":\"x\"}"))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IOException("The application exited with status " + process.exitValue());
+            }
+            try {
+                httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                return System.nanoTime();
+            } catch (ConnectException e) {
+                Thread.sleep(5);
+            }
+        }
+        throw new IOException("No response within " + TimeUnit.NANOSECONDS.toSeconds(TIMEOUT_NANOS) + " s");
+    }
+
+    /**
+     * Durée de démarrage annoncée par Spring Boot, sans le lancement de la JVM ni la première requête.
+     */
+    private static double reportedStartup(Path log) throws IOException {
+        Matcher matcher = STARTED.matcher(Files.readString(log, StandardCharsets.UTF_8));
+        return matcher.find() ? Double.parseDouble(matcher.group(1)) : Double.NaN;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String required(String name) {
+        String value = System.getProperty(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing system property " + name);
+        }
+        return value;
+    }
+
+    private record Variant(String name, List<String> jvmArgs, List<String> appArgs) {
+    }
+
+    private record Run(long firstRequestNanos, double reportedSeconds) {
+    }
+
+    private record Result(String variant, long[] firstRequestNanos, double[] reportedSeconds) {
+
+        double median() {
+            long[] sorted = firstRequestNanos.clone();
+            Arrays.sort(sorted);
+            return sorted[sorted.length / 2];
+        }
+
+        double min() {
+            return Arrays.stream(firstRequestNanos).min().orElse(0);
+        }
+
+        double max() {
+            return Arrays.stream(firstRequestNanos).max().orElse(0);
+        }
+
+        double medianReported() {
+            double[] sorted = reportedSeconds.clone();
+            Arrays.sort(sorted);
+            return sorted[sorted.length / 2];
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.todo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * Utilisateur simulé : un compte, un jeton et une liste de travail.
+ * Comme un vrai client, il n'envoie qu'une requête à la fois ; l'attente du verrou fait
+ * partie de la latence mesurée, puisqu'elle est comptée depuis l'instant d'envoi prévu.
+ */
+public class VirtualUser {
+
+    private static final int SEED_TASKS = 10;
+    private static final int MAX_TASKS = 20;
+
+    private final String email;
+    private final String password;
+    private final ReentrantLock lock = new ReentrantLock();
+    private String token;
+    private JsonNode list;
+    private long updates;
+
+    private VirtualUser(String email, String password) {
+        this.email = email;
+        this.password = password;
+    }
+
+    /**
+     * Crée le compte, se connecte et crée la liste de travail.
+     */
+    public static VirtualUser create(ApiClient client, int index) throws IOException, InterruptedException {
+        VirtualUser user = new VirtualUser("loadtest-" + index + "@example.com", "password-" + index);
+        client.register(user.email, "Load Test " + index, user.password);
+        user.token = client.login(user.email, user.password);
+        List<String> tasks = IntStream.range(0, SEED_TASKS).mapToObj(i -> "Seed task " + i).toList();
+        user.list = client.createList(user.token, "Load test list " + index, tasks);
+        return user;
+    }
+
+    public void perform(Operation operation, ApiClient client) throws IOException, InterruptedException {
+        lock.lock();
+        try {
+            switch (operation) {
+                case LOGIN -> token = client.login(email, password);
+                case LIST -> client.getLists(token);
+                case CREATE_TASK -> {
+                    JsonNode task = client.createTask(token, listId(), "Task " + System.nanoTime());
+                    ((ArrayNode) list.get("tasks")).add(task);
+                }
+                case TOGGLE -> {
+                    ArrayNode tasks = (ArrayNode) list.get("tasks");
+                    if (tasks.isEmpty()) {
+                        client.getLists(token);
+                        return;
+                    }
+                    ObjectNode task = (ObjectNode) tasks.get(ThreadLocalRandom.current().nextInt(tasks.size()));
+                    boolean done = !task.get("done").asBoolean();
+                    client.toggleTask(token, listId(), task.get("id").asText(), done);
+                    task.put("done", done);
+                }
+                case UPDATE_LIST -> list = client.updateList(token, list, "Load test list v" + (++updates), MAX_TASKS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String listId() {
+        return list.get("id").asText();
+    }
+}
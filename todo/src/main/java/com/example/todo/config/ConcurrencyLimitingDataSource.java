@@ -0,0 +1,105 @@
+package com.example.todo.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource qui limite le nombre de connexions empruntées simultanément avec un sémaphore équitable.
+ * Avec les threads virtuels, des milliers de requêtes peuvent attendre une connexion en même temps :
+ * elles patientent ici, dans l'ordre d'arrivée, plutôt que de s'entasser dans la file du pool.
+ * Le permis est rendu à la fermeture de la connexion.
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final long timeoutMs;
+
+    public ConcurrencyLimitingDataSource(DataSource target, int maxConcurrency, long timeoutMs) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Nombre de threads en attente d'un permis.
+     */
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Timed out after " + timeoutMs + "ms waiting for a JDBC concurrency permit");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a JDBC concurrency permit", e);
+        }
+    }
+
+    private Connection limited(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                ConcurrencyLimitingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                    if ("unwrap".equals(method.getName()) || "isWrapperFor".equals(method.getName())) {
+                        Class<?> type = (Class<?>) args[0];
+                        if (type.isInstance(connection)) {
+                            return "unwrap".equals(method.getName()) ? connection : Boolean.TRUE;
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
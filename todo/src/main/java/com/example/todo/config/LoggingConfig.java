@@ -0,0 +1,26 @@
+package com.example.todo.config;
+
+import com.example.todo.monitoring.RequestTraceFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Traces de requêtes échantillonnées. La sortie (JSON asynchrone en prod) est définie dans logback-spring.xml.
+ */
+@Configuration
+public class LoggingConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestTraceFilter> requestTraceFilter(
+            @Value("${logging.trace.sample-rate:0.01}") double sampleRate,
+            @Value("${logging.trace.slow-request-ms:500}") long slowRequestMs) {
+        FilterRegistrationBean<RequestTraceFilter> registration =
+                new FilterRegistrationBean<>(new RequestTraceFilter(sampleRate, slowRequestMs));
+        // À l'intérieur du filtre de comptage SQL, pour lire son bilan avant qu'il ne soit clos
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 30);
+        return registration;
+    }
+}
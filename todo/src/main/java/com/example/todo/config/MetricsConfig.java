@@ -0,0 +1,54 @@
+package com.example.todo.config;
+
+import com.example.todo.service.EventStreamService;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Métriques applicatives exposées par Actuator au format Prometheus.
+ * Les durées HTTP ({@code http.server.requests}), les jauges Hikari et les statistiques
+ * Hibernate sont fournies par Spring Boot ; cette configuration y ajoute la méthode de
+ * contrôleur et le nombre de flux SSE ouverts. Tous les tags ont une cardinalité bornée.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Ajoute le tag {@code handler} (ex. {@code TaskController.toggleTaskStatus}) aux timers HTTP,
+     * pour distinguer deux méthodes qui partagent le même gabarit d'URI.
+     */
+    @Bean
+    public ServerRequestObservationConvention handlerMethodObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and(handler(context));
+            }
+        };
+    }
+
+    private static KeyValue handler(ServerRequestObservationContext context) {
+        Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return KeyValue.of("handler",
+                    handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName());
+        }
+        return KeyValue.of("handler", "none");
+    }
+
+    @Bean
+    public MeterBinder eventStreamMetrics(EventStreamService eventStreamService) {
+        return registry -> Gauge.builder("sse.connections", eventStreamService, EventStreamService::getOpenConnections)
+                .description("Open Server-Sent Events streams")
+                .register(registry);
+    }
+}
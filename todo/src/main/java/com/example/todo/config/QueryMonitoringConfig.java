@@ -0,0 +1,94 @@
+package com.example.todo.config;
+
+import com.example.todo.monitoring.QueryBudget;
+import com.example.todo.monitoring.QueryBudgetFilter;
+import com.example.todo.monitoring.QueryStats;
+import com.example.todo.monitoring.QueryTracker;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Comptage des instructions SQL par requête HTTP : proxy datasource-proxy sur le bean {@code dataSource},
+ * filtre qui ouvre et clôt le bilan de chaque requête, intercepteur qui lit le {@link QueryBudget}
+ * de la méthode de contrôleur.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql.stats.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryMonitoringConfig implements WebMvcConfigurer {
+
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourceProxy(
+            @Value("${sql.slow-query-threshold-ms:200}") long slowQueryThresholdMs) {
+        return new QueryCountingProxy(new QueryTracker(slowQueryThresholdMs));
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter(
+            @Value("${sql.stats.headers:false}") boolean headers,
+            @Value("${sql.budget.enforce:false}") boolean enforce,
+            @Value("${sql.n-plus-one.threshold:3}") int nPlusOneThreshold) {
+        FilterRegistrationBean<QueryBudgetFilter> registration =
+                new FilterRegistrationBean<>(new QueryBudgetFilter(headers, enforce, nPlusOneThreshold));
+        // Avant la chaîne Spring Security, pour compter aussi le chargement de l'utilisateur
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                QueryStats stats = QueryTracker.current();
+                if (stats != null && handler instanceof HandlerMethod handlerMethod) {
+                    QueryBudget budget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+                    if (budget != null) {
+                        stats.setBudget(budget.value(),
+                                handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName());
+                    }
+                }
+                return true;
+            }
+        });
+    }
+
+    private static final class QueryCountingProxy implements BeanPostProcessor, Ordered {
+
+        private final QueryTracker queryTracker;
+
+        QueryCountingProxy(QueryTracker queryTracker) {
+            this.queryTracker = queryTracker;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(queryTracker)
+                        .build();
+            }
+            return bean;
+        }
+
+        // En dernier : le proxy enveloppe le pool et son éventuel limiteur
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
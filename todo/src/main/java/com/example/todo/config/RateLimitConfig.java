@@ -0,0 +1,73 @@
+package com.example.todo.config;
+
+import com.example.todo.ratelimit.ConcurrencyLimitFilter;
+import com.example.todo.ratelimit.TokenBuckets;
+import com.example.todo.ratelimit.UserQuotaFilter;
+import com.example.todo.ratelimit.VegasLimit;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Protection contre la surcharge. Les filtres sont insérés dans la chaîne Spring Security
+ * (après l'authentification JWT) par {@link com.example.todo.security.SecurityConfig} ;
+ * leur enregistrement automatique comme filtres de servlet est désactivé pour qu'ils ne
+ * s'exécutent pas deux fois.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    public ConcurrencyLimitFilter concurrencyLimitFilter(
+            MeterRegistry meterRegistry,
+            @Value("${api-limiter.enabled:true}") boolean enabled,
+            @Value("${api-limiter.initial-limit:50}") int initialLimit,
+            @Value("${api-limiter.min-limit:8}") int minLimit,
+            @Value("${api-limiter.max-limit:500}") int maxLimit,
+            @Value("${api-limiter.probe-interval:1000}") int probeInterval,
+            @Value("${api-limiter.reserved-fraction:0.2}") double reservedFraction) {
+        VegasLimit limit = new VegasLimit(initialLimit, minLimit, maxLimit, probeInterval);
+        return new ConcurrencyLimitFilter(enabled, limit, reservedFraction, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterRegistration(
+            ConcurrencyLimitFilter filter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public TokenBuckets userTokenBuckets(
+            @Value("${user-quota.shards:64}") int shards,
+            @Value("${user-quota.capacity:200}") double capacity,
+            @Value("${user-quota.refill-per-second:50}") double refillPerSecond,
+            @Value("${user-quota.idle-eviction-ms:600000}") long idleEvictionMs) {
+        return new TokenBuckets(shards, capacity, refillPerSecond, TimeUnit.MILLISECONDS.toNanos(idleEvictionMs));
+    }
+
+    @Bean
+    public UserQuotaFilter userQuotaFilter(
+            TokenBuckets userTokenBuckets,
+            MeterRegistry meterRegistry,
+            @Value("${user-quota.enabled:true}") boolean enabled,
+            @Value("${user-quota.cost.read:1}") double readCost,
+            @Value("${user-quota.cost.write:2}") double writeCost,
+            @Value("${user-quota.cost.list-write:5}") double listWriteCost,
+            @Value("${user-quota.cost.bytes-per-token:16384}") double bytesPerToken) {
+        return new UserQuotaFilter(enabled, userTokenBuckets, readCost, writeCost, listWriteCost, bytesPerToken,
+                meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<UserQuotaFilter> userQuotaFilterRegistration(UserQuotaFilter filter) {
+        FilterRegistrationBean<UserQuotaFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.todo.config;
+
+import com.example.todo.repository.ListMembershipRepository;
+import com.example.todo.repository.TaskRepository;
+import com.example.todo.repository.TodoListRepository;
+import com.example.todo.repository.UserRepository;
+import com.example.todo.repository.memory.MemoryStore;
+import com.example.todo.repository.memory.MemoryTaskRepository;
+import com.example.todo.repository.memory.MemoryTodoListRepository;
+import com.example.todo.repository.memory.MemoryUserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Choix du moteur de stockage des utilisateurs, listes et tâches.
+ * Par défaut, tous les dépôts sont des dépôts Spring Data JPA. Avec le profil {@code memory},
+ * ces trois dépôts sont remplacés par le moteur en mémoire ({@link MemoryStore}) ; les autres
+ * tables (adhésions, journal des changements, pièces jointes) restent en base.
+ */
+@Configuration
+public class RepositoryConfig {
+
+    @Configuration
+    @Profile("!memory")
+    @EnableJpaRepositories(basePackageClasses = TodoListRepository.class)
+    static class JpaRepositories {
+    }
+
+    @Configuration
+    @Profile("memory")
+    @EnableJpaRepositories(basePackageClasses = TodoListRepository.class, excludeFilters = @ComponentScan.Filter(
+            type = FilterType.ASSIGNABLE_TYPE,
+            classes = {TodoListRepository.class, TaskRepository.class, UserRepository.class}))
+    static class MemoryRepositories {
+
+        @Bean
+        public MemoryStore memoryStore(
+                @Value("${memory-store.dir:./data/memory}") String dir,
+                @Value("${memory-store.wal.segment-bytes:67108864}") int segmentBytes,
+                @Value("${memory-store.wal.sync:true}") boolean sync) throws IOException {
+            return new MemoryStore(Path.of(dir), segmentBytes, sync);
+        }
+
+        @Bean
+        public UserRepository userRepository(MemoryStore store) {
+            return new MemoryUserRepository(store);
+        }
+
+        @Bean
+        public TodoListRepository todoListRepository(MemoryStore store,
+                                                     ListMembershipRepository membershipRepository) {
+            return new MemoryTodoListRepository(store, membershipRepository);
+        }
+
+        @Bean
+        public TaskRepository taskRepository(MemoryStore store) {
+            return new MemoryTaskRepository(store);
+        }
+    }
+}
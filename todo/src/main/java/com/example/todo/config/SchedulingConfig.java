@@ -0,0 +1,12 @@
+package com.example.todo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Active les tâches planifiées (compaction du journal des changements, etc.).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,85 @@
+package com.example.todo.config;
+
+import com.example.todo.datasource.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Mode threads virtuels (Java 21, {@code spring.threads.virtual.enabled=true}).
+ * Tomcat traite alors chaque requête sur un thread virtuel ; chaque pool Hikari est placé
+ * derrière un sémaphore équitable de la taille du pool pour que les threads virtuels
+ * attendent leur connexion sans s'accumuler dans Hikari.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor jdbcConcurrencyLimiter() {
+        return new JdbcConcurrencyLimiter();
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor() {
+        return new VirtualThreadPinningMonitor();
+    }
+
+    /**
+     * Épinglages détectés et file d'attente du sémaphore JDBC, par bean DataSource.
+     */
+    @Bean
+    public MeterBinder virtualThreadMetrics(VirtualThreadPinningMonitor monitor, Map<String, DataSource> dataSources) {
+        return registry -> {
+            FunctionCounter.builder("jvm.threads.virtual.pinned", monitor, VirtualThreadPinningMonitor::getPinnedCount)
+                    .description("Virtual thread pinning events above the threshold")
+                    .register(registry);
+            dataSources.forEach((name, dataSource) -> {
+                // Le routage délègue au pool courant : ses limiteurs sont déjà comptés sous le nom de leur pool
+                if (DataSourceUnwrapper.unwrap(dataSource, WorkloadRoutingDataSource.class) != null) {
+                    return;
+                }
+                ConcurrencyLimitingDataSource limiter =
+                        DataSourceUnwrapper.unwrap(dataSource, ConcurrencyLimitingDataSource.class);
+                if (limiter != null) {
+                    Gauge.builder("jdbc.limiter.waiting", limiter, ConcurrencyLimitingDataSource::getQueueLength)
+                            .description("Threads waiting for a JDBC concurrency permit")
+                            .tag("datasource", name)
+                            .register(registry);
+                    Gauge.builder("jdbc.limiter.available", limiter, ConcurrencyLimitingDataSource::getAvailablePermits)
+                            .description("Free JDBC concurrency permits")
+                            .tag("datasource", name)
+                            .register(registry);
+                }
+            });
+        };
+    }
+
+    private static final class JdbcConcurrencyLimiter implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource hikari) {
+                return new ConcurrencyLimitingDataSource(
+                        hikari, hikari.getMaximumPoolSize(), hikari.getConnectionTimeout());
+            }
+            return bean;
+        }
+
+        // Doit voir le pool Hikari avant que d'autres proxys (comptage SQL) ne l'enveloppent
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.todo.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Diagnostic des threads virtuels épinglés à leur thread porteur (bloc {@code synchronized},
+ * appel natif...), à partir de l'événement JFR {@code jdk.VirtualThreadPinned}.
+ * Chaque épinglage plus long que le seuil est compté et journalisé avec le haut de sa pile.
+ */
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final AtomicLong pinnedCount = new AtomicLong();
+    private final AtomicLong pinnedNanos = new AtomicLong();
+    private final AtomicReference<String> lastPinnedFrame = new AtomicReference<>("");
+    private RecordingStream stream;
+
+    @Value("${virtual-threads.pinning-threshold-ms:20}")
+    private long thresholdMs;
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCount.incrementAndGet();
+        pinnedNanos.addAndGet(event.getDuration().toNanos());
+        String frame = topFrame(event.getStackTrace());
+        lastPinnedFrame.set(frame);
+        logger.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), frame);
+    }
+
+    private String topFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        RecordedFrame frame = stackTrace.getFrames().get(0);
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+
+    public long getPinnedCount() {
+        return pinnedCount.get();
+    }
+
+    public long getPinnedNanos() {
+        return pinnedNanos.get();
+    }
+
+    public String getLastPinnedFrame() {
+        return lastPinnedFrame.get();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.todo.config;
+
+import com.example.todo.datasource.WorkloadRoutingDataSource;
+import com.example.todo.datasource.WorkloadType;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Un pool Hikari par {@link WorkloadType}, sur la même base ({@code spring.datasource.*}),
+ * chacun dimensionné par {@code workload-pools.<charge>.*} (propriétés Hikari : taille, délais).
+ * Le bean {@code dataSource} principal les route selon l'annotation
+ * {@link com.example.todo.datasource.Workload} du service appelé. Les métriques
+ * {@code hikaricp_connections_*} sont étiquetées par pool ({@code pool="auth"}, ...).
+ */
+@Configuration
+@ConditionalOnProperty(name = "workload-pools.enabled", havingValue = "true", matchIfMissing = true)
+public class WorkloadDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("workload-pools.auth")
+    public HikariDataSource authDataSource(DataSourceProperties properties) {
+        return pool(properties, "auth");
+    }
+
+    @Bean
+    @ConfigurationProperties("workload-pools.interactive")
+    public HikariDataSource interactiveDataSource(DataSourceProperties properties) {
+        return pool(properties, "interactive");
+    }
+
+    @Bean
+    @ConfigurationProperties("workload-pools.bulk")
+    public HikariDataSource bulkDataSource(DataSourceProperties properties) {
+        return pool(properties, "bulk");
+    }
+
+    // Les pools peuvent être enveloppés par le limiteur des threads virtuels : injectés comme DataSource
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("authDataSource") DataSource auth,
+                                 @Qualifier("interactiveDataSource") DataSource interactive,
+                                 @Qualifier("bulkDataSource") DataSource bulk) {
+        return new WorkloadRoutingDataSource(Map.of(
+                WorkloadType.AUTH, auth,
+                WorkloadType.INTERACTIVE, interactive,
+                WorkloadType.BULK, bulk));
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String name) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(name);
+        return pool;
+    }
+}
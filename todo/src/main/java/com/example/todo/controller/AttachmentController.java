@@ -0,0 +1,210 @@
+package com.example.todo.controller;
+
+import com.example.todo.model.Attachment;
+import com.example.todo.model.ListPermission;
+import com.example.todo.security.CurrentUser;
+import com.example.todo.security.OwnsTask;
+import com.example.todo.service.AttachmentLimitExceededException;
+import com.example.todo.service.AttachmentService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Controller for task attachments.
+ * Uploads are the raw request body (the file name goes in the {@code name} parameter) and are
+ * streamed to disk. Downloads support {@code ETag}/{@code If-None-Match} and single byte ranges;
+ * large bodies are handed to Tomcat's sendfile so the file never passes through the heap.
+ */
+@RestController
+@RequestMapping("/api/lists/{listId}/tasks/{taskId}/attachments")
+@CrossOrigin(origins = "*")
+public class AttachmentController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final String QUOTA_USED = "X-Attachment-Quota-Used";
+    private static final String QUOTA_LIMIT = "X-Attachment-Quota-Limit";
+
+    private final AttachmentService attachmentService;
+    private final CurrentUser currentUser;
+    private final long sendfileMinBytes;
+
+    public AttachmentController(AttachmentService attachmentService, CurrentUser currentUser,
+                                @Value("${attachments.sendfile-min-bytes:49152}") long sendfileMinBytes) {
+        this.attachmentService = attachmentService;
+        this.currentUser = currentUser;
+        this.sendfileMinBytes = sendfileMinBytes;
+    }
+
+    /**
+     * Retrieves the attachments of a task, with the caller's quota usage in headers.
+     *
+     * @return ResponseEntity containing the attachment metadata.
+     */
+    @GetMapping
+    @OwnsTask(permission = ListPermission.READ)
+    public ResponseEntity<List<Attachment>> getAttachments(@PathVariable String listId, @PathVariable String taskId) {
+        return ResponseEntity.ok()
+                .header(QUOTA_USED, Long.toString(attachmentService.getUsedBytes(currentUser.getId())))
+                .header(QUOTA_LIMIT, Long.toString(attachmentService.getQuotaBytes()))
+                .body(attachmentService.getAttachments(taskId));
+    }
+
+    /**
+     * Attaches the request body to a task.
+     *
+     * @param name The file name shown on download.
+     * @return ResponseEntity containing the attachment metadata, or 413 when the file is too
+     * large or the caller's quota is exhausted.
+     */
+    @PostMapping
+    @OwnsTask
+    public ResponseEntity<Attachment> uploadAttachment(
+            @PathVariable String listId,
+            @PathVariable String taskId,
+            @RequestParam String name,
+            HttpServletRequest request) throws IOException {
+        if (name.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        String userId = currentUser.getId();
+        try {
+            Attachment attachment = attachmentService.upload(taskId, userId, name, request.getContentType(),
+                    request.getContentLengthLong(), request.getInputStream());
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header(QUOTA_USED, Long.toString(attachmentService.getUsedBytes(userId)))
+                    .header(QUOTA_LIMIT, Long.toString(attachmentService.getQuotaBytes()))
+                    .body(attachment);
+        } catch (AttachmentLimitExceededException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Downloads the content of an attachment, or a single byte range of it.
+     * A request with several ranges gets the whole file, as RFC 9110 allows.
+     */
+    @GetMapping("/{attachmentId}/content")
+    @OwnsTask(permission = ListPermission.READ)
+    public void downloadAttachment(
+            @PathVariable String listId,
+            @PathVariable String taskId,
+            @PathVariable String attachmentId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Attachment attachment = attachmentService.getAttachment(taskId, attachmentId).orElse(null);
+        if (attachment == null) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        // Le contenu d'une pièce jointe ne change jamais : son empreinte est un ETag fort
+        String etag = "\"" + attachment.getSha256() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long length = attachment.getSize();
+        long start = 0;
+        long end = length;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                // En-tête Range invalide : ignoré
+                ranges = List.of();
+            }
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length) + 1;
+                } catch (IllegalArgumentException e) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+            }
+        }
+
+        response.setContentType(attachment.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(attachment.getFileName(), StandardCharsets.UTF_8).build().toString());
+        response.setContentLengthLong(end - start);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        Path file = attachmentService.getContentPath(attachment);
+        if (end - start >= sendfileMinBytes && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat envoie le fichier avec sendfile(2) après le retour de la méthode : aucune copie en espace utilisateur
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
+        }
+    }
+
+    /**
+     * Removes an attachment from a task.
+     *
+     * @return ResponseEntity indicating the result of the operation.
+     */
+    @DeleteMapping("/{attachmentId}")
+    @OwnsTask
+    public ResponseEntity<Void> deleteAttachment(
+            @PathVariable String listId,
+            @PathVariable String taskId,
+            @PathVariable String attachmentId) {
+        return attachmentService.deleteAttachment(taskId, attachmentId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -86,7 +86,6 @@ public class AuthController {
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@RequestBody UserRegistrationRequest registrationRequest) {
         try {
-            System.out.println("Registering user: " + registrationRequest.email + ", name: " + registrationRequest.name + ", password: " + registrationRequest.password);
             User user = new User();
             user.setEmail(registrationRequest.email);
             user.setName(registrationRequest.name);
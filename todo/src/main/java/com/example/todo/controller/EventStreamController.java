@@ -0,0 +1,67 @@
+package com.example.todo.controller;
+
+import com.example.todo.security.CurrentUser;
+import com.example.todo.service.EventStreamService;
+import com.example.todo.service.JwtService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+/**
+ * Controller for the Server-Sent Events stream of list and task changes.
+ */
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "*")
+public class EventStreamController {
+
+    private final EventStreamService eventStreamService;
+    private final CurrentUser currentUser;
+    private final JwtService jwtService;
+
+    public EventStreamController(EventStreamService eventStreamService, CurrentUser currentUser,
+                                 JwtService jwtService) {
+        this.eventStreamService = eventStreamService;
+        this.currentUser = currentUser;
+        this.jwtService = jwtService;
+    }
+
+    /**
+     * Opens an event stream for the authenticated user.
+     * Each {@code change} event carries the latest change log sequence number as its id, once per
+     * committed transaction at most; clients apply the changes through {@code GET /api/sync}.
+     *
+     * @return ResponseEntity containing the SSE emitter, or 503 when the connection cap is reached.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents() {
+        String userId = currentUser.getId();
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        try {
+            return ResponseEntity.ok(eventStreamService.subscribe(userId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "30").build();
+        }
+    }
+
+    /**
+     * Issues a short-lived token accepted only by the event stream, as its {@code access_token}
+     * query parameter, since {@code EventSource} cannot send an Authorization header.
+     *
+     * @return ResponseEntity containing the token.
+     */
+    @PostMapping("/token")
+    public ResponseEntity<Map<String, String>> createStreamToken(Authentication authentication) {
+        if (authentication == null || currentUser.getId() == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.ok(Map.of("token", jwtService.generateEventsToken(authentication.getName())));
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.todo.controller;
+
+import com.example.todo.dto.SyncResponse;
+import com.example.todo.monitoring.QueryBudget;
+import com.example.todo.security.CurrentUser;
+import com.example.todo.service.SyncService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller for delta synchronization.
+ * Clients send the last sequence number they applied and receive only what changed since.
+ */
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = "*")
+public class SyncController {
+
+    private final SyncService syncService;
+    private final CurrentUser currentUser;
+
+    @Value("${sync.max-batch-size:500}")
+    private int maxBatchSize;
+
+    public SyncController(SyncService syncService, CurrentUser currentUser) {
+        this.syncService = syncService;
+        this.currentUser = currentUser;
+    }
+
+    /**
+     * Retrieves the changes made to the authenticated user's lists and tasks after {@code since}.
+     *
+     * @param since The last sequence number known by the client (0 for a full snapshot).
+     * @param limit The maximum number of log entries to read; {@code hasMore} is set when more remain.
+     * @return ResponseEntity containing the upserts and tombstones, or a full snapshot.
+     */
+    @GetMapping
+    @QueryBudget(8)
+    public ResponseEntity<SyncResponse> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(required = false) Integer limit) {
+        String userId = currentUser.getId();
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        int batchSize = limit == null ? maxBatchSize : Math.max(1, Math.min(limit, maxBatchSize));
+        return ResponseEntity.ok(syncService.getChangesSince(userId, since, batchSize));
+    }
+}
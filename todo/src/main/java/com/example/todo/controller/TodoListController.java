@@ -1,15 +1,31 @@
 package com.example.todo.controller;
 
+import com.example.todo.dto.ListMember;
+import com.example.todo.model.ListMembership;
+import com.example.todo.model.ListPermission;
 import com.example.todo.model.TodoList;
+import com.example.todo.model.User;
+import com.example.todo.monitoring.QueryBudget;
+import com.example.todo.security.CurrentUser;
+import com.example.todo.security.OwnsList;
+import com.example.todo.service.DashboardService;
+import com.example.todo.service.ListAccessIndex;
+import com.example.todo.service.ListResponseCache;
 import com.example.todo.service.TodoListService;
 import com.example.todo.repository.UserRepository;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Controller for managing Todo Lists.
@@ -22,22 +38,92 @@ public class TodoListController {
 
     private final TodoListService todoListService;
     private final UserRepository userRepository;
+    private final ListAccessIndex accessIndex;
+    private final CurrentUser currentUser;
+    private final ListResponseCache listResponseCache;
+    private final DashboardService dashboardService;
 
-    public TodoListController(TodoListService todoListService, UserRepository userRepository) {
+    private static final String SMILE_VALUE = "application/x-jackson-smile";
+    private static final List<MediaType> LIST_MEDIA_TYPES = List.of(
+            MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, MediaType.parseMediaType(SMILE_VALUE));
+
+    public TodoListController(TodoListService todoListService, UserRepository userRepository,
+                              ListAccessIndex accessIndex, CurrentUser currentUser,
+                              ListResponseCache listResponseCache, DashboardService dashboardService) {
         this.todoListService = todoListService;
         this.userRepository = userRepository;
+        this.accessIndex = accessIndex;
+        this.currentUser = currentUser;
+        this.listResponseCache = listResponseCache;
+        this.dashboardService = dashboardService;
+    }
+
+    // Static inner DTO for Share Request
+    public static class ShareRequest {
+        private String email;
+        private ListPermission permission;
+
+        public String getEmail() {
+            return email;
+        }
+
+        public void setEmail(String email) {
+            this.email = email;
+        }
+
+        public ListPermission getPermission() {
+            return permission;
+        }
+
+        public void setPermission(ListPermission permission) {
+            this.permission = permission;
+        }
     }
 
     /**
-     * Retrieves all Todo Lists for the authenticated user.
+     * Retrieves all Todo Lists the authenticated user owns or has been shared.
      *
      * @return ResponseEntity containing the list of Todo Lists.
      */
-    @GetMapping
-    public ResponseEntity<List<TodoList>> getAllTodoLists() {
-        String userId = getCurrentUserId();
-        List<TodoList> todoLists = todoListService.getAllTodoListsByUserId(userId);
-        return ResponseEntity.ok(todoLists);
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, SMILE_VALUE})
+    @QueryBudget(4)
+    public ResponseEntity<byte[]> getAllTodoLists(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept)
+            throws HttpMediaTypeNotAcceptableException {
+        String userId = currentUser.getId();
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        MediaType mediaType = negotiate(accept);
+        // The response is cached already serialized, per user and format (see ListResponseCache);
+        // a miss reads the user's precomputed dashboard document by primary key
+        byte[] body = listResponseCache.getDocument(userId, mediaType, () -> dashboardService.getDocument(userId));
+        return ResponseEntity.ok().contentType(mediaType).body(body);
+    }
+
+    /**
+     * Picks the preferred supported format from the Accept header, JSON when there is none.
+     *
+     * @throws HttpMediaTypeNotAcceptableException if the header accepts none of the supported formats (406).
+     */
+    private static MediaType negotiate(String accept) throws HttpMediaTypeNotAcceptableException {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType candidate : accepted) {
+            // q=0 means "not acceptable"
+            if (candidate.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType supported : LIST_MEDIA_TYPES) {
+                if (candidate.isCompatibleWith(supported)) {
+                    return supported;
+                }
+            }
+        }
+        throw new HttpMediaTypeNotAcceptableException(LIST_MEDIA_TYPES);
     }
 
     /**
@@ -51,7 +137,7 @@ public class TodoListController {
         if (todoList.getTitle() == null || todoList.getTitle().trim().isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
-        todoList.setUserId(getCurrentUserId());
+        todoList.setUserId(currentUser.getId());
         TodoList createdList = todoListService.createTodoList(todoList);
         return ResponseEntity.status(201).body(createdList);
     }
@@ -63,15 +149,9 @@ public class TodoListController {
      * @return ResponseEntity indicating the result of the operation.
      */
     @DeleteMapping("/{listId}")
+    @OwnsList(permission = ListPermission.OWNER)
     public ResponseEntity<Void> deleteTodoList(@PathVariable String listId) {
         try {
-            TodoList list = todoListService.getTodoListById(listId).orElse(null);
-            if (list == null) {
-                return ResponseEntity.notFound().build();
-            }
-            if (!getCurrentUserId().equals(list.getUserId())) {
-                return ResponseEntity.status(403).build();
-            }
             todoListService.deleteTodoList(listId);
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
@@ -87,6 +167,7 @@ public class TodoListController {
      * @return ResponseEntity containing the updated Todo List.
      */
     @PutMapping("/{listId}")
+    @OwnsList
     public ResponseEntity<TodoList> updateTodoList(
             @PathVariable String listId,
             @Valid @RequestBody TodoList todoList) {
@@ -94,14 +175,6 @@ public class TodoListController {
             return ResponseEntity.badRequest().build();
         }
         try {
-            TodoList existingList = todoListService.getTodoListById(listId).orElse(null);
-            if (existingList == null) {
-                return ResponseEntity.notFound().build();
-            }
-            if (!getCurrentUserId().equals(existingList.getUserId())) {
-                return ResponseEntity.status(403).build();
-            }
-            todoList.setUserId(existingList.getUserId());
             TodoList updatedList = todoListService.updateTodoList(listId, todoList);
             return ResponseEntity.ok(updatedList);
         } catch (IllegalArgumentException e) {
@@ -111,17 +184,72 @@ public class TodoListController {
         }
     }
 
-    // Méthode utilitaire pour récupérer l'id utilisateur depuis le contexte de sécurité
-    private String getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.isAuthenticated()) {
-            String email = authentication.getName();
-            // Cherche l'utilisateur par email pour obtenir son UUID
-            com.example.todo.model.User user = userRepository.findByEmail(email).orElse(null);
-            if (user != null) {
-                return user.getId();
-            }
+    /**
+     * Retrieves the users a Todo List is shared with. Any user with access may see them.
+     *
+     * @param listId The ID of the Todo List.
+     * @return ResponseEntity containing the members of the list.
+     */
+    @GetMapping("/{listId}/members")
+    @OwnsList(permission = ListPermission.READ)
+    @QueryBudget(8)
+    public ResponseEntity<List<ListMember>> getMembers(@PathVariable String listId) {
+        List<ListMembership> memberships = todoListService.getMembers(listId);
+        Map<String, User> users = userRepository.findAllById(
+                        memberships.stream().map(ListMembership::getUserId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<ListMember> members = memberships.stream()
+                .filter(m -> users.containsKey(m.getUserId()))
+                .map(m -> new ListMember(users.get(m.getUserId()), m.getPermission()))
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(members);
+    }
+
+    /**
+     * Shares a Todo List with another user, identified by email. Only the owner may share.
+     *
+     * @param listId The ID of the Todo List to share.
+     * @param shareRequest The email of the user and the permission (READ or WRITE).
+     * @return ResponseEntity containing the new member.
+     */
+    @PutMapping("/{listId}/members")
+    @OwnsList(permission = ListPermission.OWNER)
+    public ResponseEntity<ListMember> shareTodoList(
+            @PathVariable String listId,
+            @RequestBody ShareRequest shareRequest) {
+        User member = userRepository.findByEmail(shareRequest.getEmail()).orElse(null);
+        if (member == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            ListMembership membership = todoListService.shareTodoList(listId, member.getId(), shareRequest.getPermission());
+            return ResponseEntity.ok(new ListMember(member, membership.getPermission()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Revokes a user's access to a Todo List. The owner may remove anyone; a member may leave.
+     *
+     * @param listId The ID of the Todo List.
+     * @param userId The ID of the member to remove.
+     * @return ResponseEntity indicating the result of the operation.
+     */
+    @DeleteMapping("/{listId}/members/{userId}")
+    @OwnsList(permission = ListPermission.READ)
+    public ResponseEntity<Void> unshareTodoList(@PathVariable String listId, @PathVariable String userId) {
+        String currentUserId = currentUser.getId();
+        if (!userId.equals(currentUserId)
+                && !accessIndex.hasPermission(currentUserId, listId, ListPermission.OWNER)) {
+            return ResponseEntity.status(403).build();
+        }
+        try {
+            todoListService.unshareTodoList(listId, userId);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
         }
-        return null;
     }
 }
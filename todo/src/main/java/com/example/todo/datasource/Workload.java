@@ -0,0 +1,21 @@
+package com.example.todo.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Pool de connexions utilisé par la méthode annotée, ou par toutes les méthodes de la classe.
+ * Appliqué par {@link WorkloadAspect} avant l'ouverture de la transaction ; l'annotation de la
+ * méthode l'emporte sur celle de la classe. Un appel imbriqué dans une transaction déjà ouverte
+ * réutilise la connexion de la transaction.
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Workload {
+
+    WorkloadType value();
+}
@@ -0,0 +1,67 @@
+package com.example.todo.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+
+/**
+ * Applique {@link Workload} : la charge est fixée pour la durée de l'appel puis rétablie.
+ * Passe avant l'intercepteur transactionnel, qui prend la connexion dès l'ouverture de la transaction.
+ * <p>
+ * Un appel qui rejoint une transaction déjà ouverte garde la connexion de celle-ci, donc son pool :
+ * {@code TodoListService.updateTodoList} (BULK) appelé depuis une transaction INTERACTIVE s'exécute
+ * sur le pool INTERACTIVE. La charge demandée ne vaut alors que pour les transactions que l'appel
+ * ouvrirait lui-même ({@code REQUIRES_NEW}) ; l'écart est tracé en debug.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class WorkloadAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkloadAspect.class);
+
+    @Around("@annotation(com.example.todo.datasource.Workload) || @within(com.example.todo.datasource.Workload)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        WorkloadType workload = workload(joinPoint);
+        WorkloadType previous = WorkloadRoutingDataSource.enter(workload);
+        if (logger.isDebugEnabled() && TransactionSynchronizationManager.isActualTransactionActive()
+                && workload != (previous != null ? previous : WorkloadType.INTERACTIVE)) {
+            logger.debug("{} joins an open transaction and keeps its connection instead of the {} pool",
+                    joinPoint.getSignature().toShortString(), workload);
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadRoutingDataSource.restore(previous);
+        }
+    }
+
+    /**
+     * Charge de la méthode appelée, sinon de sa classe ; {@link WorkloadType#INTERACTIVE} si aucune
+     * annotation n'est trouvée (méthode d'interface d'un proxy JDK, cible absente).
+     */
+    private static WorkloadType workload(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> targetClass = joinPoint.getTarget() != null
+                ? AopUtils.getTargetClass(joinPoint.getTarget())
+                : method.getDeclaringClass();
+        // Avec un proxy JDK, la signature désigne la méthode de l'interface, pas celle de la classe annotée
+        Workload workload = AnnotatedElementUtils.findMergedAnnotation(
+                AopUtils.getMostSpecificMethod(method, targetClass), Workload.class);
+        if (workload == null) {
+            workload = AnnotatedElementUtils.findMergedAnnotation(targetClass, Workload.class);
+        }
+        return workload != null ? workload.value() : WorkloadType.INTERACTIVE;
+    }
+}
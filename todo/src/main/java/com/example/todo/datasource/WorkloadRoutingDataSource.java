@@ -0,0 +1,43 @@
+package com.example.todo.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Bean {@code dataSource} principal : chaque demande de connexion est dirigée vers le pool de la
+ * {@link WorkloadType} courante du thread, ou vers le pool {@link WorkloadType#INTERACTIVE}
+ * en dehors d'une méthode annotée {@link Workload}.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final ThreadLocal<WorkloadType> CURRENT = new ThreadLocal<>();
+
+    public WorkloadRoutingDataSource(Map<WorkloadType, DataSource> pools) {
+        setTargetDataSources(Map.copyOf(pools));
+        setDefaultTargetDataSource(pools.get(WorkloadType.INTERACTIVE));
+    }
+
+    /**
+     * Fixe la charge du thread courant et renvoie la précédente, à rétablir avec {@link #restore}.
+     */
+    static WorkloadType enter(WorkloadType workload) {
+        WorkloadType previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+
+    static void restore(WorkloadType previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT.get();
+    }
+}
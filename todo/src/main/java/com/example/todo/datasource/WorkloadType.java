@@ -0,0 +1,24 @@
+package com.example.todo.datasource;
+
+/**
+ * Classes de charge, chacune servie par son propre pool de connexions.
+ */
+public enum WorkloadType {
+
+    /**
+     * Chargement de l'utilisateur à l'authentification et à l'inscription : requêtes courtes,
+     * pool réservé pour qu'aucune autre charge ne bloque les connexions.
+     */
+    AUTH,
+
+    /**
+     * Lectures et écritures unitaires des listes et tâches ; pool par défaut.
+     */
+    INTERACTIVE,
+
+    /**
+     * Écritures volumineuses et traitements longs (remplacement d'une liste entière, sauvegardes) :
+     * petit pool, attente plus longue.
+     */
+    BULK
+}
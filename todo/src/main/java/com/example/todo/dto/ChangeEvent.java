@@ -0,0 +1,52 @@
+package com.example.todo.dto;
+
+import com.example.todo.model.ChangeEntityType;
+import com.example.todo.model.ChangeLogEntry;
+import com.example.todo.model.ChangeOperation;
+
+/**
+ * Événement applicatif publié pour chaque entrée du journal des changements.
+ * Il est diffusé aux abonnés après le commit de la transaction qui l'a produit.
+ */
+public class ChangeEvent {
+
+    private final String userId;
+    private final long seq;
+    private final ChangeEntityType entityType;
+    private final String entityId;
+    private final String listId;
+    private final ChangeOperation operation;
+
+    public ChangeEvent(ChangeLogEntry entry) {
+        this.userId = entry.getUserId();
+        this.seq = entry.getSeq();
+        this.entityType = entry.getEntityType();
+        this.entityId = entry.getEntityId();
+        this.listId = entry.getListId();
+        this.operation = entry.getOperation();
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public ChangeEntityType getEntityType() {
+        return entityType;
+    }
+
+    public String getEntityId() {
+        return entityId;
+    }
+
+    public String getListId() {
+        return listId;
+    }
+
+    public ChangeOperation getOperation() {
+        return operation;
+    }
+}
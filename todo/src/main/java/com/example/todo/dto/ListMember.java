@@ -0,0 +1,38 @@
+package com.example.todo.dto;
+
+import com.example.todo.model.ListPermission;
+import com.example.todo.model.User;
+
+/**
+ * Utilisateur avec qui une liste est partagée, tel que renvoyé par l'API.
+ */
+public class ListMember {
+
+    private final String userId;
+    private final String email;
+    private final String name;
+    private final ListPermission permission;
+
+    public ListMember(User user, ListPermission permission) {
+        this.userId = user.getId();
+        this.email = user.getEmail();
+        this.name = user.getName();
+        this.permission = permission;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ListPermission getPermission() {
+        return permission;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.todo.dto;
+
+import com.example.todo.model.Task;
+import com.example.todo.model.TodoList;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réponse de {@code GET /api/sync}.
+ * En mode instantané ({@code snapshot = true}), {@code snapshot} contient toutes les listes
+ * et le client remplace son état local ; sinon seuls les upserts et suppressions sont renvoyés.
+ */
+public class SyncResponse {
+
+    private long seq;
+    private boolean hasMore;
+    private final boolean snapshot;
+    private List<TodoList> snapshotLists = new ArrayList<>();
+    private final List<ListChange> lists = new ArrayList<>();
+    private final List<TaskChange> tasks = new ArrayList<>();
+    private final List<String> deletedLists = new ArrayList<>();
+    private final List<String> deletedTasks = new ArrayList<>();
+
+    public SyncResponse(boolean snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public static SyncResponse snapshot(long seq, List<TodoList> lists) {
+        SyncResponse response = new SyncResponse(true);
+        response.seq = seq;
+        response.snapshotLists = lists;
+        return response;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    public List<TodoList> getSnapshotLists() {
+        return snapshotLists;
+    }
+
+    public List<ListChange> getLists() {
+        return lists;
+    }
+
+    public List<TaskChange> getTasks() {
+        return tasks;
+    }
+
+    public List<String> getDeletedLists() {
+        return deletedLists;
+    }
+
+    public List<String> getDeletedTasks() {
+        return deletedTasks;
+    }
+
+    /**
+     * Propriétés d'une liste, sans ses tâches (elles sont synchronisées séparément).
+     */
+    public static class ListChange {
+        private final String id;
+        private final String title;
+        private final String userId;
+        private final LocalDateTime createdAt;
+
+        public ListChange(TodoList list) {
+            this.id = list.getId();
+            this.title = list.getTitle();
+            this.userId = list.getUserId();
+            this.createdAt = list.getCreatedAt();
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getUserId() {
+            return userId;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+    }
+
+    /**
+     * Une tâche accompagnée de l'ID de sa liste (non sérialisé dans {@link Task}).
+     */
+    public static class TaskChange {
+        private final String listId;
+        private final Task task;
+
+        public TaskChange(String listId, Task task) {
+            this.listId = listId;
+            this.task = task;
+        }
+
+        public String getListId() {
+            return listId;
+        }
+
+        public Task getTask() {
+            return task;
+        }
+    }
+}
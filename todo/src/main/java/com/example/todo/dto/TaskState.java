@@ -0,0 +1,44 @@
+package com.example.todo.dto;
+
+import com.example.todo.model.Task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tâche telle que renvoyée par {@code PATCH .../toggle} : mêmes champs JSON que {@link Task}.
+ * L'état peut différer de celui de l'entité quand un appel plus récent du même lot l'a remplacé.
+ */
+public class TaskState {
+
+    private final String id;
+    private final String text;
+    private final boolean done;
+    private final LocalDateTime createdAt;
+
+    public TaskState(Task task) {
+        this(task, task.isDone());
+    }
+
+    public TaskState(Task task, boolean done) {
+        this.id = task.getId();
+        this.text = task.getText();
+        this.done = done;
+        this.createdAt = task.getCreatedAt();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.todo.maintenance;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Point d'accès Actuator {@code /actuator/backups}, servi sur le port de management :
+ * {@code GET} liste les sauvegardes, {@code POST} en déclenche une,
+ * {@code POST /actuator/backups/{name}} vérifie une sauvegarde existante.
+ * Réservé aux comptes administrateurs ({@code security.admin-emails}, voir {@code SecurityConfig}).
+ */
+@Component
+@Endpoint(id = "backups")
+public class BackupEndpoint {
+
+    private final DatabaseBackupService backupService;
+
+    public BackupEndpoint(DatabaseBackupService backupService) {
+        this.backupService = backupService;
+    }
+
+    @ReadOperation
+    public List<DatabaseBackupService.BackupInfo> backups() throws IOException {
+        return backupService.listBackups();
+    }
+
+    @WriteOperation
+    public DatabaseBackupService.BackupInfo backup() throws IOException {
+        return backupService.backup();
+    }
+
+    @WriteOperation
+    public DatabaseBackupService.BackupInfo verify(@Selector String name) throws IOException {
+        return backupService.verify(name);
+    }
+}
@@ -0,0 +1,370 @@
+package com.example.todo.maintenance;
+
+import com.example.todo.datasource.Workload;
+import com.example.todo.datasource.WorkloadType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Sauvegardes à chaud de la base H2.
+ * <p>
+ * {@code BACKUP TO} copie le fichier MVStore dans une archive zip pendant que les écritures continuent :
+ * pendant la copie, H2 cesse de réutiliser l'espace libre, les nouvelles pages sont ajoutées en fin de
+ * fichier et celles en cours de copie restent intactes. Aucun verrou de table n'est pris ; seule une
+ * connexion du pool est occupée le temps de la copie.
+ * <p>
+ * Chaque archive est accompagnée d'un manifeste ({@code .properties}) : empreinte SHA-256, taille, durée.
+ * La vérification est incrémentale : seules les archives pas encore vérifiées sont restaurées dans un
+ * répertoire temporaire, ouvertes comme une instance neuve et relues table par table ; le résultat est
+ * ajouté au manifeste.
+ */
+@Service
+@Workload(WorkloadType.BULK)
+public class DatabaseBackupService implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseBackupService.class);
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final String MV_SUFFIX = ".mv.db";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path dir;
+    private final int retention;
+    private final String username;
+    private final String password;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong lastSuccess = new AtomicLong();
+    private Timer durations;
+    private DistributionSummary sizes;
+    private DistributionSummary throughputs;
+    private MeterRegistry registry;
+
+    public DatabaseBackupService(JdbcTemplate jdbcTemplate,
+                                 @Value("${backup.dir:./data/backups}") String dir,
+                                 @Value("${backup.retention:7}") int retention,
+                                 @Value("${spring.datasource.username:sa}") String username,
+                                 @Value("${spring.datasource.password:}") String password) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dir = Path.of(dir).toAbsolutePath().normalize();
+        this.retention = retention;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        durations = Timer.builder("db.backup.duration")
+                .description("Time to write an online backup")
+                .register(registry);
+        sizes = DistributionSummary.builder("db.backup.size")
+                .description("Compressed size of online backups")
+                .baseUnit("bytes")
+                .register(registry);
+        throughputs = DistributionSummary.builder("db.backup.throughput")
+                .description("Compressed bytes written per second of backup")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("db.backup.last.success", lastSuccess, AtomicLong::get)
+                .description("Completion time of the last successful backup")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    /**
+     * Sauvegarde planifiée (chaque nuit par défaut, {@code backup.cron=-} pour la désactiver),
+     * suivie de la vérification des archives en attente.
+     */
+    @Scheduled(cron = "${backup.cron:0 0 3 * * *}")
+    public void scheduledBackup() {
+        try {
+            backup();
+            verifyPending();
+        } catch (IllegalStateException e) {
+            logger.warn("Scheduled backup skipped: {}", e.getMessage());
+        } catch (RuntimeException | IOException e) {
+            logger.error("Scheduled backup failed", e);
+        }
+    }
+
+    /**
+     * Écrit une nouvelle sauvegarde puis supprime les plus anciennes au-delà de {@code backup.retention}.
+     *
+     * @throws IllegalStateException si une sauvegarde est déjà en cours
+     */
+    public BackupInfo backup() throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A backup is already running");
+        }
+        try {
+            Files.createDirectories(dir);
+            Path file = dir.resolve("backup-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".zip");
+            long start = System.nanoTime();
+            try {
+                jdbcTemplate.execute("BACKUP TO '" + file.toString().replace("'", "''") + "'");
+            } catch (RuntimeException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            long elapsedNanos = System.nanoTime() - start;
+
+            Properties manifest = new Properties();
+            long size = Files.size(file);
+            manifest.setProperty("size", Long.toString(size));
+            manifest.setProperty("sha256", sha256(file));
+            manifest.setProperty("durationMs", Long.toString(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)));
+            manifest.setProperty("createdAt", Instant.now().toString());
+            writeManifest(file, manifest);
+
+            double bytesPerSecond = size / Math.max(elapsedNanos / 1e9, 1e-9);
+            if (durations != null) {
+                durations.record(elapsedNanos, TimeUnit.NANOSECONDS);
+                sizes.record(size);
+                throughputs.record(bytesPerSecond);
+            }
+            lastSuccess.set(Instant.now().getEpochSecond());
+            logger.info("Backup {} written: {} bytes in {} ms ({} KiB/s)", file.getFileName(), size,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(bytesPerSecond / 1024));
+
+            deleteExpired();
+            return info(file);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Vérifie les sauvegardes qui ne l'ont pas encore été.
+     *
+     * @return les sauvegardes vérifiées par cet appel
+     */
+    public List<BackupInfo> verifyPending() throws IOException {
+        List<BackupInfo> verified = new ArrayList<>();
+        for (BackupInfo backup : listBackups()) {
+            if (backup.verifiedAt() == null) {
+                verified.add(verify(backup.name()));
+            }
+        }
+        return verified;
+    }
+
+    /**
+     * Restaure une sauvegarde dans un répertoire temporaire, l'ouvre comme une instance neuve et
+     * compte les lignes de chaque table, ce qui relit toutes leurs pages. Le résultat est noté dans le manifeste.
+     *
+     * @throws IllegalArgumentException si la sauvegarde n'existe pas
+     */
+    public BackupInfo verify(String name) throws IOException {
+        Path file = resolve(name).orElseThrow(() -> new IllegalArgumentException("Unknown backup " + name));
+        Properties manifest = readManifest(file);
+        Path restored = Files.createTempDirectory(dir, "verify-");
+        boolean ok = false;
+        try {
+            String expected = manifest.getProperty("sha256");
+            if (expected != null && !expected.equals(sha256(file))) {
+                throw new IOException("Checksum mismatch for " + name);
+            }
+            String database = restore(file, restored);
+            Map<String, Long> rows = countRows(restored.resolve(database));
+            rows.forEach((table, count) -> manifest.setProperty("rows." + table, Long.toString(count)));
+            manifest.setProperty("verifiedAt", Instant.now().toString());
+            manifest.remove("verificationError");
+            ok = true;
+            logger.info("Backup {} verified: {} tables readable", name, rows.size());
+        } catch (IOException | SQLException e) {
+            manifest.setProperty("verificationError", String.valueOf(e.getMessage()));
+            logger.error("Backup {} failed verification", name, e);
+        } finally {
+            FileSystemUtils.deleteRecursively(restored);
+            writeManifest(file, manifest);
+            if (registry != null) {
+                Counter.builder("db.backup.verifications")
+                        .description("Backup verifications by outcome")
+                        .tag("outcome", ok ? "success" : "failure")
+                        .register(registry)
+                        .increment();
+            }
+        }
+        return info(file);
+    }
+
+    /**
+     * Sauvegardes présentes, de la plus récente à la plus ancienne.
+     */
+    public List<BackupInfo> listBackups() throws IOException {
+        List<BackupInfo> backups = new ArrayList<>();
+        for (Path file : backupFiles()) {
+            backups.add(info(file));
+        }
+        backups.sort(Comparator.comparing(BackupInfo::name).reversed());
+        return backups;
+    }
+
+    // Extrait l'archive (le CRC de chaque entrée est contrôlé à la lecture) et renvoie le nom de la base
+    private static String restore(Path file, Path target) throws IOException {
+        String database = null;
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(file))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                Path out = target.resolve(entry.getName()).normalize();
+                if (!out.startsWith(target)) {
+                    throw new IOException("Unexpected entry " + entry.getName());
+                }
+                Files.createDirectories(out.getParent());
+                Files.copy(zip, out);
+                if (entry.getName().endsWith(MV_SUFFIX)) {
+                    database = entry.getName().substring(0, entry.getName().length() - MV_SUFFIX.length());
+                }
+            }
+        }
+        if (database == null) {
+            throw new IOException("No database file in " + file.getFileName());
+        }
+        return database;
+    }
+
+    private Map<String, Long> countRows(Path database) throws SQLException {
+        Map<String, Long> rows = new LinkedHashMap<>();
+        String url = "jdbc:h2:file:" + database + ";IFEXISTS=TRUE;ACCESS_MODE_DATA=r";
+        try (Connection connection = DriverManager.getConnection(url, username, password);
+             Statement statement = connection.createStatement()) {
+            List<String> tables = new ArrayList<>();
+            try (ResultSet result = statement.executeQuery("select table_name from information_schema.tables "
+                    + "where table_schema = 'PUBLIC' and table_type = 'BASE TABLE' order by table_name")) {
+                while (result.next()) {
+                    tables.add(result.getString(1));
+                }
+            }
+            for (String table : tables) {
+                try (ResultSet result = statement.executeQuery(
+                        "select count(*) from \"" + table.replace("\"", "\"\"") + "\"")) {
+                    result.next();
+                    rows.put(table.toLowerCase(), result.getLong(1));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private void deleteExpired() throws IOException {
+        List<Path> files = new ArrayList<>(backupFiles());
+        files.sort(Comparator.comparing(Path::getFileName).reversed());
+        for (Path old : files.subList(Math.min(Math.max(retention, 1), files.size()), files.size())) {
+            Files.deleteIfExists(manifestOf(old));
+            Files.deleteIfExists(old);
+            logger.info("Deleted expired backup {}", old.getFileName());
+        }
+    }
+
+    private Optional<Path> resolve(String name) throws IOException {
+        return backupFiles().stream().filter(file -> file.getFileName().toString().equals(name)).findFirst();
+    }
+
+    private List<Path> backupFiles() throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().matches("backup-\\d{8}-\\d{6}-\\d{3}\\.zip"))
+                    .toList();
+        }
+    }
+
+    private BackupInfo info(Path file) throws IOException {
+        Properties manifest = readManifest(file);
+        Map<String, Long> rows = new LinkedHashMap<>();
+        manifest.stringPropertyNames().stream()
+                .filter(key -> key.startsWith("rows."))
+                .sorted()
+                .forEach(key -> rows.put(key.substring(5), Long.parseLong(manifest.getProperty(key))));
+        String durationMs = manifest.getProperty("durationMs");
+        return new BackupInfo(file.getFileName().toString(), Files.size(file),
+                durationMs != null ? Long.parseLong(durationMs) : null,
+                manifest.getProperty("sha256"), manifest.getProperty("createdAt"),
+                manifest.getProperty("verifiedAt"), manifest.getProperty("verificationError"), rows);
+    }
+
+    private static Path manifestOf(Path file) {
+        return file.resolveSibling(file.getFileName() + ".properties");
+    }
+
+    private static Properties readManifest(Path file) throws IOException {
+        Properties manifest = new Properties();
+        Path path = manifestOf(file);
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path)) {
+                manifest.load(reader);
+            }
+        }
+        return manifest;
+    }
+
+    private static void writeManifest(Path file, Properties manifest) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(manifestOf(file))) {
+            manifest.store(writer, null);
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Une sauvegarde et son manifeste ; {@code verifiedAt} est nul tant qu'elle n'a pas été vérifiée.
+     */
+    public record BackupInfo(String name, long size, Long durationMs, String sha256, String createdAt,
+                             String verifiedAt, String verificationError, Map<String, Long> rows) {
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.todo.maintenance;
+
+import com.example.todo.datasource.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.h2.engine.SessionLocal;
+import org.h2.jdbc.JdbcConnection;
+import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compactage incrémental du fichier MVStore de H2.
+ * <p>
+ * Les suppressions ({@code deleteTask}, {@code deleteTodoList}) laissent des pages mortes dans des
+ * chunks partiellement remplis ; le fichier grossit et les lectures à froid touchent plus de blocs.
+ * Quand le taux de remplissage des chunks passe sous {@code target-fill-rate}, ce travail réécrit les
+ * chunks les moins remplis par petites tranches ({@link MVStore#compact(int, int)}), uniquement
+ * quand le pool de connexions est presque inactif.
+ * <p>
+ * Une tranche retient le verrou du store, donc les validations concurrentes : sa taille (en octets
+ * réécrits) s'ajuste pour que sa durée reste sous {@code slice-budget-ms}, et une pause de même durée
+ * sépare deux tranches. Une exécution s'arrête au bout de {@code run-budget-ms} ou dès que la charge remonte ;
+ * la suivante reprend là où elle s'est arrêtée.
+ */
+@Component
+public class StoreCompactionJob implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoreCompactionJob.class);
+    private static final int MIN_SLICE_BYTES = 16 * 1024;
+    private static final int MAX_SLICE_BYTES = 16 * 1024 * 1024;
+
+    private final DataSource dataSource;
+    private final Map<String, DataSource> dataSources;
+    private volatile double fileSize = Double.NaN;
+    private volatile double fillRatio = Double.NaN;
+    private volatile double chunksFillRatio = Double.NaN;
+    private volatile double progress = 1;
+    private int sliceBytes = 256 * 1024;
+    private Timer sliceTimer;
+    private Counter rewritten;
+    private Counter deferred;
+
+    @Value("${store-compaction.enabled:true}")
+    private boolean enabled;
+
+    @Value("${store-compaction.target-fill-rate:80}")
+    private int targetFillRate;
+
+    @Value("${store-compaction.slice-budget-ms:20}")
+    private long sliceBudgetMs;
+
+    @Value("${store-compaction.run-budget-ms:1000}")
+    private long runBudgetMs;
+
+    @Value("${store-compaction.max-active-connections:1}")
+    private int maxActiveConnections;
+
+    public StoreCompactionJob(DataSource dataSource, Map<String, DataSource> dataSources) {
+        this.dataSource = dataSource;
+        this.dataSources = dataSources;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("db.store.file.size", this, job -> job.fileSize)
+                .description("Size of the H2 MVStore file")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("db.store.fill.ratio", this, job -> job.fillRatio)
+                .description("Live data as a fraction of the MVStore file size")
+                .register(registry);
+        Gauge.builder("db.store.chunks.fill.ratio", this, job -> job.chunksFillRatio)
+                .description("Live data as a fraction of the space used by MVStore chunks")
+                .register(registry);
+        Gauge.builder("db.store.compaction.progress", this, job -> job.progress)
+                .description("Progress of the chunks fill ratio towards the compaction target, 1 when reached")
+                .register(registry);
+        sliceTimer = Timer.builder("db.store.compaction.slice")
+                .description("Duration of a compaction slice, during which commits wait")
+                .register(registry);
+        rewritten = Counter.builder("db.store.compaction.rewritten")
+                .description("Bytes of chunks rewritten by compaction")
+                .baseUnit("bytes")
+                .register(registry);
+        deferred = Counter.builder("db.store.compaction.deferred")
+                .description("Compaction runs stopped early because the connection pool was busy")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${store-compaction.interval-ms:60000}",
+            initialDelayString = "${store-compaction.interval-ms:60000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            if (!refreshStats(connection) || chunksFillRatio * 100 >= targetFillRate) {
+                return;
+            }
+            MVStore store = mvStore(connection);
+            if (store == null) {
+                // Connexion distante (AUTO_SERVER, autre processus propriétaire du fichier) ou base en mémoire
+                return;
+            }
+            double startRatio = chunksFillRatio;
+            compact(store);
+            refreshStats(connection);
+            logger.debug("Store compaction: chunks fill ratio {} -> {}, file size {} bytes",
+                    startRatio, chunksFillRatio, (long) fileSize);
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("Store compaction failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void compact(MVStore store) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(runBudgetMs);
+        long sliceBudgetNanos = TimeUnit.MILLISECONDS.toNanos(sliceBudgetMs);
+        while (System.nanoTime() < deadline) {
+            // La connexion de ce travail compte parmi les actives, tous pools confondus
+            if (activeConnections() > maxActiveConnections) {
+                if (deferred != null) {
+                    deferred.increment();
+                }
+                return;
+            }
+            long start = System.nanoTime();
+            boolean moved = store.compact(targetFillRate, sliceBytes);
+            long elapsed = System.nanoTime() - start;
+            if (sliceTimer != null) {
+                sliceTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                if (moved) {
+                    rewritten.increment(sliceBytes);
+                }
+            }
+            // Tranche suivante plus petite si celle-ci a dépassé le budget, plus grande si elle en est loin
+            if (elapsed > sliceBudgetNanos) {
+                sliceBytes = Math.max(MIN_SLICE_BYTES, sliceBytes / 2);
+            } else if (elapsed < sliceBudgetNanos / 4) {
+                sliceBytes = Math.min(MAX_SLICE_BYTES, sliceBytes * 2);
+            }
+            if (!moved) {
+                return;
+            }
+            TimeUnit.MILLISECONDS.sleep(sliceBudgetMs);
+        }
+    }
+
+    // Lit les statistiques du store dans INFORMATION_SCHEMA.SETTINGS ; false si la base n'a pas de fichier
+    private boolean refreshStats(Connection connection) throws SQLException {
+        Map<String, String> settings = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement("select setting_name, setting_value "
+                + "from information_schema.settings where setting_name in "
+                + "('info.FILE_SIZE', 'info.FILL_RATE', 'info.CHUNKS_FILL_RATE')");
+             ResultSet result = statement.executeQuery()) {
+            while (result.next()) {
+                settings.put(result.getString(1), result.getString(2));
+            }
+        }
+        if (settings.size() < 3) {
+            return false;
+        }
+        fileSize = Double.parseDouble(settings.get("info.FILE_SIZE"));
+        fillRatio = Double.parseDouble(settings.get("info.FILL_RATE")) / 100;
+        chunksFillRatio = Double.parseDouble(settings.get("info.CHUNKS_FILL_RATE")) / 100;
+        progress = Math.min(1, chunksFillRatio * 100 / targetFillRate);
+        return true;
+    }
+
+    private static MVStore mvStore(Connection connection) throws SQLException {
+        JdbcConnection jdbc = connection.unwrap(JdbcConnection.class);
+        if (jdbc.getSession() instanceof SessionLocal session && session.getDatabase().getStore() != null) {
+            return session.getDatabase().getStore().getMvStore();
+        }
+        return null;
+    }
+
+    private int activeConnections() {
+        int active = 0;
+        for (DataSource candidate : dataSources.values()) {
+            if (DataSourceUnwrapper.unwrap(candidate, WorkloadRoutingDataSource.class) != null) {
+                continue;
+            }
+            HikariDataSource hikari = DataSourceUnwrapper.unwrap(candidate, HikariDataSource.class);
+            HikariPoolMXBean pool = hikari != null ? hikari.getHikariPoolMXBean() : null;
+            active += pool != null ? pool.getActiveConnections() : 0;
+        }
+        return active;
+    }
+}
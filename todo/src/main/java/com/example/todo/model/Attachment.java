@@ -0,0 +1,109 @@
+package com.example.todo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.example.todo.model.listener.TimestampListener;
+import com.example.todo.model.listener.TimestampedEntity;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * Pièce jointe d'une tâche. Le contenu est stocké sur disque sous son empreinte SHA-256
+ * (voir {@link com.example.todo.service.AttachmentStorage}) : deux pièces jointes identiques
+ * partagent le même fichier. La suppression de la tâche supprime ses pièces jointes en base
+ * (ON DELETE CASCADE) ; les fichiers devenus orphelins sont ramassés plus tard.
+ */
+@Entity
+@EntityListeners(TimestampListener.class)
+@Table(name = "attachment",
+       indexes = {
+           @Index(name = "idx_attachment_task", columnList = "taskId"),
+           @Index(name = "idx_attachment_uploader", columnList = "uploaderId"),
+           @Index(name = "idx_attachment_sha256", columnList = "sha256")
+       })
+public class Attachment implements TimestampedEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "task_id", nullable = false)
+    private String taskId;
+
+    // Association en lecture seule : elle ne sert qu'à générer la clé étrangère en cascade
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "task_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private Task task;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    @Column(nullable = false)
+    private String contentType;
+
+    private long size;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    // Utilisateur dont le quota est débité
+    @Column(nullable = false)
+    private String uploaderId;
+
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    // Constructeur par défaut requis par JPA
+    public Attachment() {
+    }
+
+    public Attachment(String taskId, String fileName, String contentType, long size, String sha256, String uploaderId) {
+        this.taskId = taskId;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.size = size;
+        this.sha256 = sha256;
+        this.uploaderId = uploaderId;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public String getUploaderId() {
+        return uploaderId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
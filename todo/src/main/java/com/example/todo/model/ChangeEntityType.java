@@ -0,0 +1,9 @@
+package com.example.todo.model;
+
+/**
+ * Type d'entité concernée par une entrée du journal des changements.
+ */
+public enum ChangeEntityType {
+    LIST,
+    TASK
+}
@@ -0,0 +1,99 @@
+package com.example.todo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import com.example.todo.model.listener.TimestampListener;
+import com.example.todo.model.listener.TimestampedEntity;
+
+/**
+ * Entrée du journal des changements d'un utilisateur.
+ * Chaque mutation d'une liste ou d'une tâche ajoute une entrée avec un numéro de séquence
+ * strictement croissant par utilisateur, écrite dans la même transaction que la mutation.
+ */
+@Entity
+@EntityListeners(TimestampListener.class)
+@Table(name = "change_log",
+       indexes = {
+           @Index(name = "idx_change_log_user_seq", columnList = "userId, seq", unique = true),
+           @Index(name = "idx_change_log_user_entity", columnList = "userId, entityId")
+       })
+public class ChangeLogEntry implements TimestampedEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String userId;
+
+    private long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ChangeEntityType entityType;
+
+    @Column(nullable = false)
+    private String entityId;
+
+    // Liste parente (pour les tâches) ou la liste elle-même
+    private String listId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ChangeOperation operation;
+
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    // Constructeur par défaut requis par JPA
+    public ChangeLogEntry() {
+    }
+
+    public ChangeLogEntry(String userId, long seq, ChangeEntityType entityType, String entityId,
+                          String listId, ChangeOperation operation) {
+        this.userId = userId;
+        this.seq = seq;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.listId = listId;
+        this.operation = operation;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public ChangeEntityType getEntityType() {
+        return entityType;
+    }
+
+    public String getEntityId() {
+        return entityId;
+    }
+
+    public String getListId() {
+        return listId;
+    }
+
+    public ChangeOperation getOperation() {
+        return operation;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
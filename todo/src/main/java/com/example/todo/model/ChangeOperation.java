@@ -0,0 +1,9 @@
+package com.example.todo.model;
+
+/**
+ * Type de modification enregistrée dans le journal des changements.
+ */
+public enum ChangeOperation {
+    UPSERT,
+    DELETE
+}
@@ -0,0 +1,64 @@
+package com.example.todo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Modèle de lecture de {@code GET /api/lists} : le corps JSON complet de la réponse d'un utilisateur
+ * (ses listes, possédées ou partagées, avec leurs tâches), précalculé à chaque écriture.
+ * Une lecture du tableau de bord est ainsi une seule lecture par clé primaire.
+ * {@code seq} est le numéro de séquence du journal des changements de l'utilisateur
+ * au moment du calcul.
+ */
+@Entity
+@Table(name = "dashboard_document")
+public class DashboardDocument {
+
+    @Id
+    private String userId;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] body;
+
+    private long seq;
+
+    private LocalDateTime updatedAt;
+
+    // Constructeur par défaut requis par JPA
+    public DashboardDocument() {
+    }
+
+    public DashboardDocument(String userId) {
+        this.userId = userId;
+    }
+
+    // Getters and Setters
+    public String getUserId() {
+        return userId;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public void setBody(byte[] body) {
+        this.body = body;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.todo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import com.example.todo.model.listener.TimestampListener;
+import com.example.todo.model.listener.TimestampedEntity;
+
+/**
+ * Partage d'une liste avec un utilisateur autre que son propriétaire.
+ */
+@Entity
+@EntityListeners(TimestampListener.class)
+@Table(name = "list_membership",
+       uniqueConstraints = {
+           @UniqueConstraint(columnNames = {"listId", "userId"})
+       },
+       indexes = {
+           @Index(name = "idx_list_membership_user", columnList = "userId")
+       })
+public class ListMembership implements TimestampedEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(nullable = false)
+    private String listId;
+
+    @Column(nullable = false)
+    private String userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ListPermission permission;
+
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    // Constructeur par défaut requis par JPA
+    public ListMembership() {
+    }
+
+    public ListMembership(String listId, String userId, ListPermission permission) {
+        this.listId = listId;
+        this.userId = userId;
+        this.permission = permission;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public String getListId() {
+        return listId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public ListPermission getPermission() {
+        return permission;
+    }
+
+    public void setPermission(ListPermission permission) {
+        this.permission = permission;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.todo.model;
+
+/**
+ * Niveau d'accès d'un utilisateur à une liste. Chaque niveau inclut les précédents.
+ */
+public enum ListPermission {
+    READ,
+    WRITE,
+    OWNER;
+
+    /**
+     * Indique si ce niveau d'accès couvre le niveau demandé.
+     */
+    public boolean allows(ListPermission required) {
+        return ordinal() >= required.ordinal();
+    }
+}
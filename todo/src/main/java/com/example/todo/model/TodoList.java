@@ -12,6 +12,9 @@ import com.example.todo.model.listener.TimestampedEntity;
 
 @Entity
 @EntityListeners(TimestampListener.class)
+@Table(indexes = {
+    @Index(name = "idx_todo_list_user", columnList = "userId")
+})
 public class TodoList implements TimestampedEntity {
 
     @Id
@@ -0,0 +1,55 @@
+package com.example.todo.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Curseur de synchronisation d'un utilisateur.
+ * {@code lastSeq} est le dernier numéro de séquence attribué dans le journal ;
+ * {@code compactedSeq} est la borne en dessous de laquelle le journal a été compacté
+ * (un client plus ancien doit repartir d'un instantané complet).
+ */
+@Entity
+@Table(name = "user_sync_state")
+public class UserSyncState {
+
+    @Id
+    private String userId;
+
+    private long lastSeq;
+
+    private long compactedSeq;
+
+    // Constructeur par défaut requis par JPA
+    public UserSyncState() {
+    }
+
+    public UserSyncState(String userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Réserve {@code count} numéros de séquence consécutifs et renvoie le premier.
+     */
+    public long nextSeqs(int count) {
+        long first = lastSeq + 1;
+        lastSeq += count;
+        return first;
+    }
+
+    // Getters and Setters
+    public String getUserId() {
+        return userId;
+    }
+
+    public long getLastSeq() {
+        return lastSeq;
+    }
+
+    public long getCompactedSeq() {
+        return compactedSeq;
+    }
+
+    public void setCompactedSeq(long compactedSeq) {
+        this.compactedSeq = compactedSeq;
+    }
+}
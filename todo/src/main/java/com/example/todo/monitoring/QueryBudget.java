@@ -0,0 +1,20 @@
+package com.example.todo.monitoring;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Nombre maximal d'instructions SQL qu'une requête HTTP traitée par cette méthode peut exécuter,
+ * authentification comprise. Un dépassement est journalisé ; avec {@code sql.budget.enforce=true}
+ * (tests d'intégration), la requête échoue avec {@link QueryBudgetExceededException}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface QueryBudget {
+
+    int value();
+}
@@ -0,0 +1,11 @@
+package com.example.todo.monitoring;
+
+/**
+ * Levée quand une requête dépasse son {@link QueryBudget} et que le budget est appliqué strictement.
+ */
+public class QueryBudgetExceededException extends IllegalStateException {
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.todo.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compte les instructions SQL et le temps passé en base pour chaque requête HTTP, y compris
+ * l'authentification et la sérialisation de la réponse (chargements paresseux).
+ * Journalise le bilan, signale les SELECT répétés (N+1) et vérifie le {@link QueryBudget} du contrôleur.
+ * En dev, le bilan est aussi renvoyé dans les en-têtes {@code X-SQL-*} : la réponse est alors
+ * mise en mémoire tampon pour que les en-têtes puissent être posés après l'exécution complète.
+ */
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private final boolean headers;
+    private final boolean enforce;
+    private final int nPlusOneThreshold;
+
+    public QueryBudgetFilter(boolean headers, boolean enforce, int nPlusOneThreshold) {
+        this.headers = headers;
+        this.enforce = enforce;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Les flux SSE restent ouverts : ni comptage par requête, ni mise en tampon
+        return "/api/events".equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryTracker.start();
+        // Les téléchargements de pièces jointes partent par sendfile : ni tampon, ni en-têtes ajoutés
+        boolean streamed = request.getRequestURI().endsWith("/content");
+        ContentCachingResponseWrapper buffered = headers && !streamed ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            QueryTracker.stop();
+        }
+
+        List<Map.Entry<String, Integer>> repeated = stats.repeatedSelects(nPlusOneThreshold);
+        for (Map.Entry<String, Integer> entry : repeated) {
+            logger.warn("Possible N+1 on {} {}: {} executions of {}",
+                    request.getMethod(), request.getRequestURI(), entry.getValue(), entry.getKey());
+        }
+        logger.debug("{} {}: {} SQL statements in {} ms",
+                request.getMethod(), request.getRequestURI(), stats.getCount(), stats.getElapsedMs());
+
+        // Vérifié avant la copie du tampon : tant que rien n'est parti, la réponse peut être remplacée par l'erreur
+        Integer budget = stats.getBudget();
+        if (budget != null && stats.getCount() > budget) {
+            String message = stats.getHandler() + " executed " + stats.getCount()
+                    + " SQL statements, over its budget of " + budget;
+            if (enforce && (buffered != null || !response.isCommitted())) {
+                throw new QueryBudgetExceededException(message);
+            }
+            logger.warn(enforce ? message + " (response already committed)" : message);
+        }
+
+        if (buffered != null) {
+            buffered.setHeader("X-SQL-Count", Integer.toString(stats.getCount()));
+            buffered.setHeader("X-SQL-Time-Ms", Long.toString(stats.getElapsedMs()));
+            if (!repeated.isEmpty()) {
+                buffered.setHeader("X-SQL-N-Plus-One", Integer.toString(repeated.size()));
+            }
+            buffered.copyBodyToResponse();
+        }
+    }
+}
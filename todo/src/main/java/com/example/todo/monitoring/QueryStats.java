@@ -0,0 +1,57 @@
+package com.example.todo.monitoring;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Instructions SQL exécutées pendant une requête HTTP. Propre à un thread, donc non synchronisé.
+ */
+public class QueryStats {
+
+    private int count;
+    private long elapsedMs;
+    private Integer budget;
+    private String handler;
+    // Texte SQL d'un SELECT -> nombre d'exécutions ; les paramètres liés n'en font pas partie
+    private final Map<String, Integer> selects = new HashMap<>();
+
+    void record(String sql, long elapsed) {
+        count++;
+        elapsedMs += elapsed;
+        if (sql.regionMatches(true, 0, "select", 0, 6)) {
+            selects.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * SELECT identiques exécutés au moins {@code threshold} fois : signature d'un chargement N+1.
+     */
+    public List<Map.Entry<String, Integer>> repeatedSelects(int threshold) {
+        return selects.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .collect(Collectors.toList());
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public Integer getBudget() {
+        return budget;
+    }
+
+    public void setBudget(Integer budget, String handler) {
+        this.budget = budget;
+        this.handler = handler;
+    }
+
+    public String getHandler() {
+        return handler;
+    }
+}
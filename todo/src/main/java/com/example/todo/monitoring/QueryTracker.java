@@ -0,0 +1,65 @@
+package com.example.todo.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Écouteur datasource-proxy qui rattache chaque instruction SQL à la requête HTTP du thread courant.
+ * Hors requête (tâches planifiées, démarrage), les instructions ne sont pas comptées.
+ * Les instructions plus lentes que le seuil sont journalisées, sans leurs paramètres,
+ * en remplacement de l'écho systématique {@code spring.jpa.show-sql}.
+ */
+public class QueryTracker implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryTracker.class);
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private final long slowQueryThresholdMs;
+
+    public QueryTracker(long slowQueryThresholdMs) {
+        this.slowQueryThresholdMs = slowQueryThresholdMs;
+    }
+
+    public static QueryStats start() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        if (elapsed >= slowQueryThresholdMs && !queryInfoList.isEmpty()) {
+            logger.warn("Slow SQL ({} ms{}): {}", elapsed, execInfo.isBatch() ? ", batch" : "",
+                    queryInfoList.get(0).getQuery());
+        }
+        QueryStats stats = CURRENT.get();
+        if (stats == null) {
+            return;
+        }
+        // Un batch compte comme une seule instruction : c'est un seul aller-retour
+        for (int i = 0; i < queryInfoList.size(); i++) {
+            stats.record(queryInfoList.get(i).getQuery(), i == 0 ? elapsed : 0);
+            if (execInfo.isBatch()) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.todo.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Trace échantillonnée des requêtes HTTP : une ligne structurée (méthode, gabarit d'URI, statut,
+ * durée, instructions SQL) pour une fraction des requêtes, et systématiquement pour les requêtes
+ * lentes ou en erreur 5xx. Chaque requête reçoit un {@code requestId} dans le MDC pour relier
+ * ses autres lignes de log.
+ */
+public class RequestTraceFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestTraceFilter.class);
+    private static final String REQUEST_ID = "requestId";
+
+    private final double sampleRate;
+    private final long slowRequestMs;
+
+    public RequestTraceFilter(double sampleRate, long slowRequestMs) {
+        this.sampleRate = sampleRate;
+        this.slowRequestMs = slowRequestMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        MDC.put(REQUEST_ID, Long.toHexString(ThreadLocalRandom.current().nextLong()));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            int status = response.getStatus();
+            if (status >= 500 || elapsedMs >= slowRequestMs || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                trace(request, status, elapsedMs);
+            }
+            MDC.remove(REQUEST_ID);
+        }
+    }
+
+    private void trace(HttpServletRequest request, int status, long elapsedMs) {
+        // Gabarit (/api/lists/{listId}) plutôt que l'URI réelle, pour garder des valeurs peu nombreuses
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        QueryStats stats = QueryTracker.current();
+        logger.atInfo()
+                .addKeyValue("http.method", request.getMethod())
+                .addKeyValue("http.route", pattern != null ? pattern : "unmatched")
+                .addKeyValue("http.status", status)
+                .addKeyValue("duration_ms", elapsedMs)
+                .addKeyValue("sql.count", stats != null ? stats.getCount() : -1)
+                .addKeyValue("sql.time_ms", stats != null ? stats.getElapsedMs() : -1)
+                .log("request trace");
+    }
+}
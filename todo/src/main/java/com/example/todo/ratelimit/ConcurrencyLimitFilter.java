@@ -0,0 +1,115 @@
+package com.example.todo.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Limite le nombre de requêtes {@code /api/**} traitées simultanément avec une {@link VegasLimit}.
+ * Au-delà, la requête est refusée immédiatement (503 + {@code Retry-After}) au lieu d'attendre
+ * un thread ou une connexion jusqu'à expiration.
+ * <p>
+ * Les écritures authentifiées sur les tâches sont prioritaires : elles peuvent utiliser toute la limite,
+ * alors que les autres requêtes (lectures en masse, connexion...) s'arrêtent à
+ * {@code limite × (1 − reservedFraction)}. Le filtre est placé après {@code JwtAuthenticationFilter}
+ * pour connaître l'utilisateur. Les flux SSE, de longue durée, ne sont pas limités ici.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+    private static final Pattern TASK_PATH = Pattern.compile("^/api/lists/[^/]+/tasks(/.*)?$");
+
+    private final boolean enabled;
+    private final VegasLimit limit;
+    private final double reservedFraction;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejectedPriority;
+    private final Counter rejectedStandard;
+
+    public ConcurrencyLimitFilter(boolean enabled, VegasLimit limit, double reservedFraction,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.limit = limit;
+        this.reservedFraction = reservedFraction;
+        Gauge.builder("api.limiter.limit", limit, VegasLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("api.limiter.inflight", inFlight, AtomicInteger::get)
+                .description("Requests currently admitted by the limiter")
+                .register(meterRegistry);
+        FunctionCounter.builder("api.limiter.limit.changes", limit, VegasLimit::getChanges)
+                .description("Number of times the adaptive limit moved")
+                .register(meterRegistry);
+        this.rejectedPriority = rejectedCounter(meterRegistry, "priority");
+        this.rejectedStandard = rejectedCounter(meterRegistry, "standard");
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String priority) {
+        return Counter.builder("api.limiter.rejected")
+                .description("Requests shed with 503 by the concurrency limiter")
+                .tag("class", priority)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !enabled || !uri.startsWith("/api/") || "/api/events".equals(uri);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean priority = isPriority(request);
+        int currentLimit = limit.getLimit();
+        int allowed = priority ? currentLimit : Math.max(1, (int) (currentLimit * (1 - reservedFraction)));
+
+        int admitted = inFlight.incrementAndGet();
+        if (admitted > allowed) {
+            inFlight.decrementAndGet();
+            (priority ? rejectedPriority : rejectedStandard).increment();
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server is at capacity, retry later");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            filterChain.doFilter(request, response);
+            dropped = response.getStatus() >= 500;
+        } finally {
+            inFlight.decrementAndGet();
+            int newLimit = limit.onSample(System.nanoTime() - start, admitted, dropped);
+            if (newLimit != currentLimit && logger.isDebugEnabled()) {
+                logger.debug("Concurrency limit {} -> {}", currentLimit, newLimit);
+            }
+        }
+    }
+
+    private boolean isPriority(HttpServletRequest request) {
+        if (HttpMethod.GET.matches(request.getMethod()) || !TASK_PATH.matcher(request.getRequestURI()).matches()) {
+            return false;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.todo.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Seaux à jetons par clé (identifiant d'utilisateur), sans verrou : chaque seau est un état immuable
+ * remplacé par compare-and-set. Les seaux sont répartis en segments ; le nettoyage des seaux
+ * inactifs parcourt un segment à chaque passage pour ne jamais balayer toute la table d'un coup.
+ * Un seau inactif assez longtemps est plein : le supprimer ne change rien pour son utilisateur.
+ */
+public class TokenBuckets {
+
+    // Tolérance d'arrondi : le remplissage calculé en virgule flottante peut donner 2.9999999999 pour 3 jetons
+    private static final double EPSILON = 1e-9;
+
+    private final ConcurrentHashMap<String, Bucket>[] shards;
+    private final int shardMask;
+    private final double capacity;
+    private final double tokensPerNano;
+    private final long idleNanos;
+    private final AtomicInteger nextShardToSweep = new AtomicInteger();
+
+    @SuppressWarnings("unchecked")
+    public TokenBuckets(int shardCount, double capacity, double tokensPerSecond, long idleNanos) {
+        int size = Integer.highestOneBit(Math.max(1, shardCount - 1) << 1);
+        this.shards = new ConcurrentHashMap[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+        this.shardMask = size - 1;
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        // Jamais avant que le seau ait eu le temps de se remplir
+        this.idleNanos = Math.max(idleNanos, (long) (capacity / tokensPerNano));
+    }
+
+    /**
+     * Retire {@code cost} jetons du seau de {@code key} s'il en contient assez.
+     * Un coût supérieur à la capacité est ramené à la capacité : la requête vide le seau.
+     */
+    public Result tryConsume(String key, double cost, long nowNanos) {
+        double charged = Math.min(cost, capacity);
+        Bucket bucket = shard(key).computeIfAbsent(key, k -> new Bucket(new State(capacity, nowNanos)));
+        while (true) {
+            State current = bucket.state.get();
+            double tokens = refill(current, nowNanos);
+            if (tokens + EPSILON < charged) {
+                // Refus : rien à écrire, le remplissage se recalcule depuis le même état au prochain appel
+                long waitNanos = (long) Math.ceil((charged - tokens) / tokensPerNano);
+                return new Result(false, remaining(tokens), waitNanos, fullNanos(tokens));
+            }
+            State next = new State(Math.max(0, tokens - charged), Math.max(nowNanos, current.timestamp));
+            if (bucket.state.compareAndSet(current, next)) {
+                return new Result(true, remaining(next.tokens), 0, fullNanos(next.tokens));
+            }
+        }
+    }
+
+    /**
+     * Retire {@code cost} jetons sans condition, pour un coût connu seulement après la requête.
+     * Le seau peut passer en négatif, jusqu'à une capacité de dette : les requêtes suivantes attendent.
+     */
+    public void charge(String key, double cost, long nowNanos) {
+        Bucket bucket = shard(key).computeIfAbsent(key, k -> new Bucket(new State(capacity, nowNanos)));
+        while (true) {
+            State current = bucket.state.get();
+            State next = new State(Math.max(-capacity, refill(current, nowNanos) - cost),
+                    Math.max(nowNanos, current.timestamp));
+            if (bucket.state.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Supprime les seaux inactifs d'un segment, le suivant au prochain appel.
+     *
+     * @return le nombre de seaux supprimés
+     */
+    public int evictIdle(long nowNanos) {
+        ConcurrentHashMap<String, Bucket> shard = shards[nextShardToSweep.getAndIncrement() & shardMask];
+        int[] evicted = {0};
+        shard.forEach((key, bucket) -> {
+            State state = bucket.state.get();
+            // Un seau endetté met plus longtemps à se remplir
+            if (nowNanos - state.timestamp > idleNanos && refill(state, nowNanos) + EPSILON >= capacity
+                    && shard.remove(key, bucket)) {
+                evicted[0]++;
+            }
+        });
+        return evicted[0];
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public long size() {
+        long size = 0;
+        for (ConcurrentHashMap<String, Bucket> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    public double getCapacity() {
+        return capacity;
+    }
+
+    private double refill(State state, long nowNanos) {
+        return Math.min(capacity, state.tokens + (nowNanos - state.timestamp) * tokensPerNano);
+    }
+
+    private static long remaining(double tokens) {
+        return Math.max(0, (long) Math.floor(tokens + EPSILON));
+    }
+
+    private long fullNanos(double tokens) {
+        return Math.max(0, (long) Math.ceil((capacity - tokens) / tokensPerNano));
+    }
+
+    private ConcurrentHashMap<String, Bucket> shard(String key) {
+        int h = key.hashCode();
+        return shards[(h ^ (h >>> 16)) & shardMask];
+    }
+
+    private record State(double tokens, long timestamp) {
+    }
+
+    private static final class Bucket {
+        private final AtomicReference<State> state;
+
+        private Bucket(State initial) {
+            this.state = new AtomicReference<>(initial);
+        }
+    }
+
+    /**
+     * Résultat d'une demande : accord, jetons restants, attente avant d'avoir assez de jetons
+     * et délai avant que le seau soit de nouveau plein.
+     */
+    public record Result(boolean allowed, long remaining, long waitNanos, long fullNanos) {
+    }
+}
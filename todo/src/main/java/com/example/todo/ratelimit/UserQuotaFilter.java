@@ -0,0 +1,202 @@
+package com.example.todo.ratelimit;
+
+import com.example.todo.security.AuthenticatedUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Quota par utilisateur authentifié : chaque requête {@code /api/**} consomme des jetons du seau de
+ * l'utilisateur (identifiant posé par {@code JwtAuthenticationFilter}). Le coût dépend du type de
+ * requête et de la taille du corps, pour qu'un client qui envoie d'énormes listes ne monopolise pas
+ * la base. Un corps envoyé par morceaux, de taille inconnue à l'admission, est compté au fil de sa lecture
+ * et débité après la requête. Les en-têtes {@code RateLimit-Limit}, {@code RateLimit-Remaining} et
+ * {@code RateLimit-Reset} accompagnent chaque réponse ; un dépassement renvoie 429 avec {@code Retry-After}.
+ */
+public class UserQuotaFilter extends OncePerRequestFilter {
+
+    private static final Pattern LIST_PATH = Pattern.compile("^/api/lists/[^/]+$");
+
+    private final boolean enabled;
+    private final TokenBuckets buckets;
+    private final double readCost;
+    private final double writeCost;
+    private final double listWriteCost;
+    private final double bytesPerToken;
+    private final Counter rejected;
+
+    public UserQuotaFilter(boolean enabled, TokenBuckets buckets, double readCost, double writeCost,
+                           double listWriteCost, double bytesPerToken, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.buckets = buckets;
+        this.readCost = readCost;
+        this.writeCost = writeCost;
+        this.listWriteCost = listWriteCost;
+        this.bytesPerToken = bytesPerToken;
+        this.rejected = Counter.builder("api.quota.rejected")
+                .description("Requests rejected with 429 because the user's quota was exhausted")
+                .register(meterRegistry);
+        Gauge.builder("api.quota.buckets", buckets, TokenBuckets::size)
+                .description("Users with a live token bucket")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+            // Requêtes anonymes (connexion, inscription) : hors quota utilisateur
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        TokenBuckets.Result result = buckets.tryConsume(user.getId(), cost(request), System.nanoTime());
+        response.setHeader("RateLimit-Limit", Long.toString((long) buckets.getCapacity()));
+        response.setHeader("RateLimit-Remaining", Long.toString(result.remaining()));
+        response.setHeader("RateLimit-Reset", Long.toString(toSeconds(result.fullNanos())));
+        if (!result.allowed()) {
+            rejected.increment();
+            response.setHeader("Retry-After", Long.toString(Math.max(1, toSeconds(result.waitNanos()))));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Request quota exceeded");
+            return;
+        }
+        if (request.getContentLengthLong() >= 0 || request.getHeader("Transfer-Encoding") == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        CountingRequest counting = new CountingRequest(request);
+        try {
+            filterChain.doFilter(counting, response);
+        } finally {
+            if (counting.getBytesRead() > 0) {
+                buckets.charge(user.getId(), counting.getBytesRead() / bytesPerToken, System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * Supprime les seaux inactifs, un segment à chaque passage.
+     */
+    @Scheduled(fixedDelayString = "${user-quota.sweep-interval-ms:1000}")
+    public void evictIdleBuckets() {
+        buckets.evictIdle(System.nanoTime());
+    }
+
+    /**
+     * Coût en jetons à l'admission : classe de la requête plus un jeton par {@code bytesPerToken} octets
+     * de corps annoncés par {@code Content-Length}.
+     */
+    double cost(HttpServletRequest request) {
+        double base;
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            base = readCost;
+        } else if (HttpMethod.PUT.matches(request.getMethod()) && LIST_PATH.matcher(request.getRequestURI()).matches()) {
+            // Remplacement complet d'une liste : fusion de toutes ses tâches
+            base = listWriteCost;
+        } else {
+            base = writeCost;
+        }
+        return base + Math.max(0, request.getContentLengthLong()) / bytesPerToken;
+    }
+
+    private static long toSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * Requête dont le corps compte les octets effectivement lus, par le flux comme par le lecteur.
+     */
+    static final class CountingRequest extends HttpServletRequestWrapper {
+
+        private long bytesRead;
+        private ServletInputStream inputStream;
+        private BufferedReader reader;
+
+        CountingRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        long getBytesRead() {
+            return bytesRead;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                ServletInputStream delegate = super.getInputStream();
+                inputStream = new ServletInputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        int b = delegate.read();
+                        if (b >= 0) {
+                            bytesRead++;
+                        }
+                        return b;
+                    }
+
+                    @Override
+                    public int read(byte[] buffer, int offset, int length) throws IOException {
+                        int n = delegate.read(buffer, offset, length);
+                        if (n > 0) {
+                            bytesRead += n;
+                        }
+                        return n;
+                    }
+
+                    @Override
+                    public boolean isFinished() {
+                        return delegate.isFinished();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setReadListener(ReadListener readListener) {
+                        delegate.setReadListener(readListener);
+                    }
+                };
+            }
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (reader == null) {
+                String encoding = getCharacterEncoding();
+                reader = new BufferedReader(new InputStreamReader(getInputStream(),
+                        encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1));
+            }
+            return reader;
+        }
+    }
+}
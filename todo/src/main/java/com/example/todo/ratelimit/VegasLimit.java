@@ -0,0 +1,92 @@
+package com.example.todo.ratelimit;
+
+/**
+ * Limite adaptative du nombre de requêtes simultanées, inspirée de TCP Vegas.
+ * <p>
+ * La latence à vide ({@code rttNoLoad}) est la plus petite latence observée. Pour chaque requête,
+ * {@code limite × (1 − rttNoLoad / rtt)} estime le nombre de requêtes qui attendent dans une file
+ * (threads Tomcat, pool Hikari, verrous H2) plutôt que de travailler. File courte : la limite monte ;
+ * file longue ou échec : elle baisse. La latence à vide est réévaluée périodiquement pour suivre
+ * un changement durable du coût des requêtes.
+ */
+public class VegasLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int probeInterval;
+
+    private double limit;
+    private long rttNoLoad;
+    private long samplesSinceProbe;
+    private long changes;
+
+    public VegasLimit(int initialLimit, int minLimit, int maxLimit, int probeInterval) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.probeInterval = probeInterval;
+    }
+
+    /**
+     * Prend en compte une requête terminée.
+     *
+     * @param rttNanos   durée de la requête
+     * @param inFlight   nombre de requêtes en cours à son admission
+     * @param dropped    la requête a échoué côté serveur (exception, délai dépassé)
+     * @return la nouvelle limite
+     */
+    public synchronized int onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (++samplesSinceProbe >= probeInterval || rttNoLoad == 0) {
+            samplesSinceProbe = 0;
+            rttNoLoad = rttNanos;
+            return (int) limit;
+        }
+        if (rttNanos < rttNoLoad) {
+            rttNoLoad = rttNanos;
+            return (int) limit;
+        }
+
+        double log = Math.max(1, Math.log10(limit));
+        double newLimit;
+        if (dropped) {
+            newLimit = limit - log;
+        } else if (inFlight * 2 < limit) {
+            // Charge trop faible pour juger : la limite n'est pas le facteur limitant
+            return (int) limit;
+        } else {
+            double queueSize = Math.ceil(limit * (1 - (double) rttNoLoad / rttNanos));
+            double alpha = 3 * log;
+            double beta = 6 * log;
+            if (queueSize <= log) {
+                newLimit = limit + beta;
+            } else if (queueSize < alpha) {
+                newLimit = limit + log;
+            } else if (queueSize > beta) {
+                newLimit = limit - log;
+            } else {
+                return (int) limit;
+            }
+        }
+        newLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        if ((int) newLimit != (int) limit) {
+            changes++;
+        }
+        limit = newLimit;
+        return (int) limit;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Nombre de fois où la limite (entière) a changé.
+     */
+    public synchronized long getChanges() {
+        return changes;
+    }
+
+    public synchronized long getRttNoLoadNanos() {
+        return rttNoLoad;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Attachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface AttachmentRepository extends JpaRepository<Attachment, String> {
+
+    List<Attachment> findByTaskIdOrderByCreatedAtAsc(String taskId);
+
+    Optional<Attachment> findByIdAndTaskId(String id, String taskId);
+
+    /**
+     * Total size of the attachments charged to a user's quota.
+     */
+    @Query("select coalesce(sum(a.size), 0) from Attachment a where a.uploaderId = :userId")
+    long sumSizeByUploaderId(@Param("userId") String userId);
+
+    /**
+     * Whether any attachment still references the stored content.
+     */
+    boolean existsBySha256(String sha256);
+}
@@ -0,0 +1,47 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.ChangeLogEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    /**
+     * Returns the entries of a user after a given sequence number, in sequence order.
+     */
+    List<ChangeLogEntry> findByUserIdAndSeqGreaterThanOrderBySeqAsc(String userId, long seq, Pageable pageable);
+
+    /**
+     * Removes every entry that has been superseded by a later entry for the same entity.
+     */
+    @Modifying
+    @Query("delete from ChangeLogEntry e where exists (" +
+           "select 1 from ChangeLogEntry n where n.userId = e.userId and n.entityId = e.entityId and n.seq > e.seq)")
+    int deleteSuperseded();
+
+    /**
+     * Removes task entries whose list has been deleted afterwards; the list tombstone covers them.
+     */
+    @Modifying
+    @Query("delete from ChangeLogEntry e where e.entityType = com.example.todo.model.ChangeEntityType.TASK " +
+           "and exists (select 1 from ChangeLogEntry d where d.userId = e.userId and d.entityId = e.listId " +
+           "and d.entityType = com.example.todo.model.ChangeEntityType.LIST " +
+           "and d.operation = com.example.todo.model.ChangeOperation.DELETE and d.seq > e.seq)")
+    int deleteCoveredByListTombstones();
+
+    /**
+     * For each user, the highest sequence number written before the cutoff.
+     */
+    @Query("select e.userId, max(e.seq) from ChangeLogEntry e where e.createdAt < :cutoff group by e.userId")
+    List<Object[]> findCompactionFloors(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("delete from ChangeLogEntry e where e.userId = :userId and e.seq <= :seq")
+    int deleteUpTo(@Param("userId") String userId, @Param("seq") long seq);
+}
@@ -0,0 +1,7 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.DashboardDocument;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DashboardDocumentRepository extends JpaRepository<DashboardDocument, String> {
+}
@@ -0,0 +1,23 @@
+package com.example.todo.repository;
+
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+/**
+ * Operations shared by the two storage engines of users, lists and tasks: Spring Data JPA by default,
+ * and the in-memory store of the {@code memory} profile (see {@code RepositoryConfig}).
+ * Query by example, sorting and paging are left out, since the in-memory store does not support them.
+ */
+@NoRepositoryBean
+public interface EntityRepository<T> extends ListCrudRepository<T, String> {
+
+    /**
+     * Writes pending changes of the current transaction to the store.
+     */
+    void flush();
+
+    /**
+     * Saves an entity and flushes the current transaction.
+     */
+    <S extends T> S saveAndFlush(S entity);
+}
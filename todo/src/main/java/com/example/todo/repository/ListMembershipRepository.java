@@ -0,0 +1,23 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.ListMembership;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ListMembershipRepository extends JpaRepository<ListMembership, String> {
+
+    List<ListMembership> findByListId(String listId);
+
+    List<ListMembership> findByUserId(String userId);
+
+    Optional<ListMembership> findByListIdAndUserId(String listId, String userId);
+
+    @Modifying
+    @Query("delete from ListMembership m where m.listId = :listId")
+    int deleteByListId(@Param("listId") String listId);
+}
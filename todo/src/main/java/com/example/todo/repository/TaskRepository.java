@@ -1,7 +1,29 @@
 package com.example.todo.repository;
 
 import com.example.todo.model.Task;
-import org.springframework.data.jpa.repository.JpaRepository;
+import com.example.todo.model.TodoList;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface TaskRepository extends JpaRepository<Task, String> {
+import java.util.Collection;
+import java.util.List;
+
+public interface TaskRepository extends EntityRepository<Task> {
+
+    /**
+     * Checks that a task belongs to a list, without loading either entity.
+     */
+    boolean existsByIdAndTodoListId(String id, String todoListId);
+
+    /**
+     * Loads tasks together with their list, in a single query.
+     */
+    @Query("select t from Task t join fetch t.todoList where t.id in :ids")
+    List<Task> findAllWithListByIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * Loads the lists of the given tasks, without loading the tasks themselves.
+     */
+    @Query("select distinct t.todoList from Task t where t.id in :ids")
+    List<TodoList> findListsByTaskIdIn(@Param("ids") Collection<String> ids);
 }
@@ -1,13 +1,14 @@
 package com.example.todo.repository;
 
 import com.example.todo.model.TodoList;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface TodoListRepository extends JpaRepository<TodoList, String> {
+public interface TodoListRepository extends EntityRepository<TodoList> {
     
     /**
      * Find all todo lists belonging to a specific user.
@@ -16,4 +17,24 @@ public interface TodoListRepository extends JpaRepository<TodoList, String> {
      * @return List of todo lists for the user
      */
     List<TodoList> findByUserId(String userId);
+
+    /**
+     * Find all todo lists a user can see: the lists they own and the lists shared with them.
+     * Tasks are fetched in the same query so that serializing the result does not trigger
+     * one lazy load per list.
+     *
+     * @param userId The ID of the user
+     * @return List of owned and shared todo lists, oldest first
+     */
+    @Query("select distinct l from TodoList l left join fetch l.tasks " +
+           "where l.userId = :userId " +
+           "or l.id in (select m.listId from ListMembership m where m.userId = :userId) " +
+           "order by l.createdAt")
+    List<TodoList> findAccessibleByUserId(@Param("userId") String userId);
+
+    /**
+     * IDs of the lists owned by a user, used to build the access index.
+     */
+    @Query("select l.id from TodoList l where l.userId = :userId")
+    List<String> findIdsByUserId(@Param("userId") String userId);
 }
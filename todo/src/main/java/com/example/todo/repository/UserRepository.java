@@ -1,10 +1,9 @@
 package com.example.todo.repository;
 
 import com.example.todo.model.User;
-import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, String> {
+public interface UserRepository extends EntityRepository<User> {
     Optional<User> findByEmail(String email);
 }
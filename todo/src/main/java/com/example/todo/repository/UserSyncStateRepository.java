@@ -0,0 +1,21 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.UserSyncState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface UserSyncStateRepository extends JpaRepository<UserSyncState, String> {
+
+    /**
+     * Loads the sync state of a user with a row lock, so that sequence numbers are
+     * handed out one writer at a time.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from UserSyncState s where s.userId = :userId")
+    Optional<UserSyncState> findForUpdate(@Param("userId") String userId);
+}
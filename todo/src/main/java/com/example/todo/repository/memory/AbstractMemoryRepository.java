@@ -0,0 +1,135 @@
+package com.example.todo.repository.memory;
+
+import com.example.todo.repository.EntityRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Base des dépôts du moteur en mémoire : les opérations de {@link EntityRepository}, exécutées dans la
+ * {@link MemorySession} de la transaction courante.
+ */
+abstract class AbstractMemoryRepository<T> implements EntityRepository<T> {
+
+    protected final MemoryStore store;
+    private final char type;
+    private final Class<T> entityClass;
+
+    protected AbstractMemoryRepository(MemoryStore store, char type, Class<T> entityClass) {
+        this.store = store;
+        this.type = type;
+        this.entityClass = entityClass;
+    }
+
+    @Override
+    public <S extends T> S save(S entity) {
+        return store.execute(session -> session.save(entity));
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        return store.execute(session -> {
+            List<S> saved = new ArrayList<>();
+            entities.forEach(entity -> saved.add(session.save(entity)));
+            return saved;
+        });
+    }
+
+    @Override
+    public <S extends T> S saveAndFlush(S entity) {
+        return store.execute(session -> {
+            S saved = session.save(entity);
+            session.flush();
+            return saved;
+        });
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        return Optional.ofNullable(store.execute(session -> entityClass.cast(session.find(type, id))));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return store.execute(session -> session.row(type, id) != null);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return store.execute(session -> cast(session.findAll(type)));
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<String> ids) {
+        return store.execute(session -> {
+            List<T> found = new ArrayList<>();
+            for (String id : ids) {
+                Object entity = session.find(type, id);
+                if (entity != null) {
+                    found.add(entityClass.cast(entity));
+                }
+            }
+            return found;
+        });
+    }
+
+    @Override
+    public long count() {
+        return findAll().size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        store.execute(session -> {
+            Object entity = session.find(type, id);
+            if (entity != null) {
+                session.delete(entity);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(T entity) {
+        store.execute(session -> {
+            session.delete(entity);
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        store.execute(session -> {
+            entities.forEach(session::delete);
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteAll() {
+        store.execute(session -> {
+            session.findAll(type).forEach(session::delete);
+            return null;
+        });
+    }
+
+    @Override
+    public void flush() {
+        store.execute(session -> {
+            session.flush();
+            return null;
+        });
+    }
+
+    protected List<T> cast(List<Object> entities) {
+        List<T> result = new ArrayList<>(entities.size());
+        entities.forEach(entity -> result.add(entityClass.cast(entity)));
+        return result;
+    }
+}
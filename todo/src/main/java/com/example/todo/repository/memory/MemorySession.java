@@ -0,0 +1,419 @@
+package com.example.todo.repository.memory;
+
+import com.example.todo.model.Task;
+import com.example.todo.model.TodoList;
+import com.example.todo.model.User;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Unité de travail du moteur en mémoire, l'équivalent d'un contexte de persistance JPA pour une transaction.
+ * <p>
+ * Chaque ligne lue est matérialisée une seule fois en entité (carte d'identité) et sa ligne d'origine est
+ * conservée : au {@link #flush()}, les entités modifiées sont détectées par comparaison, comme le fait
+ * Hibernate, et leurs nouvelles lignes rejoignent les écritures en attente. Les requêtes vident d'abord
+ * la session puis superposent ces écritures aux tables validées, pour voir ce que la transaction a écrit.
+ * <p>
+ * Les règles du mapping JPA sont reproduites : identifiant UUID et {@code createdAt} attribués à la
+ * persistance, {@code createdAt} non modifiable ensuite, persistance et suppression en cascade des
+ * tâches d'une liste, suppression des orphelines. Une tâche est toujours chargée avec toute sa liste.
+ */
+final class MemorySession {
+
+    private static final Field USER_ID = field(User.class, "id");
+    private static final Field USER_CREATED_AT = field(User.class, "createdAt");
+    private static final Field LIST_ID = field(TodoList.class, "id");
+    private static final Field TASK_ID = field(Task.class, "id");
+
+    private final MemoryStore store;
+    // Clé Rows.key(type, id) -> entité gérée
+    private final Map<String, Object> entities = new HashMap<>();
+    // Entité -> ligne telle que chargée ou dernièrement écrite
+    private final Map<Object, Object> rows = new IdentityHashMap<>();
+    // Liste -> IDs de ses tâches au chargement ou au dernier flush, pour la suppression des orphelines
+    private final Map<String, Set<String>> loadedTaskIds = new HashMap<>();
+    // Clé -> nouvelle ligne ou Rows.Deleted, dans l'ordre d'écriture
+    private final Map<String, Object> writes = new LinkedHashMap<>();
+
+    MemorySession(MemoryStore store) {
+        this.store = store;
+    }
+
+    Object find(char type, String id) {
+        if (id == null) {
+            return null;
+        }
+        String key = Rows.key(type, id);
+        Object entity = entities.get(key);
+        if (entity != null || writes.get(key) instanceof Rows.Deleted) {
+            return entity;
+        }
+        switch (type) {
+            case Rows.USER -> {
+                Rows.UserRow row = store.users.get(id);
+                return row != null ? load(row) : null;
+            }
+            case Rows.LIST -> {
+                Rows.ListRow row = store.lists.get(id);
+                return row != null ? load(row) : null;
+            }
+            case Rows.TASK -> {
+                Rows.TaskRow row = store.tasks.get(id);
+                if (row == null) {
+                    return null;
+                }
+                // Charger la liste charge ses tâches
+                find(Rows.LIST, row.listId());
+                return entities.get(key);
+            }
+            default -> throw new IllegalArgumentException("Unknown type " + type);
+        }
+    }
+
+    /**
+     * Existence d'une ligne, sans matérialiser d'entité.
+     */
+    Object row(char type, String id) {
+        flush();
+        Object written = writes.get(Rows.key(type, id));
+        if (written != null) {
+            return written instanceof Rows.Deleted ? null : written;
+        }
+        return committed(type, id);
+    }
+
+    List<Object> findAll(char type) {
+        Collection<String> ids = switch (type) {
+            case Rows.USER -> store.users.keySet();
+            case Rows.LIST -> store.lists.keySet();
+            case Rows.TASK -> store.tasks.keySet();
+            default -> throw new IllegalArgumentException("Unknown type " + type);
+        };
+        return findVisible(type, ids, row -> true);
+    }
+
+    User findUserByEmail(String email) {
+        Rows.UserRow committed = store.userByEmail(email);
+        List<Object> found = findVisible(Rows.USER,
+                committed != null ? List.of(committed.id()) : List.of(),
+                row -> email.equals(((Rows.UserRow) row).email()));
+        return found.isEmpty() ? null : (User) found.get(0);
+    }
+
+    List<String> findListIdsOwnedBy(String userId) {
+        return visibleIds(Rows.LIST, store.listIdsOf(userId),
+                row -> userId.equals(((Rows.ListRow) row).userId()));
+    }
+
+    List<Object> findListsOwnedBy(String userId) {
+        return findAll(Rows.LIST, findListIdsOwnedBy(userId));
+    }
+
+    <T> T save(T entity) {
+        char type = typeOf(entity);
+        String id = idOf(entity);
+        if (id == null) {
+            persist(entity);
+            return entity;
+        }
+        String key = Rows.key(type, id);
+        Object managed = entities.get(key);
+        if (managed == entity) {
+            cascadePersist(entity);
+            return entity;
+        }
+        if (managed == null) {
+            managed = find(type, id);
+        }
+        if (managed == null) {
+            // ID inconnu : la ligne est insérée telle quelle
+            entities.put(key, entity);
+            cascadePersist(entity);
+            return entity;
+        }
+        merge(entity, managed);
+        @SuppressWarnings("unchecked")
+        T result = (T) managed;
+        return result;
+    }
+
+    void delete(Object entity) {
+        char type = typeOf(entity);
+        Object managed = find(type, idOf(entity));
+        if (managed == null) {
+            return;
+        }
+        if (managed instanceof TodoList list) {
+            // Cascade REMOVE
+            list.getTasks().forEach(this::remove);
+            loadedTaskIds.remove(list.getId());
+        } else if (managed instanceof Task task && task.getTodoList() != null) {
+            task.getTodoList().getTasks().remove(task);
+        }
+        remove(managed);
+    }
+
+    /**
+     * Convertit les entités gérées en lignes et range celles qui ont changé dans les écritures en attente.
+     */
+    void flush() {
+        Set<Object> flushed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object entity : new ArrayList<>(entities.values())) {
+            if (entity instanceof TodoList list) {
+                flushList(list, flushed);
+            }
+        }
+        for (Object entity : new ArrayList<>(entities.values())) {
+            if (entity instanceof User user) {
+                write(user, new Rows.UserRow(user.getId(), user.getEmail(), user.getName(),
+                        user.getPassword(), user.getCreatedAt()));
+            } else if (entity instanceof Task task && !flushed.contains(task)) {
+                flushTask(task);
+            }
+        }
+    }
+
+    /**
+     * Valide aussitôt les écritures de la session dans le magasin, pour un appel hors transaction.
+     */
+    void commit() {
+        store.commit(pendingWrites());
+        writes.clear();
+    }
+
+    /**
+     * Écritures en attente après un {@link #flush()}, dans l'ordre : la session continue de les voir
+     * jusqu'à ce que le magasin les publie.
+     */
+    List<Object> pendingWrites() {
+        flush();
+        return new ArrayList<>(writes.values());
+    }
+
+    private void flushList(TodoList list, Set<Object> flushed) {
+        Rows.ListRow previous = (Rows.ListRow) rows.get(list);
+        write(list, new Rows.ListRow(list.getId(), list.getTitle(), list.getUserId(),
+                previous != null ? previous.createdAt() : list.getCreatedAt()));
+
+        cascadePersist(list);
+        Set<String> current = new HashSet<>();
+        for (Task task : list.getTasks()) {
+            flushTask(task);
+            flushed.add(task);
+            current.add(task.getId());
+        }
+        // orphanRemoval = true : une tâche retirée de la collection est supprimée
+        for (String taskId : loadedTaskIds.getOrDefault(list.getId(), Set.of())) {
+            Object orphan = entities.get(Rows.key(Rows.TASK, taskId));
+            if (!current.contains(taskId) && orphan instanceof Task task
+                    && (task.getTodoList() == null || task.getTodoList() == list)) {
+                remove(task);
+            }
+        }
+        loadedTaskIds.put(list.getId(), current);
+    }
+
+    private void flushTask(Task task) {
+        if (task.getTodoList() == null || task.getTodoList().getId() == null) {
+            // Pas de liste : la clé étrangère non nulle refuserait la ligne
+            return;
+        }
+        Rows.TaskRow previous = (Rows.TaskRow) rows.get(task);
+        write(task, new Rows.TaskRow(task.getId(), task.getTodoList().getId(), task.getText(), task.isDone(),
+                previous != null ? previous.createdAt() : task.getCreatedAt(),
+                previous != null ? previous.seq() : store.nextTaskSeq()));
+    }
+
+    private void write(Object entity, Object row) {
+        if (!row.equals(rows.get(entity))) {
+            rows.put(entity, row);
+            writes.put(Rows.keyOf(row), row);
+        }
+    }
+
+    private void remove(Object entity) {
+        char type = typeOf(entity);
+        String id = idOf(entity);
+        String key = Rows.key(type, id);
+        entities.remove(key);
+        rows.remove(entity);
+        writes.put(key, new Rows.Deleted(type, id));
+    }
+
+    // Équivalent de @GeneratedValue(UUID) et des callbacks @PrePersist
+    private void persist(Object entity) {
+        String id = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        if (entity instanceof User user) {
+            ReflectionUtils.setField(USER_ID, user, id);
+            ReflectionUtils.setField(USER_CREATED_AT, user, now);
+        } else if (entity instanceof TodoList list) {
+            ReflectionUtils.setField(LIST_ID, list, id);
+            list.setCreatedAt(now);
+        } else if (entity instanceof Task task) {
+            ReflectionUtils.setField(TASK_ID, task, id);
+            task.setCreatedAt(now);
+        }
+        entities.put(Rows.key(typeOf(entity), id), entity);
+        cascadePersist(entity);
+    }
+
+    private void cascadePersist(Object entity) {
+        if (entity instanceof TodoList list) {
+            for (Task task : list.getTasks()) {
+                if (task.getId() == null) {
+                    persist(task);
+                } else {
+                    entities.putIfAbsent(Rows.key(Rows.TASK, task.getId()), task);
+                }
+            }
+        }
+    }
+
+    // Copie un état détaché sur l'entité gérée, comme EntityManager.merge
+    private void merge(Object source, Object managed) {
+        if (source instanceof User from && managed instanceof User to) {
+            to.setEmail(from.getEmail());
+            to.setName(from.getName());
+            to.setPassword(from.getPassword());
+        } else if (source instanceof TodoList from && managed instanceof TodoList to) {
+            to.setTitle(from.getTitle());
+            to.setUserId(from.getUserId());
+            List<Task> merged = new ArrayList<>(from.getTasks().size());
+            for (Task task : from.getTasks()) {
+                merged.add(save(task));
+            }
+            to.setTasks(merged);
+        } else if (source instanceof Task from && managed instanceof Task to) {
+            to.setText(from.getText());
+            to.setDone(from.isDone());
+        }
+    }
+
+    private List<Object> findVisible(char type, Collection<String> committedIds, Predicate<Object> matches) {
+        return findAll(type, visibleIds(type, committedIds, matches));
+    }
+
+    private List<Object> findAll(char type, Collection<String> ids) {
+        List<Object> found = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Object entity = find(type, id);
+            if (entity != null) {
+                found.add(entity);
+            }
+        }
+        return found;
+    }
+
+    // IDs des lignes visibles par la session : lignes validées, recouvertes par ses propres écritures
+    private List<String> visibleIds(char type, Collection<String> committedIds, Predicate<Object> matches) {
+        flush();
+        Set<String> ids = new LinkedHashSet<>();
+        for (String id : committedIds) {
+            Object written = writes.get(Rows.key(type, id));
+            Object row = written != null ? written : committed(type, id);
+            if (row != null && !(row instanceof Rows.Deleted) && matches.test(row)) {
+                ids.add(id);
+            }
+        }
+        for (Map.Entry<String, Object> write : writes.entrySet()) {
+            if (write.getKey().charAt(0) == type && !(write.getValue() instanceof Rows.Deleted)
+                    && matches.test(write.getValue())) {
+                ids.add(write.getKey().substring(1));
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    private Object committed(char type, String id) {
+        return switch (type) {
+            case Rows.USER -> store.users.get(id);
+            case Rows.LIST -> store.lists.get(id);
+            case Rows.TASK -> store.tasks.get(id);
+            default -> throw new IllegalArgumentException("Unknown type " + type);
+        };
+    }
+
+    private User load(Rows.UserRow row) {
+        User user = new User();
+        ReflectionUtils.setField(USER_ID, user, row.id());
+        ReflectionUtils.setField(USER_CREATED_AT, user, row.createdAt());
+        user.setEmail(row.email());
+        user.setName(row.name());
+        user.setPassword(row.password());
+        entities.put(Rows.key(Rows.USER, row.id()), user);
+        rows.put(user, row);
+        return user;
+    }
+
+    private TodoList load(Rows.ListRow row) {
+        TodoList list = new TodoList();
+        ReflectionUtils.setField(LIST_ID, list, row.id());
+        list.setTitle(row.title());
+        list.setUserId(row.userId());
+        list.setCreatedAt(row.createdAt());
+        entities.put(Rows.key(Rows.LIST, row.id()), list);
+        rows.put(list, row);
+
+        Set<String> taskIds = new HashSet<>();
+        for (Rows.TaskRow taskRow : store.tasksOf(row.id())) {
+            Task task = new Task();
+            ReflectionUtils.setField(TASK_ID, task, taskRow.id());
+            task.setText(taskRow.text());
+            task.setDone(taskRow.done());
+            task.setCreatedAt(taskRow.createdAt());
+            // Collection d'abord : setTodoList amélioré n'ajoute la tâche que si elle n'y est pas déjà
+            list.getTasks().add(task);
+            task.setTodoList(list);
+            entities.put(Rows.key(Rows.TASK, taskRow.id()), task);
+            rows.put(task, taskRow);
+            taskIds.add(taskRow.id());
+        }
+        loadedTaskIds.put(row.id(), taskIds);
+        return list;
+    }
+
+    private static char typeOf(Object entity) {
+        if (entity instanceof User) {
+            return Rows.USER;
+        } else if (entity instanceof TodoList) {
+            return Rows.LIST;
+        } else if (entity instanceof Task) {
+            return Rows.TASK;
+        }
+        throw new IllegalArgumentException("Not managed by the in-memory store: " + entity);
+    }
+
+    private static String idOf(Object entity) {
+        if (entity instanceof User user) {
+            return user.getId();
+        } else if (entity instanceof TodoList list) {
+            return list.getId();
+        } else if (entity instanceof Task task) {
+            return task.getId();
+        }
+        throw new IllegalArgumentException("Not managed by the in-memory store: " + entity);
+    }
+
+    private static Field field(Class<?> type, String name) {
+        Field field = Objects.requireNonNull(ReflectionUtils.findField(type, name), name);
+        ReflectionUtils.makeAccessible(field);
+        return field;
+    }
+}
@@ -0,0 +1,556 @@
+package com.example.todo.repository.memory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.CRC32C;
+
+/**
+ * Moteur de stockage en mémoire des utilisateurs, listes et tâches (profil {@code memory}).
+ * <p>
+ * Les lignes validées sont des enregistrements immuables rangés dans des {@link ConcurrentHashMap},
+ * avec des index par e-mail, par propriétaire et par liste : une lecture ne prend aucun verrou.
+ * Les écritures d'une transaction sont accumulées dans une {@link MemorySession}. Juste avant la
+ * validation de la transaction Spring, les e-mails du lot sont réservés (contrôle d'unicité) ; une fois la
+ * base H2 validée, le lot est publié d'un bloc : une trame dans le journal ({@link MemoryWal}), puis
+ * application aux tables. Les publications sont sérialisées par un verrou. Une transaction annulée ne
+ * laisse donc aucune trace en mémoire, et un lecteur ne voit jamais une ligne que la base n'a pas validée.
+ * <p>
+ * Il reste une fenêtre entre la validation H2 et la publication : le journal des changements,
+ * les adhésions et le tableau de bord, qui sont en base, peuvent y citer des lignes pas encore visibles,
+ * et un arrêt brutal dans cette fenêtre perd le lot en mémoire alors que la base l'a validé.
+ * <p>
+ * Un instantané complet est écrit périodiquement ; au démarrage, le dernier instantané valide est
+ * rechargé puis le journal rejoué à partir de son LSN.
+ */
+public class MemoryStore implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemoryStore.class);
+    private static final int SNAPSHOT_MAGIC = 0x544d5331; // "TMS1"
+
+    final ConcurrentHashMap<String, Rows.UserRow> users = new ConcurrentHashMap<>();
+    final ConcurrentHashMap<String, Rows.ListRow> lists = new ConcurrentHashMap<>();
+    final ConcurrentHashMap<String, Rows.TaskRow> tasks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> userIdsByEmail = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> listIdsByUser = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> taskIdsByList = new ConcurrentHashMap<>();
+    // E-mail -> ID de l'utilisateur, pour les transactions entre leur réservation et leur publication
+    private final Map<String, String> reservedEmails = new HashMap<>();
+
+    private final Path dir;
+    private final MemoryWal wal;
+    private final ReentrantLock commitLock = new ReentrantLock();
+    private final AtomicLong taskSeq = new AtomicLong();
+    private long lastLsn;
+    private long snapshotLsn;
+    private Timer commitTimer;
+
+    public MemoryStore(Path dir, int segmentBytes, boolean sync) throws IOException {
+        this.dir = dir.toAbsolutePath().normalize();
+        this.wal = new MemoryWal(this.dir, segmentBytes, sync);
+        recover();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("memory.store.rows", users, Map::size).tag("table", "user")
+                .description("Committed rows held by the in-memory store").register(registry);
+        Gauge.builder("memory.store.rows", lists, Map::size).tag("table", "list")
+                .description("Committed rows held by the in-memory store").register(registry);
+        Gauge.builder("memory.store.rows", tasks, Map::size).tag("table", "task")
+                .description("Committed rows held by the in-memory store").register(registry);
+        commitTimer = Timer.builder("memory.store.commit")
+                .description("Time to log and apply a committed transaction, write-ahead log sync included")
+                .register(registry);
+    }
+
+    /**
+     * Exécute un travail dans la session de la transaction courante, ouverte au besoin.
+     * Hors transaction, la session ne vit que le temps de l'appel et ses écritures sont validées aussitôt.
+     */
+    <R> R execute(Function<MemorySession, R> work) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            MemorySession session = new MemorySession(this);
+            R result = work.apply(session);
+            session.commit();
+            return result;
+        }
+        MemorySession session = (MemorySession) TransactionSynchronizationManager.getResource(this);
+        if (session == null) {
+            session = new MemorySession(this);
+            TransactionSynchronizationManager.bindResource(this, session);
+            TransactionSynchronizationManager.registerSynchronization(new SessionSynchronization(session));
+        }
+        return work.apply(session);
+    }
+
+    long nextTaskSeq() {
+        return taskSeq.incrementAndGet();
+    }
+
+    Rows.UserRow userByEmail(String email) {
+        String id = userIdsByEmail.get(email);
+        return id != null ? users.get(id) : null;
+    }
+
+    Set<String> listIdsOf(String userId) {
+        return listIdsByUser.getOrDefault(userId, Collections.emptySet());
+    }
+
+    /**
+     * Tâches validées d'une liste, dans leur ordre d'insertion.
+     */
+    List<Rows.TaskRow> tasksOf(String listId) {
+        List<Rows.TaskRow> rows = new ArrayList<>();
+        for (String taskId : taskIdsByList.getOrDefault(listId, Collections.emptySet())) {
+            Rows.TaskRow row = tasks.get(taskId);
+            // Index et table sont mis à jour séparément : un lecteur peut voir l'un avant l'autre
+            if (row != null && row.listId().equals(listId)) {
+                rows.add(row);
+            }
+        }
+        rows.sort(Comparator.comparingLong(Rows.TaskRow::seq));
+        return rows;
+    }
+
+    /**
+     * Valide un lot de changements hors transaction : contrôle d'unicité, trame dans le journal, puis application.
+     *
+     * @throws DataIntegrityViolationException si un e-mail est déjà utilisé
+     * @throws DataAccessResourceFailureException si la trame n'a pas pu être écrite ; rien n'est appliqué
+     */
+    void commit(Collection<Object> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        byte[] payload = encode(changes);
+        long start = System.nanoTime();
+        commitLock.lock();
+        try {
+            checkUniqueEmails(changes);
+            try {
+                append(payload);
+            } catch (IOException e) {
+                throw new DataAccessResourceFailureException("Could not write the write-ahead log", e);
+            }
+            changes.forEach(this::apply);
+        } finally {
+            commitLock.unlock();
+        }
+        recordCommit(start);
+    }
+
+    /**
+     * Réserve les e-mails d'un lot avant la validation de sa transaction, jusqu'à {@link #release(Collection)} :
+     * deux transactions ne peuvent pas valider le même e-mail en base puis se heurter à la publication.
+     *
+     * @return les e-mails réservés
+     * @throws DataIntegrityViolationException si un e-mail est déjà utilisé ou réservé
+     */
+    Collection<String> reserve(Collection<Object> changes) {
+        commitLock.lock();
+        try {
+            checkUniqueEmails(changes);
+            List<String> reserved = new ArrayList<>();
+            for (Object change : changes) {
+                if (change instanceof Rows.UserRow row && row.email() != null) {
+                    reservedEmails.put(row.email(), row.id());
+                    reserved.add(row.email());
+                }
+            }
+            return reserved;
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    void release(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return;
+        }
+        commitLock.lock();
+        try {
+            emails.forEach(reservedEmails::remove);
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    /**
+     * Publie le lot d'une transaction que la base a validée : trame dans le journal, puis application.
+     * La base ne peut plus être annulée : si la trame ne peut pas être écrite, les tables sont quand même
+     * mises à jour et l'erreur est journalisée ; le lot sera absent au redémarrage.
+     */
+    void publish(Collection<Object> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        byte[] payload = encode(changes);
+        long start = System.nanoTime();
+        commitLock.lock();
+        try {
+            try {
+                append(payload);
+            } catch (IOException e) {
+                logger.error("Could not log a committed transaction of {} rows, it will be lost on restart",
+                        changes.size(), e);
+            }
+            changes.forEach(this::apply);
+        } finally {
+            commitLock.unlock();
+        }
+        recordCommit(start);
+    }
+
+    // Appelé sous commitLock
+    private void append(byte[] payload) throws IOException {
+        long lsn = lastLsn + 1;
+        wal.append(lsn, payload);
+        lastLsn = lsn;
+    }
+
+    private void recordCommit(long start) {
+        if (commitTimer != null) {
+            commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Écrit un instantané complet puis supprime les segments du journal et les instantanés qu'il remplace.
+     */
+    @Scheduled(fixedDelayString = "${memory-store.snapshot-interval-ms:300000}",
+            initialDelayString = "${memory-store.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        List<Object> rows = new ArrayList<>();
+        long lsn;
+        commitLock.lock();
+        try {
+            lsn = lastLsn;
+            if (lsn == snapshotLsn) {
+                return;
+            }
+            rows.addAll(users.values());
+            rows.addAll(lists.values());
+            rows.addAll(tasks.values());
+            // Les validations suivantes vont dans un nouveau segment
+            wal.roll(lsn + 1);
+        } catch (IOException e) {
+            logger.warn("Could not roll the write-ahead log", e);
+            return;
+        } finally {
+            commitLock.unlock();
+        }
+
+        try {
+            long start = System.nanoTime();
+            writeSnapshot(lsn, rows);
+            snapshotLsn = lsn;
+            wal.deleteSegmentsBefore(lsn + 1);
+            for (Path old : snapshots()) {
+                if (snapshotLsnOf(old) < lsn) {
+                    Files.deleteIfExists(old);
+                }
+            }
+            logger.info("Wrote a snapshot of {} rows at LSN {} in {} ms", rows.size(), lsn,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException e) {
+            logger.warn("Could not write a snapshot at LSN {}", lsn, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        commitLock.lock();
+        try {
+            wal.close();
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> snapshots = new ArrayList<>(snapshots());
+        Collections.reverse(snapshots);
+        for (Path snapshot : snapshots) {
+            try {
+                snapshotLsn = readSnapshot(snapshot);
+                break;
+            } catch (IOException e) {
+                logger.warn("Ignoring unreadable snapshot {}", snapshot, e);
+                users.clear();
+                lists.clear();
+                tasks.clear();
+                userIdsByEmail.clear();
+                listIdsByUser.clear();
+                taskIdsByList.clear();
+            }
+        }
+        lastLsn = wal.recover(snapshotLsn, (lsn, payload) -> decode(payload).forEach(this::apply));
+        logger.info("Recovered {} users, {} lists and {} tasks up to LSN {} from {}",
+                users.size(), lists.size(), tasks.size(), lastLsn, dir);
+    }
+
+    private void apply(Object change) {
+        if (change instanceof Rows.UserRow row) {
+            Rows.UserRow previous = users.put(row.id(), row);
+            if (previous != null && !Objects.equals(previous.email(), row.email()) && previous.email() != null) {
+                userIdsByEmail.remove(previous.email(), row.id());
+            }
+            if (row.email() != null) {
+                userIdsByEmail.put(row.email(), row.id());
+            }
+        } else if (change instanceof Rows.ListRow row) {
+            Rows.ListRow previous = lists.put(row.id(), row);
+            if (previous != null && !Objects.equals(previous.userId(), row.userId())) {
+                removeFromIndex(listIdsByUser, previous.userId(), row.id());
+            }
+            addToIndex(listIdsByUser, row.userId(), row.id());
+        } else if (change instanceof Rows.TaskRow row) {
+            Rows.TaskRow previous = tasks.put(row.id(), row);
+            if (previous != null && !Objects.equals(previous.listId(), row.listId())) {
+                removeFromIndex(taskIdsByList, previous.listId(), row.id());
+            }
+            addToIndex(taskIdsByList, row.listId(), row.id());
+            taskSeq.accumulateAndGet(row.seq(), Math::max);
+        } else if (change instanceof Rows.Deleted deleted) {
+            switch (deleted.type()) {
+                case Rows.USER -> {
+                    Rows.UserRow previous = users.remove(deleted.id());
+                    if (previous != null && previous.email() != null) {
+                        userIdsByEmail.remove(previous.email(), deleted.id());
+                    }
+                }
+                case Rows.LIST -> {
+                    Rows.ListRow previous = lists.remove(deleted.id());
+                    if (previous != null) {
+                        removeFromIndex(listIdsByUser, previous.userId(), deleted.id());
+                    }
+                    // Comme la clé étrangère de la tâche : pas de tâche sans liste
+                    Set<String> taskIds = taskIdsByList.remove(deleted.id());
+                    if (taskIds != null) {
+                        taskIds.forEach(tasks::remove);
+                    }
+                }
+                case Rows.TASK -> {
+                    Rows.TaskRow previous = tasks.remove(deleted.id());
+                    if (previous != null) {
+                        removeFromIndex(taskIdsByList, previous.listId(), deleted.id());
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown type " + deleted.type());
+            }
+        }
+    }
+
+    private void checkUniqueEmails(Collection<Object> changes) {
+        Set<String> emails = new HashSet<>();
+        Set<String> released = new HashSet<>();
+        for (Object change : changes) {
+            if (change instanceof Rows.Deleted deleted && deleted.type() == Rows.USER) {
+                released.add(deleted.id());
+            } else if (change instanceof Rows.UserRow row) {
+                released.add(row.id());
+            }
+        }
+        for (Object change : changes) {
+            if (change instanceof Rows.UserRow row && row.email() != null) {
+                String owner = userIdsByEmail.get(row.email());
+                String reservedBy = reservedEmails.get(row.email());
+                boolean taken = owner != null && !owner.equals(row.id()) && !released.contains(owner)
+                        || reservedBy != null && !reservedBy.equals(row.id());
+                if (taken || !emails.add(row.email())) {
+                    throw new DataIntegrityViolationException("Duplicate email " + row.email());
+                }
+            }
+        }
+    }
+
+    private static void addToIndex(ConcurrentHashMap<String, Set<String>> index, String key, String id) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private static void removeFromIndex(ConcurrentHashMap<String, Set<String>> index, String key, String id) {
+        if (key != null) {
+            index.computeIfPresent(key, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static byte[] encode(Collection<Object> changes) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128 * changes.size());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(changes.size());
+            for (Object change : changes) {
+                Rows.write(out, change);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<Object> decode(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.duplicate().get(bytes);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            int count = in.readInt();
+            List<Object> changes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                changes.add(Rows.read(in));
+            }
+            return changes;
+        } catch (IOException e) {
+            // La trame a passé le CRC : un contenu illisible n'est pas une écriture interrompue
+            throw new IllegalStateException("Unreadable write-ahead log record", e);
+        }
+    }
+
+    private void writeSnapshot(long lsn, List<Object> rows) throws IOException {
+        Path target = dir.resolve(String.format("snapshot-%020d.bin", lsn));
+        Path temp = dir.resolve(target.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file), new CRC32C());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(lsn);
+            out.writeInt(rows.size());
+            for (Object row : rows) {
+                Rows.write(out, row);
+            }
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private long readSnapshot(Path snapshot) throws IOException {
+        try (CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshot)), new CRC32C())) {
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a snapshot");
+            }
+            long lsn = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                apply(Rows.read(in));
+            }
+            long expected = checked.getChecksum().getValue();
+            if (in.readLong() != expected) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+            return lsn;
+        }
+    }
+
+    private List<Path> snapshots() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.getFileName().toString().matches("snapshot-\\d{20}\\.bin"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long snapshotLsnOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(9, name.length() - 4));
+    }
+
+    // Réserve les e-mails juste avant la validation de la base, publie le lot une fois celle-ci validée,
+    // et détache la session à la fin
+    private final class SessionSynchronization implements TransactionSynchronization {
+
+        private final MemorySession session;
+        private List<Object> changes = List.of();
+        private Collection<String> reserved = List.of();
+
+        private SessionSynchronization(MemorySession session) {
+            this.session = session;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(MemoryStore.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(MemoryStore.this, session);
+        }
+
+        @Override
+        public void flush() {
+            session.flush();
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!readOnly) {
+                changes = session.pendingWrites();
+                reserved = reserve(changes);
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            publish(changes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(MemoryStore.this);
+            if (status == STATUS_UNKNOWN && !changes.isEmpty()) {
+                logger.warn("Outcome of the JPA transaction unknown, publishing its {} in-memory rows",
+                        changes.size());
+                publish(changes);
+            }
+            release(reserved);
+        }
+    }
+}
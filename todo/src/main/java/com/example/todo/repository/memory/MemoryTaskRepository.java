@@ -0,0 +1,35 @@
+package com.example.todo.repository.memory;
+
+import com.example.todo.model.Task;
+import com.example.todo.model.TodoList;
+import com.example.todo.repository.TaskRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * {@link TaskRepository} du moteur en mémoire.
+ */
+public class MemoryTaskRepository extends AbstractMemoryRepository<Task> implements TaskRepository {
+
+    public MemoryTaskRepository(MemoryStore store) {
+        super(store, Rows.TASK, Task.class);
+    }
+
+    @Override
+    public boolean existsByIdAndTodoListId(String id, String todoListId) {
+        return store.execute(session -> session.row(Rows.TASK, id) instanceof Rows.TaskRow row
+                && row.listId().equals(todoListId));
+    }
+
+    @Override
+    public List<Task> findAllWithListByIdIn(Collection<String> ids) {
+        // Une tâche est toujours chargée avec sa liste
+        return findAllById(ids);
+    }
+
+    @Override
+    public List<TodoList> findListsByTaskIdIn(Collection<String> ids) {
+        return findAllById(ids).stream().map(Task::getTodoList).distinct().toList();
+    }
+}
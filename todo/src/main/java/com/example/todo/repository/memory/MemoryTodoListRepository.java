@@ -0,0 +1,53 @@
+package com.example.todo.repository.memory;
+
+import com.example.todo.model.ListMembership;
+import com.example.todo.model.TodoList;
+import com.example.todo.repository.ListMembershipRepository;
+import com.example.todo.repository.TodoListRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link TodoListRepository} du moteur en mémoire. Les listes partagées viennent des adhésions,
+ * qui restent en base : elles sont lues avec {@link ListMembershipRepository}.
+ */
+public class MemoryTodoListRepository extends AbstractMemoryRepository<TodoList> implements TodoListRepository {
+
+    private final ListMembershipRepository membershipRepository;
+
+    public MemoryTodoListRepository(MemoryStore store, ListMembershipRepository membershipRepository) {
+        super(store, Rows.LIST, TodoList.class);
+        this.membershipRepository = membershipRepository;
+    }
+
+    @Override
+    public List<TodoList> findByUserId(String userId) {
+        return store.execute(session -> cast(session.findListsOwnedBy(userId)));
+    }
+
+    @Override
+    public List<TodoList> findAccessibleByUserId(String userId) {
+        List<ListMembership> memberships = membershipRepository.findByUserId(userId);
+        return store.execute(session -> {
+            Set<TodoList> lists = new LinkedHashSet<>(cast(session.findListsOwnedBy(userId)));
+            for (ListMembership membership : memberships) {
+                Object list = session.find(Rows.LIST, membership.getListId());
+                if (list != null) {
+                    lists.add((TodoList) list);
+                }
+            }
+            List<TodoList> sorted = new ArrayList<>(lists);
+            sorted.sort(Comparator.comparing(TodoList::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder())));
+            return sorted;
+        });
+    }
+
+    @Override
+    public List<String> findIdsByUserId(String userId) {
+        return store.execute(session -> session.findListIdsOwnedBy(userId));
+    }
+}
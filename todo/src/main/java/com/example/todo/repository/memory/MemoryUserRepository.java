@@ -0,0 +1,21 @@
+package com.example.todo.repository.memory;
+
+import com.example.todo.model.User;
+import com.example.todo.repository.UserRepository;
+
+import java.util.Optional;
+
+/**
+ * {@link UserRepository} du moteur en mémoire ; la recherche par e-mail passe par l'index des e-mails.
+ */
+public class MemoryUserRepository extends AbstractMemoryRepository<User> implements UserRepository {
+
+    public MemoryUserRepository(MemoryStore store) {
+        super(store, Rows.USER, User.class);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return Optional.ofNullable(store.execute(session -> session.findUserByEmail(email)));
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.todo.repository.memory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal d'écriture anticipée en ajout seul, projeté en mémoire ({@link MappedByteBuffer}).
+ * <p>
+ * Le journal est découpé en segments {@code wal-<premier LSN>.log} de taille fixe, préalloués à zéro.
+ * Chaque transaction validée y ajoute une trame {@code [longueur][LSN][CRC32C][données]} ; une longueur
+ * nulle marque la fin. À la reprise, les trames sont relues jusqu'à la première trame incomplète ou
+ * dont le CRC ne correspond pas (écriture interrompue par un arrêt brutal), qui est effacée.
+ */
+final class MemoryWal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemoryWal.class);
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final boolean sync;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    MemoryWal(Path dir, int segmentBytes, boolean sync) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.sync = sync;
+        Files.createDirectories(dir);
+    }
+
+    /**
+     * Rejoue les trames de LSN supérieur à {@code afterLsn} et place l'écriture après la dernière trame valide.
+     *
+     * @return le LSN de la dernière trame valide, ou {@code afterLsn} si aucune
+     */
+    long recover(long afterLsn, BiConsumer<Long, ByteBuffer> replay) throws IOException {
+        List<Path> segments = segments();
+        long lastLsn = afterLsn;
+        for (int i = 0; i < segments.size(); i++) {
+            boolean last = i == segments.size() - 1;
+            FileChannel segmentChannel = FileChannel.open(segments.get(i),
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer mapped = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentChannel.size());
+            boolean torn = false;
+            while (mapped.remaining() >= HEADER_BYTES) {
+                int start = mapped.position();
+                int length = mapped.getInt();
+                if (length == 0) {
+                    mapped.position(start);
+                    break;
+                }
+                long lsn = mapped.getLong();
+                int crc = mapped.getInt();
+                if (length < 0 || length > mapped.remaining()) {
+                    mapped.position(start);
+                    torn = true;
+                    break;
+                }
+                ByteBuffer payload = mapped.slice(mapped.position(), length);
+                if (checksum(lsn, payload) != crc) {
+                    mapped.position(start);
+                    torn = true;
+                    break;
+                }
+                mapped.position(mapped.position() + length);
+                if (lsn > afterLsn) {
+                    replay.accept(lsn, payload);
+                    lastLsn = lsn;
+                }
+            }
+            if (!last) {
+                segmentChannel.close();
+                if (torn) {
+                    throw new IllegalStateException("Corrupted write-ahead log segment " + segments.get(i)
+                            + " followed by later segments; refusing to start");
+                }
+                continue;
+            }
+            if (torn) {
+                logger.warn("Discarding a torn record at offset {} of {}", mapped.position(), segments.get(i));
+                int position = mapped.position();
+                while (mapped.hasRemaining()) {
+                    mapped.put((byte) 0);
+                }
+                mapped.position(position);
+                mapped.force();
+            }
+            channel = segmentChannel;
+            buffer = mapped;
+        }
+        return lastLsn;
+    }
+
+    /**
+     * Ajoute une trame ; avec {@code sync}, elle est sur disque au retour.
+     */
+    void append(long lsn, byte[] payload) throws IOException {
+        int frameBytes = HEADER_BYTES + payload.length;
+        // Garde la place d'une longueur nulle de fin
+        if (buffer == null || buffer.remaining() < frameBytes + Integer.BYTES) {
+            roll(lsn, frameBytes + Integer.BYTES);
+        }
+        int start = buffer.position();
+        buffer.putInt(payload.length);
+        buffer.putLong(lsn);
+        buffer.putInt(checksum(lsn, ByteBuffer.wrap(payload)));
+        buffer.put(payload);
+        if (sync) {
+            buffer.force(start, frameBytes);
+        }
+    }
+
+    /**
+     * Commence un nouveau segment dont la première trame aura le LSN {@code nextLsn}.
+     */
+    void roll(long nextLsn) throws IOException {
+        roll(nextLsn, 0);
+    }
+
+    /**
+     * Supprime les segments entièrement antérieurs au segment courant (couverts par un instantané).
+     */
+    void deleteSegmentsBefore(long nextLsn) throws IOException {
+        for (Path segment : segments()) {
+            if (firstLsn(segment) < nextLsn) {
+                Files.deleteIfExists(segment);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (buffer != null) {
+            buffer.force();
+        }
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void roll(long nextLsn, int minBytes) throws IOException {
+        close();
+        Path segment = dir.resolve(String.format("wal-%020d.log", nextLsn));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentBytes, minBytes));
+        // Le nom du nouveau segment doit survivre à un arrêt brutal
+        channel.force(true);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.getFileName().toString().matches("wal-\\d{20}\\.log"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long firstLsn(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(4, name.length() - 4));
+    }
+
+    private static int checksum(long lsn, ByteBuffer payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, lsn));
+        crc.update(payload.duplicate());
+        return (int) crc.getValue();
+    }
+}
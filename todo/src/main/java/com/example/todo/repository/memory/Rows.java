@@ -0,0 +1,143 @@
+package com.example.todo.repository.memory;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Lignes immuables du moteur en mémoire et leur encodage binaire, partagé par le journal
+ * (WAL) et les instantanés. Une ligne n'est jamais modifiée : une écriture la remplace.
+ */
+final class Rows {
+
+    static final byte PUT_USER = 1;
+    static final byte PUT_LIST = 2;
+    static final byte PUT_TASK = 3;
+    static final byte DELETE_USER = 4;
+    static final byte DELETE_LIST = 5;
+    static final byte DELETE_TASK = 6;
+
+    static final char USER = 'U';
+    static final char LIST = 'L';
+    static final char TASK = 'T';
+
+    private Rows() {
+    }
+
+    record UserRow(String id, String email, String name, String password, LocalDateTime createdAt) {
+    }
+
+    record ListRow(String id, String title, String userId, LocalDateTime createdAt) {
+    }
+
+    // seq : ordre d'insertion, qui donne l'ordre des tâches dans leur liste
+    record TaskRow(String id, String listId, String text, boolean done, LocalDateTime createdAt, long seq) {
+    }
+
+    record Deleted(char type, String id) {
+    }
+
+    static String key(char type, String id) {
+        return type + id;
+    }
+
+    static String keyOf(Object change) {
+        if (change instanceof UserRow row) {
+            return key(USER, row.id());
+        } else if (change instanceof ListRow row) {
+            return key(LIST, row.id());
+        } else if (change instanceof TaskRow row) {
+            return key(TASK, row.id());
+        } else if (change instanceof Deleted deleted) {
+            return key(deleted.type(), deleted.id());
+        }
+        throw new IllegalArgumentException("Unknown change " + change);
+    }
+
+    static void write(DataOutput out, Object change) throws IOException {
+        if (change instanceof UserRow row) {
+            out.writeByte(PUT_USER);
+            writeString(out, row.id());
+            writeString(out, row.email());
+            writeString(out, row.name());
+            writeString(out, row.password());
+            writeTime(out, row.createdAt());
+        } else if (change instanceof ListRow row) {
+            out.writeByte(PUT_LIST);
+            writeString(out, row.id());
+            writeString(out, row.title());
+            writeString(out, row.userId());
+            writeTime(out, row.createdAt());
+        } else if (change instanceof TaskRow row) {
+            out.writeByte(PUT_TASK);
+            writeString(out, row.id());
+            writeString(out, row.listId());
+            writeString(out, row.text());
+            out.writeBoolean(row.done());
+            writeTime(out, row.createdAt());
+            out.writeLong(row.seq());
+        } else if (change instanceof Deleted deleted) {
+            out.writeByte(switch (deleted.type()) {
+                case USER -> DELETE_USER;
+                case LIST -> DELETE_LIST;
+                case TASK -> DELETE_TASK;
+                default -> throw new IllegalArgumentException("Unknown type " + deleted.type());
+            });
+            writeString(out, deleted.id());
+        } else {
+            throw new IllegalArgumentException("Unknown change " + change);
+        }
+    }
+
+    static Object read(DataInput in) throws IOException {
+        byte op = in.readByte();
+        return switch (op) {
+            case PUT_USER -> new UserRow(readString(in), readString(in), readString(in), readString(in), readTime(in));
+            case PUT_LIST -> new ListRow(readString(in), readString(in), readString(in), readTime(in));
+            case PUT_TASK -> new TaskRow(readString(in), readString(in), readString(in), in.readBoolean(),
+                    readTime(in), in.readLong());
+            case DELETE_USER -> new Deleted(USER, readString(in));
+            case DELETE_LIST -> new Deleted(LIST, readString(in));
+            case DELETE_TASK -> new Deleted(TASK, readString(in));
+            default -> throw new IOException("Unknown record type " + op);
+        };
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeTime(DataOutput out, LocalDateTime time) throws IOException {
+        out.writeBoolean(time != null);
+        if (time != null) {
+            out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(time.getNano());
+        }
+    }
+
+    private static LocalDateTime readTime(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+}
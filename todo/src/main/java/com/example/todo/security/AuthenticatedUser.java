@@ -0,0 +1,25 @@
+package com.example.todo.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Principal Spring Security qui porte aussi l'UUID de l'utilisateur,
+ * pour éviter de le rechercher par email à chaque requête.
+ */
+public class AuthenticatedUser extends User {
+
+    private final String id;
+
+    public AuthenticatedUser(String id, String username, String password,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
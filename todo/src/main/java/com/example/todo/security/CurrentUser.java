@@ -0,0 +1,55 @@
+package com.example.todo.security;
+
+import com.example.todo.repository.UserRepository;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Résout l'ID de l'utilisateur authentifié, mémorisé pour la durée de la requête.
+ */
+@Component
+public class CurrentUser {
+
+    private static final String USER_ID_ATTRIBUTE = CurrentUser.class.getName() + ".userId";
+
+    private final UserRepository userRepository;
+
+    public CurrentUser(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * @return l'ID de l'utilisateur authentifié, ou null si la requête n'est pas authentifiée
+     */
+    public String getId() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object cached = attributes.getAttribute(USER_ID_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (cached != null) {
+                return (String) cached;
+            }
+        }
+        String userId = resolve();
+        if (attributes != null && userId != null) {
+            attributes.setAttribute(USER_ID_ATTRIBUTE, userId, RequestAttributes.SCOPE_REQUEST);
+        }
+        return userId;
+    }
+
+    private String resolve() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        // Principal sans ID (ex. utilisateur de test) : recherche par email
+        return userRepository.findByEmail(authentication.getName())
+                .map(com.example.todo.model.User::getId)
+                .orElse(null);
+    }
+}
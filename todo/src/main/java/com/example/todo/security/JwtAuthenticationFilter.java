@@ -1,6 +1,11 @@
 package com.example.todo.security;
 
 import com.example.todo.service.JwtService;
+import com.example.todo.service.JwtService.TokenCheck;
+import com.example.todo.service.JwtService.TokenStatus;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,19 +14,49 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String EVENTS_PATH = "/api/events";
+    // EventSource ne permet pas d'envoyer d'en-tête : le flux SSE accepte en paramètre un jeton
+    // de courte durée (JwtService#generateEventsToken). Aucun journal d'accès n'est configuré ;
+    // en ajouter un qui enregistre la chaîne de requête exposerait ce jeton le temps de sa validité.
+    private static final String ACCESS_TOKEN_PARAMETER = "access_token";
+
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    // Compteurs auth.jwt.requests créés une fois : l'incrément ne fait aucune recherche dans le registre
+    private final Map<TokenStatus, Counter> tokenCounters = new EnumMap<>(TokenStatus.class);
+    private final Counter missingTokenCounter;
+    private final Counter unknownUserCounter;
+    private final Counter wrongScopeCounter;
+
+    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService,
+                                   MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        for (TokenStatus status : TokenStatus.values()) {
+            tokenCounters.put(status, outcomeCounter(meterRegistry, status.name().toLowerCase(Locale.ROOT)));
+        }
+        this.missingTokenCounter = outcomeCounter(meterRegistry, "missing");
+        this.unknownUserCounter = outcomeCounter(meterRegistry, "unknown_user");
+        this.wrongScopeCounter = outcomeCounter(meterRegistry, "wrong_scope");
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("auth.jwt.requests")
+                .description("Requests seen by the JWT filter, by token outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     @Override
@@ -32,15 +67,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         try {
-            String jwt = getJwtFromRequest(request);
-
-            if (StringUtils.hasText(jwt) && jwtService.validateToken(jwt)) {
-                String username = jwtService.getUsernameFromToken(jwt);
+            String jwt = getJwtFromHeader(request);
+            boolean eventsToken = false;
+            if (!StringUtils.hasText(jwt) && EVENTS_PATH.equals(request.getRequestURI())) {
+                jwt = request.getParameter(ACCESS_TOKEN_PARAMETER);
+                eventsToken = true;
+            }
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            if (!StringUtils.hasText(jwt)) {
+                missingTokenCounter.increment();
+            } else {
+                // Une seule analyse du jeton, et un seul résultat compté par requête
+                TokenCheck check = jwtService.verify(jwt);
+                Counter outcome = check.status() == TokenStatus.VALID
+                        ? authenticate(check.claims(), eventsToken)
+                        : tokenCounters.get(check.status());
+                outcome.increment();
             }
         } catch (Exception ex) {
             // Log the exception if needed
@@ -49,7 +91,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    private String getJwtFromRequest(HttpServletRequest request) {
+    // Authentifie la requête d'un jeton valide et renvoie le résultat à compter
+    private Counter authenticate(Claims claims, boolean eventsToken) {
+        // Le paramètre n'accepte que le jeton du flux, et ce jeton ne vaut pas en en-tête
+        if (eventsToken != JwtService.EVENTS_SCOPE.equals(claims.get(JwtService.SCOPE_CLAIM))) {
+            return wrongScopeCounter;
+        }
+        String username = claims.getSubject();
+
+        UserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException ex) {
+            return unknownUserCounter;
+        }
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        return tokenCounters.get(TokenStatus.VALID);
+    }
+
+    private String getJwtFromHeader(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
             return bearerToken.substring(7);
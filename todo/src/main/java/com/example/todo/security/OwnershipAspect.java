@@ -0,0 +1,125 @@
+package com.example.todo.security;
+
+import com.example.todo.model.ListPermission;
+import com.example.todo.repository.TaskRepository;
+import com.example.todo.repository.TodoListRepository;
+import com.example.todo.service.ListAccessIndex;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Applique {@link OwnsList} et {@link OwnsTask} avant l'exécution des méthodes annotées.
+ * Le droit d'accès à une liste est lu dans {@link ListAccessIndex} (sans requête) ;
+ * l'appartenance d'une tâche à sa liste est vérifiée par une seule requête d'existence indexée.
+ * Les vérifications réussies sont mémorisées pour la durée de la requête.
+ */
+@Aspect
+@Component
+public class OwnershipAspect {
+
+    private static final String VERIFIED_ATTRIBUTE = OwnershipAspect.class.getName() + ".verified";
+
+    private final CurrentUser currentUser;
+    private final ListAccessIndex accessIndex;
+    private final TodoListRepository todoListRepository;
+    private final TaskRepository taskRepository;
+
+    public OwnershipAspect(CurrentUser currentUser, ListAccessIndex accessIndex,
+                           TodoListRepository todoListRepository, TaskRepository taskRepository) {
+        this.currentUser = currentUser;
+        this.accessIndex = accessIndex;
+        this.todoListRepository = todoListRepository;
+        this.taskRepository = taskRepository;
+    }
+
+    @Before("@annotation(ownsList)")
+    public void checkList(JoinPoint joinPoint, OwnsList ownsList) {
+        String listId = argument(joinPoint, ownsList.value());
+        checkListAccess(listId, ownsList.permission());
+    }
+
+    @Before("@annotation(ownsTask)")
+    public void checkTask(JoinPoint joinPoint, OwnsTask ownsTask) {
+        String listId = argument(joinPoint, ownsTask.list());
+        String taskId = argument(joinPoint, ownsTask.task());
+        checkListAccess(listId, ownsTask.permission());
+
+        String key = "task:" + taskId + ":" + listId;
+        if (!isVerified(key)) {
+            if (!taskRepository.existsByIdAndTodoListId(taskId, listId)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found with ID: " + taskId);
+            }
+            markVerified(key);
+        }
+    }
+
+    private void checkListAccess(String listId, ListPermission required) {
+        String userId = currentUser.getId();
+        if (userId == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+        }
+        String key = "list:" + listId + ":" + required;
+        if (isVerified(key)) {
+            return;
+        }
+        ListPermission permission = accessIndex.getPermission(userId, listId);
+        if (permission == null) {
+            // Refus : on distingue une liste inexistante d'une liste d'un autre utilisateur
+            if (!todoListRepository.existsById(listId)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Todo List not found with ID: " + listId);
+            }
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN);
+        }
+        if (!permission.allows(required)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN);
+        }
+        markVerified(key);
+    }
+
+    private String argument(JoinPoint joinPoint, String name) {
+        String[] names = ((MethodSignature) joinPoint.getSignature()).getParameterNames();
+        Object[] args = joinPoint.getArgs();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return args[i] == null ? null : args[i].toString();
+            }
+        }
+        throw new IllegalStateException("No parameter named '" + name + "' on " + joinPoint.getSignature());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> verified(boolean create) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Set<String> verified = (Set<String>) attributes.getAttribute(VERIFIED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (verified == null && create) {
+            verified = new HashSet<>();
+            attributes.setAttribute(VERIFIED_ATTRIBUTE, verified, RequestAttributes.SCOPE_REQUEST);
+        }
+        return verified;
+    }
+
+    private boolean isVerified(String key) {
+        Set<String> verified = verified(false);
+        return verified != null && verified.contains(key);
+    }
+
+    private void markVerified(String key) {
+        Set<String> verified = verified(true);
+        if (verified != null) {
+            verified.add(key);
+        }
+    }
+}
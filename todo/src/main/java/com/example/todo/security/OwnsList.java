@@ -0,0 +1,30 @@
+package com.example.todo.security;
+
+import com.example.todo.model.ListPermission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Exige que l'utilisateur courant ait accès à la liste désignée par un paramètre de la méthode.
+ * Vérifié par {@link OwnershipAspect} avant l'appel : 404 si la liste n'existe pas,
+ * 403 si l'accès est insuffisant.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OwnsList {
+
+    /**
+     * Nom du paramètre portant l'ID de la liste.
+     */
+    String value() default "listId";
+
+    /**
+     * Niveau d'accès minimal requis.
+     */
+    ListPermission permission() default ListPermission.WRITE;
+}
@@ -0,0 +1,34 @@
+package com.example.todo.security;
+
+import com.example.todo.model.ListPermission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Exige que la tâche désignée appartienne à la liste désignée et que l'utilisateur courant
+ * ait accès à cette liste. Vérifié par {@link OwnershipAspect} avant l'appel.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OwnsTask {
+
+    /**
+     * Nom du paramètre portant l'ID de la liste.
+     */
+    String list() default "listId";
+
+    /**
+     * Nom du paramètre portant l'ID de la tâche.
+     */
+    String task() default "taskId";
+
+    /**
+     * Niveau d'accès minimal requis sur la liste.
+     */
+    ListPermission permission() default ListPermission.WRITE;
+}
@@ -1,5 +1,11 @@
 package com.example.todo.security;
 
+import com.example.todo.maintenance.BackupEndpoint;
+import com.example.todo.ratelimit.ConcurrencyLimitFilter;
+import com.example.todo.ratelimit.UserQuotaFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -36,8 +42,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtService, userDetailsService);
+    public JwtAuthenticationFilter jwtAuthenticationFilter(MeterRegistry meterRegistry) {
+        return new JwtAuthenticationFilter(jwtService, userDetailsService, meterRegistry);
     }
 
     @Bean
@@ -54,19 +60,33 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider, JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider,
+                                                   JwtAuthenticationFilter jwtAuthenticationFilter,
+                                                   UserQuotaFilter userQuotaFilter,
+                                                   ConcurrencyLimitFilter concurrencyLimitFilter) throws Exception {
         http
             .csrf(AbstractHttpConfigurer::disable)
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authenticationProvider(authenticationProvider)
             .authorizeHttpRequests(auth -> auth
+                // Les flux SSE terminent par un dispatch asynchrone, déjà authentifié à l'ouverture ;
+                // les dispatchs d'erreur conservent le statut (404/403) posé par OwnershipAspect
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                 .requestMatchers("/api/auth/**", "/h2-console/**").permitAll()
+                // Sondes et scraping Prometheus, servis sur le port de management
+                .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
+                // Sauvegardes et vérifications : disque et CPU, réservées aux comptes de security.admin-emails
+                .requestMatchers(EndpointRequest.to(BackupEndpoint.class)).hasRole("ADMIN")
                 .requestMatchers("/api/**").authenticated()
                 .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // Quota puis limite de concurrence : tous deux ont besoin de l'utilisateur authentifié,
+            // et une requête hors quota ne doit pas occuper une place dans la limite
+            .addFilterAfter(userQuotaFilter, JwtAuthenticationFilter.class)
+            .addFilterAfter(concurrencyLimitFilter, UserQuotaFilter.class);
         return http.build();
     }
 
@@ -0,0 +1,11 @@
+package com.example.todo.service;
+
+/**
+ * Levée quand un envoi dépasse la taille maximale d'un fichier ou le quota restant de l'utilisateur.
+ */
+public class AttachmentLimitExceededException extends IllegalStateException {
+
+    public AttachmentLimitExceededException(String message) {
+        super(message);
+    }
+}
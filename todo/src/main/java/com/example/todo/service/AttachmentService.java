@@ -0,0 +1,141 @@
+package com.example.todo.service;
+
+import com.example.todo.model.Attachment;
+import com.example.todo.repository.AttachmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Pièces jointes des tâches : métadonnées en base, contenu dans {@link AttachmentStorage}.
+ * Chaque utilisateur dispose d'un quota en octets, débité de la taille de ce qu'il envoie
+ * (même si le contenu est dédupliqué sur disque) et crédité quand la pièce jointe ou sa tâche est supprimée.
+ */
+@Service
+public class AttachmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentService.class);
+
+    private final AttachmentRepository attachmentRepository;
+    private final AttachmentStorage storage;
+    private final long maxFileBytes;
+    private final long quotaBytes;
+    private final Duration garbageGrace;
+
+    public AttachmentService(AttachmentRepository attachmentRepository, AttachmentStorage storage,
+                             @Value("${attachments.max-file-bytes:26214400}") long maxFileBytes,
+                             @Value("${attachments.quota-bytes:104857600}") long quotaBytes,
+                             @Value("${attachments.gc-grace-ms:3600000}") long garbageGraceMs) {
+        this.attachmentRepository = attachmentRepository;
+        this.storage = storage;
+        this.maxFileBytes = maxFileBytes;
+        this.quotaBytes = quotaBytes;
+        this.garbageGrace = Duration.ofMillis(garbageGraceMs);
+    }
+
+    /**
+     * Enregistre une pièce jointe. Volontairement hors transaction : aucune connexion n'est
+     * retenue pendant la lecture du corps, seule l'insertion finale touche la base.
+     *
+     * @param declaredLength taille annoncée ({@code Content-Length}), ou -1 si inconnue
+     * @throws AttachmentLimitExceededException si le fichier dépasse la taille maximale ou le quota restant
+     * @throws IllegalArgumentException si la tâche n'existe plus
+     */
+    public Attachment upload(String taskId, String uploaderId, String fileName, String contentType,
+                             long declaredLength, InputStream content) throws IOException {
+        long limit = Math.min(maxFileBytes, getRemainingQuota(uploaderId));
+        if (declaredLength > limit) {
+            throw new AttachmentLimitExceededException("Attachment of " + declaredLength
+                    + " bytes exceeds the " + limit + " bytes allowed");
+        }
+        AttachmentStorage.StoredContent stored = storage.store(content, limit);
+
+        Attachment attachment;
+        try {
+            attachment = attachmentRepository.save(new Attachment(taskId, fileName,
+                    contentType != null ? contentType : "application/octet-stream",
+                    stored.size(), stored.sha256(), uploaderId));
+        } catch (DataIntegrityViolationException e) {
+            // Tâche supprimée pendant l'envoi : le contenu sera ramassé s'il n'est pas partagé
+            throw new IllegalArgumentException("Task not found with ID: " + taskId);
+        }
+
+        // Deux envois simultanés ont pu voir le même quota restant : on revérifie après coup
+        if (getUsedBytes(uploaderId) > quotaBytes) {
+            attachmentRepository.delete(attachment);
+            throw new AttachmentLimitExceededException("Attachment quota of " + quotaBytes + " bytes exceeded");
+        }
+        return attachment;
+    }
+
+    public List<Attachment> getAttachments(String taskId) {
+        return attachmentRepository.findByTaskIdOrderByCreatedAtAsc(taskId);
+    }
+
+    public Optional<Attachment> getAttachment(String taskId, String attachmentId) {
+        return attachmentRepository.findByIdAndTaskId(attachmentId, taskId);
+    }
+
+    /**
+     * Chemin du contenu d'une pièce jointe sur disque.
+     */
+    public Path getContentPath(Attachment attachment) {
+        return storage.resolve(attachment.getSha256());
+    }
+
+    /**
+     * Supprime une pièce jointe ; son contenu disparaît au prochain ramassage s'il n'est plus partagé.
+     *
+     * @return false si la pièce jointe n'existe pas
+     */
+    @Transactional
+    public boolean deleteAttachment(String taskId, String attachmentId) {
+        return attachmentRepository.findByIdAndTaskId(attachmentId, taskId)
+                .map(attachment -> {
+                    attachmentRepository.delete(attachment);
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    public long getUsedBytes(String userId) {
+        return attachmentRepository.sumSizeByUploaderId(userId);
+    }
+
+    public long getRemainingQuota(String userId) {
+        return Math.max(0, quotaBytes - getUsedBytes(userId));
+    }
+
+    public long getQuotaBytes() {
+        return quotaBytes;
+    }
+
+    /**
+     * Supprime du disque les contenus qui ne sont plus référencés (pièces jointes supprimées,
+     * tâches ou listes supprimées en cascade) et les envois interrompus.
+     */
+    @Scheduled(fixedDelayString = "${attachments.gc-interval-ms:3600000}")
+    public void collectGarbage() {
+        try {
+            int deleted = storage.collectGarbage(attachmentRepository::existsBySha256,
+                    Instant.now().minus(garbageGrace));
+            if (deleted > 0) {
+                logger.info("Removed {} unreferenced attachment files", deleted);
+            }
+        } catch (IOException e) {
+            logger.warn("Attachment garbage collection failed", e);
+        }
+    }
+}
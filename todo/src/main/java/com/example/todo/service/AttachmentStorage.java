@@ -0,0 +1,145 @@
+package com.example.todo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Stockage des contenus de pièces jointes sur disque local, adressé par contenu :
+ * chaque fichier est rangé sous {@code <dir>/<2 premiers caractères>/<sha256>}.
+ * <p>
+ * Un envoi est écrit dans {@code <dir>/tmp} au fil de la lecture (tampon fixe de 64 Kio, jamais le
+ * fichier entier en mémoire) en calculant son empreinte, puis déplacé atomiquement à sa place.
+ * Si ce contenu existe déjà, la copie temporaire est supprimée : le fichier est partagé.
+ */
+@Component
+public class AttachmentStorage {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path tmp;
+
+    public AttachmentStorage(@Value("${attachments.dir:./data/attachments}") String dir) throws IOException {
+        this.root = Path.of(dir).toAbsolutePath().normalize();
+        this.tmp = root.resolve("tmp");
+        Files.createDirectories(tmp);
+    }
+
+    /**
+     * Écrit le flux sur disque et renvoie son empreinte.
+     *
+     * @param maxBytes taille au-delà de laquelle l'envoi est abandonné
+     * @throws AttachmentLimitExceededException si le flux dépasse {@code maxBytes}
+     */
+    public StoredContent store(InputStream content, long maxBytes) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(tmp, "upload-", ".part");
+        try {
+            long size = 0;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new AttachmentLimitExceededException("Attachment larger than " + maxBytes + " bytes");
+                    }
+                    digest.update(buffer, 0, read);
+                    wrapped.clear().limit(read);
+                    while (wrapped.hasRemaining()) {
+                        channel.write(wrapped);
+                    }
+                }
+                channel.force(false);
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            Path target = resolve(sha256);
+            if (Files.exists(target)) {
+                // Contenu déjà présent : la date rafraîchie le protège du ramasse-miettes
+                // jusqu'à l'enregistrement de la nouvelle référence
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            } else {
+                Files.createDirectories(target.getParent());
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new StoredContent(sha256, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Chemin du contenu d'empreinte donnée.
+     */
+    public Path resolve(String sha256) {
+        if (!SHA256.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Invalid SHA-256: " + sha256);
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    /**
+     * Supprime les contenus qui ne sont plus référencés et les envois interrompus, s'ils sont
+     * plus anciens que {@code olderThan} (un contenu plus récent peut attendre sa référence).
+     *
+     * @return le nombre de fichiers supprimés
+     */
+    public int collectGarbage(Predicate<String> referenced, Instant olderThan) throws IOException {
+        int deleted = 0;
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root, 2)) {
+            files = walk.filter(Files::isRegularFile).toList();
+        }
+        for (Path file : files) {
+            boolean inTmp = file.getParent().equals(tmp);
+            String name = file.getFileName().toString();
+            if (!inTmp && (!SHA256.matcher(name).matches() || referenced.test(name))) {
+                continue;
+            }
+            try {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(olderThan) && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            } catch (UncheckedIOException | IOException e) {
+                // Fichier déplacé ou supprimé entre-temps : il sera revu au prochain passage
+            }
+        }
+        return deleted;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Contenu stocké : empreinte SHA-256 (hexadécimale) et taille en octets.
+     */
+    public record StoredContent(String sha256, long size) {
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.ChangeEvent;
+import com.example.todo.model.ChangeEntityType;
+import com.example.todo.model.ChangeLogEntry;
+import com.example.todo.model.ChangeOperation;
+import com.example.todo.model.ListMembership;
+import com.example.todo.model.Task;
+import com.example.todo.model.TodoList;
+import com.example.todo.model.UserSyncState;
+import com.example.todo.repository.ChangeLogRepository;
+import com.example.todo.repository.ListMembershipRepository;
+import com.example.todo.repository.UserSyncStateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Journal des changements par utilisateur.
+ * Les services de listes et de tâches y ajoutent une entrée pour chaque mutation,
+ * dans la même transaction que la mutation elle-même.
+ * Chaque entrée est aussi publiée comme {@link ChangeEvent} pour les abonnés temps réel.
+ */
+@Service
+public class ChangeLogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeLogService.class);
+
+    private final ChangeLogRepository changeLogRepository;
+    private final UserSyncStateRepository syncStateRepository;
+    private final ListMembershipRepository membershipRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate newTransaction;
+
+    @Value("${sync.retention-hours:168}")
+    private long retentionHours;
+
+    public ChangeLogService(ChangeLogRepository changeLogRepository, UserSyncStateRepository syncStateRepository,
+                            ListMembershipRepository membershipRepository, ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager) {
+        this.changeLogRepository = changeLogRepository;
+        this.syncStateRepository = syncStateRepository;
+        this.membershipRepository = membershipRepository;
+        this.eventPublisher = eventPublisher;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Enregistre la modification d'une liste (titre, création, suppression)
+     * pour son propriétaire et tous les utilisateurs avec qui elle est partagée.
+     *
+     * @param list la liste modifiée
+     * @param operation le type de modification
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordList(TodoList list, ChangeOperation operation) {
+        for (String userId : audienceOf(list)) {
+            append(userId, List.of(new Change(ChangeEntityType.LIST, list.getId())), list.getId(), operation);
+        }
+    }
+
+    /**
+     * Enregistre la modification d'une tâche.
+     *
+     * @param task la tâche modifiée, encore rattachée à sa liste
+     * @param operation le type de modification
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTask(Task task, ChangeOperation operation) {
+        recordTasks(task.getTodoList(), List.of(task), operation);
+    }
+
+    /**
+     * Enregistre la modification de plusieurs tâches d'une même liste,
+     * avec une seule résolution des destinataires.
+     *
+     * @param list la liste parente
+     * @param tasks les tâches modifiées
+     * @param operation le type de modification
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTasks(TodoList list, Collection<Task> tasks, ChangeOperation operation) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        List<Change> changes = tasks.stream().map(task -> new Change(ChangeEntityType.TASK, task.getId())).toList();
+        for (String userId : audienceOf(list)) {
+            append(userId, changes, list.getId(), operation);
+        }
+    }
+
+    /**
+     * Enregistre l'apparition ou la disparition d'une liste pour un seul utilisateur,
+     * lorsqu'elle lui est partagée ou que son accès est retiré.
+     * Un partage enregistre aussi toutes les tâches de la liste.
+     *
+     * @param userId l'utilisateur concerné
+     * @param list la liste partagée ou retirée
+     * @param operation UPSERT pour un partage, DELETE pour un retrait
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordListFor(String userId, TodoList list, ChangeOperation operation) {
+        List<Change> changes = new ArrayList<>();
+        changes.add(new Change(ChangeEntityType.LIST, list.getId()));
+        if (operation == ChangeOperation.UPSERT) {
+            for (Task task : list.getTasks()) {
+                changes.add(new Change(ChangeEntityType.TASK, task.getId()));
+            }
+        }
+        append(userId, changes, list.getId(), operation);
+    }
+
+    /**
+     * Verrouille d'avance les états de synchronisation de tous les destinataires de plusieurs listes,
+     * dans l'ordre de leurs identifiants. Une transaction qui écrit dans plusieurs listes prend ainsi
+     * ses verrous dans le même ordre que les écritures sur une seule liste et que la compaction ;
+     * les enregistrements qui suivent retrouvent des verrous déjà tenus.
+     *
+     * @param lists les listes que la transaction va modifier
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockAudiences(Collection<TodoList> lists) {
+        Set<String> audience = new TreeSet<>();
+        for (TodoList list : lists) {
+            audience.addAll(audienceOf(list));
+        }
+        audience.forEach(this::lockSyncState);
+    }
+
+    // Propriétaire et membres, triés pour prendre les verrous toujours dans le même ordre
+    private Set<String> audienceOf(TodoList list) {
+        Set<String> audience = new TreeSet<>();
+        audience.add(list.getUserId());
+        for (ListMembership membership : membershipRepository.findByListId(list.getId())) {
+            audience.add(membership.getUserId());
+        }
+        return audience;
+    }
+
+    // Un verrou et une plage de numéros par utilisateur, quel que soit le nombre d'entrées
+    private void append(String userId, List<Change> changes, String listId, ChangeOperation operation) {
+        long seq = lockSyncState(userId).nextSeqs(changes.size());
+        for (Change change : changes) {
+            ChangeLogEntry entry = changeLogRepository.save(
+                    new ChangeLogEntry(userId, seq++, change.entityType(), change.entityId(), listId, operation));
+            eventPublisher.publishEvent(new ChangeEvent(entry));
+        }
+    }
+
+    /**
+     * Verrouille l'état de synchronisation de l'utilisateur pour la transaction courante, en le créant
+     * au besoin. Ce verrou sérialise les écritures d'un même utilisateur.
+     * <p>
+     * La création a lieu dans une transaction séparée : si deux premières écritures concurrentes
+     * tentent l'insertion, la perdante reçoit une violation de clé, l'ignore et verrouille la ligne
+     * de la gagnante, sans faire échouer la mutation de l'utilisateur.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public UserSyncState lockSyncState(String userId) {
+        return syncStateRepository.findForUpdate(userId).orElseGet(() -> {
+            try {
+                newTransaction.executeWithoutResult(status ->
+                        syncStateRepository.saveAndFlush(new UserSyncState(userId)));
+            } catch (DataIntegrityViolationException e) {
+                logger.debug("Sync state of user {} created concurrently", userId);
+            }
+            return syncStateRepository.findForUpdate(userId).orElseThrow();
+        });
+    }
+
+    /**
+     * Compacte le journal : supprime les entrées remplacées par une entrée plus récente
+     * pour la même entité, puis celles plus anciennes que la période de rétention.
+     * Un client dont le curseur est sous la borne de compaction reçoit un instantané complet.
+     * <p>
+     * Pas de transaction d'ensemble : les suppressions globales ont chacune la leur, sans verrou
+     * d'utilisateur, puis chaque utilisateur est traité dans une courte transaction qui ne tient
+     * que son propre verrou. Ses écritures n'attendent donc que sa propre borne, jamais toute la passe.
+     */
+    @Scheduled(fixedDelayString = "${sync.compaction-interval-ms:600000}")
+    public void compact() {
+        Integer superseded = newTransaction.execute(status -> changeLogRepository.deleteSuperseded());
+        Integer covered = newTransaction.execute(status -> changeLogRepository.deleteCoveredByListTombstones());
+
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        int expired = 0;
+        for (Object[] floor : changeLogRepository.findCompactionFloors(cutoff)) {
+            String userId = (String) floor[0];
+            long seq = ((Number) floor[1]).longValue();
+            Integer deleted = newTransaction.execute(status -> expire(userId, seq));
+            expired += deleted != null ? deleted : 0;
+        }
+        logger.debug("Change log compacted: superseded={}, covered={}, expired={}", superseded, covered, expired);
+    }
+
+    // Relève la borne de compaction d'un utilisateur sous son verrou, et supprime les entrées qu'elle couvre
+    private int expire(String userId, long seq) {
+        UserSyncState state = syncStateRepository.findForUpdate(userId).orElse(null);
+        if (state == null || seq <= state.getCompactedSeq()) {
+            return 0;
+        }
+        state.setCompactedSeq(seq);
+        return changeLogRepository.deleteUpTo(userId, seq);
+    }
+
+    private record Change(ChangeEntityType entityType, String entityId) {
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.ChangeEvent;
+import com.example.todo.model.DashboardDocument;
+import com.example.todo.model.TodoList;
+import com.example.todo.model.User;
+import com.example.todo.model.UserSyncState;
+import com.example.todo.repository.DashboardDocumentRepository;
+import com.example.todo.repository.ListMembershipRepository;
+import com.example.todo.repository.TodoListRepository;
+import com.example.todo.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Tient à jour le {@link DashboardDocument} de chaque utilisateur.
+ * <p>
+ * Chaque écriture de {@link TodoListService} ou {@link TaskService} passe par le journal des
+ * changements, qui publie un {@link ChangeEvent} par utilisateur concerné dans la transaction
+ * de l'écriture. Les listes touchées sont regroupées par utilisateur et par transaction ; juste avant
+ * le commit, seules ces listes sont relues et remplacées (ou retirées) dans le document existant,
+ * écrit dans la même transaction. Le journal a déjà verrouillé l'état de synchronisation de chacun
+ * des utilisateurs : deux écritures ne modifient jamais le même document en parallèle. Un document
+ * absent (utilisateur sans écriture depuis la mise en place) est calculé à la lecture sans être
+ * enregistré, puis créé entièrement par la première écriture ou par le rattrapage au démarrage.
+ */
+@Service
+public class DashboardService implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    private final DashboardDocumentRepository documentRepository;
+    private final TodoListRepository todoListRepository;
+    private final UserRepository userRepository;
+    private final ListMembershipRepository membershipRepository;
+    private final ChangeLogService changeLogService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private Counter rebuilds;
+    private Counter patches;
+    private Counter misses;
+    private DistributionSummary documentSize;
+
+    @Value("${dashboard.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    public DashboardService(DashboardDocumentRepository documentRepository, TodoListRepository todoListRepository,
+                            UserRepository userRepository, ListMembershipRepository membershipRepository,
+                            ChangeLogService changeLogService, ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager) {
+        this.documentRepository = documentRepository;
+        this.todoListRepository = todoListRepository;
+        this.userRepository = userRepository;
+        this.membershipRepository = membershipRepository;
+        this.changeLogService = changeLogService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Corps JSON de {@code GET /api/lists} pour l'utilisateur : une lecture par clé primaire,
+     * ou, si son document n'existe pas encore, le calcul à partir des listes.
+     */
+    public byte[] getDocument(String userId) {
+        return documentRepository.findById(userId)
+                .map(DashboardDocument::getBody)
+                .orElseGet(() -> {
+                    if (misses != null) {
+                        misses.increment();
+                    }
+                    return serialize(todoListRepository.findAccessibleByUserId(userId));
+                });
+    }
+
+    /**
+     * Note la liste touchée par une entrée du journal ; le document de l'utilisateur sera modifié
+     * une seule fois, avant le commit, quel que soit le nombre d'entrées de la transaction.
+     */
+    @EventListener
+    public void onChange(ChangeEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        PendingDocuments pending = (PendingDocuments) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingDocuments();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.seqs.merge(event.getUserId(), event.getSeq(), Math::max);
+        pending.listIds.computeIfAbsent(event.getUserId(), id -> new TreeSet<>()).add(event.getListId());
+    }
+
+    /**
+     * Crée au démarrage les documents manquants, un utilisateur par transaction, sous le même verrou
+     * que les écritures du journal.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        int created = 0;
+        for (User user : userRepository.findAll()) {
+            String userId = user.getId();
+            if (documentRepository.existsById(userId)) {
+                continue;
+            }
+            try {
+                Boolean written = transactionTemplate.execute(status -> {
+                    UserSyncState state = changeLogService.lockSyncState(userId);
+                    // Une écriture validée entre-temps a pu créer le document
+                    if (documentRepository.existsById(userId)) {
+                        return false;
+                    }
+                    write(userId, state.getLastSeq());
+                    return true;
+                });
+                if (Boolean.TRUE.equals(written)) {
+                    created++;
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not build the dashboard document of user {}", userId, e);
+            }
+        }
+        if (created > 0) {
+            logger.info("Built {} missing dashboard documents", created);
+        }
+    }
+
+    /**
+     * Remplace dans le document de l'utilisateur les listes touchées, ou les retire quand elles
+     * n'existent plus ou ne lui sont plus partagées. Sans document, il est calculé entièrement.
+     */
+    private void update(String userId, long seq, Set<String> listIds) {
+        Optional<DashboardDocument> existing = documentRepository.findById(userId);
+        if (existing.isEmpty()) {
+            write(userId, seq);
+            return;
+        }
+        DashboardDocument document = existing.get();
+        ArrayNode lists = readDocument(document.getBody());
+        for (String listId : listIds) {
+            patch(lists, userId, listId);
+        }
+        byte[] body = serialize(lists);
+        document.setBody(body);
+        document.setSeq(Math.max(seq, document.getSeq()));
+        document.setUpdatedAt(LocalDateTime.now());
+        documentRepository.save(document);
+        if (patches != null) {
+            patches.increment();
+            documentSize.record(body.length);
+        }
+    }
+
+    private void patch(ArrayNode lists, String userId, String listId) {
+        int index = indexOf(lists, listId);
+        TodoList list = todoListRepository.findById(listId)
+                .filter(candidate -> userId.equals(candidate.getUserId())
+                        || membershipRepository.findByListIdAndUserId(listId, userId).isPresent())
+                .orElse(null);
+        if (list == null) {
+            if (index >= 0) {
+                lists.remove(index);
+            }
+            return;
+        }
+        JsonNode node = objectMapper.valueToTree(list);
+        if (index >= 0) {
+            lists.set(index, node);
+        } else {
+            lists.insert(insertionIndex(lists, list.getCreatedAt()), node);
+        }
+    }
+
+    private static int indexOf(ArrayNode lists, String listId) {
+        for (int i = 0; i < lists.size(); i++) {
+            if (listId.equals(lists.get(i).path("id").asText(null))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Les listes sont rangées par date de création, comme dans findAccessibleByUserId
+    private int insertionIndex(ArrayNode lists, LocalDateTime createdAt) {
+        if (createdAt == null) {
+            return lists.size();
+        }
+        for (int i = 0; i < lists.size(); i++) {
+            JsonNode other = lists.get(i).get("createdAt");
+            try {
+                if (other != null && !other.isNull()
+                        && objectMapper.treeToValue(other, LocalDateTime.class).isAfter(createdAt)) {
+                    return i;
+                }
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unreadable dashboard document date", e);
+            }
+        }
+        return lists.size();
+    }
+
+    private ArrayNode readDocument(byte[] body) {
+        try {
+            return (ArrayNode) objectMapper.readTree(body);
+        } catch (IOException | ClassCastException e) {
+            throw new IllegalStateException("Unreadable dashboard document", e);
+        }
+    }
+
+    private void write(String userId, long seq) {
+        byte[] body = serialize(todoListRepository.findAccessibleByUserId(userId));
+        DashboardDocument document = documentRepository.findById(userId)
+                .orElseGet(() -> new DashboardDocument(userId));
+        document.setBody(body);
+        document.setSeq(Math.max(seq, document.getSeq()));
+        document.setUpdatedAt(LocalDateTime.now());
+        documentRepository.save(document);
+        if (rebuilds != null) {
+            rebuilds.increment();
+            documentSize.record(body.length);
+        }
+    }
+
+    private byte[] serialize(Object lists) {
+        try {
+            return objectMapper.writeValueAsBytes(lists);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize todo lists", e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        rebuilds = Counter.builder("dashboard.document.rebuilds")
+                .description("Dashboard documents computed in full, on a user's first write or at startup")
+                .register(registry);
+        patches = Counter.builder("dashboard.document.patches")
+                .description("Dashboard documents updated in place for the lists a write touched")
+                .register(registry);
+        misses = Counter.builder("dashboard.document.misses")
+                .description("Dashboard reads computed from the lists because the user had no document yet")
+                .register(registry);
+        documentSize = DistributionSummary.builder("dashboard.document.size")
+                .description("Size of the written dashboard documents")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Utilisateurs touchés par la transaction courante, avec le dernier numéro de séquence
+     * et les listes touchées de chacun.
+     */
+    private final class PendingDocuments implements TransactionSynchronization {
+
+        // Triés, comme les verrous du journal
+        private final Map<String, Long> seqs = new TreeMap<>();
+        private final Map<String, Set<String>> listIds = new TreeMap<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!readOnly) {
+                seqs.forEach((userId, seq) -> update(userId, seq, listIds.get(userId)));
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DashboardService.this);
+        }
+
+        // Avant la validation de la session du moteur en mémoire, pour lire les listes de la transaction
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
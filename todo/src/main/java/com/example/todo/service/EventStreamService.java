@@ -0,0 +1,312 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.ChangeEvent;
+import com.example.todo.model.UserSyncState;
+import com.example.todo.repository.UserSyncStateRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registre pub/sub en mémoire des flux Server-Sent Events.
+ * Les changements d'une transaction sont regroupés par utilisateur et annoncés après le commit par un seul
+ * événement portant le dernier numéro de séquence : le client récupère les données via {@code GET /api/sync}.
+ * Les flux reposent sur le mode asynchrone des servlets : une connexion inactive n'occupe aucun thread.
+ * Chaque abonné ne garde que le dernier numéro non envoyé : les annonces successives fusionnent et la mémoire
+ * par abonné est constante. Un envoi bloqué au-delà de {@code events.send-timeout-ms} ferme le flux.
+ */
+@Service
+public class EventStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventStreamService.class);
+
+    private final UserSyncStateRepository syncStateRepository;
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private ExecutorService sender;
+
+    @Value("${events.max-connections:5000}")
+    private int maxConnections;
+
+    @Value("${events.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${events.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${events.sender-threads:4}")
+    private int senderThreads;
+
+    public EventStreamService(UserSyncStateRepository syncStateRepository) {
+        this.syncStateRepository = syncStateRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(Subscriber::close));
+        sender.shutdownNow();
+    }
+
+    /**
+     * Ouvre un flux d'événements pour un utilisateur.
+     * Le premier événement ({@code connected}) porte le numéro de séquence courant.
+     *
+     * @param userId l'ID de l'utilisateur
+     * @return l'émetteur SSE à renvoyer au client
+     * @throws IllegalStateException si le nombre maximal de connexions est atteint
+     */
+    public SseEmitter subscribe(String userId) {
+        if (openConnections.incrementAndGet() > maxConnections) {
+            openConnections.decrementAndGet();
+            throw new IllegalStateException("Too many open event streams");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        // Contrôle et ajout sous le verrou de la clé : deux connexions simultanées ne dépassent pas le plafond
+        AtomicBoolean added = new AtomicBoolean();
+        subscribers.compute(userId, (id, set) -> {
+            Set<Subscriber> userSubscribers = set != null ? set : ConcurrentHashMap.newKeySet();
+            if (userSubscribers.size() < maxConnectionsPerUser) {
+                added.set(userSubscribers.add(subscriber));
+            }
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+        if (!added.get()) {
+            openConnections.decrementAndGet();
+            throw new IllegalStateException("Too many open event streams for user");
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        long seq = syncStateRepository.findById(userId).map(UserSyncState::getLastSeq).orElse(0L);
+        subscriber.announce(seq);
+        return emitter;
+    }
+
+    /**
+     * Note le changement dans la transaction courante ; chaque utilisateur touché ne reçoit qu'une annonce,
+     * après le commit, quel que soit le nombre d'entrées du journal.
+     */
+    @EventListener
+    public void onChange(ChangeEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notify(event.getUserId(), event.getSeq());
+            return;
+        }
+        PendingNotifications pending = (PendingNotifications) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingNotifications();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.seqs.merge(event.getUserId(), event.getSeq(), Math::max);
+    }
+
+    /**
+     * Envoie un commentaire périodique pour maintenir les connexions ouvertes à travers les proxys.
+     */
+    @Scheduled(fixedDelayString = "${events.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        if (openConnections.get() == 0) {
+            return;
+        }
+        subscribers.values().forEach(set -> set.forEach(Subscriber::heartbeat));
+    }
+
+    /**
+     * Ferme les flux dont un envoi est bloqué depuis plus de {@code events.send-timeout-ms} :
+     * un client qui ne lit plus ne garde ni sa place ni, au-delà de l'interruption, un thread d'envoi.
+     */
+    @Scheduled(fixedDelayString = "${events.send-check-interval-ms:1000}")
+    public void closeStalledStreams() {
+        if (openConnections.get() == 0) {
+            return;
+        }
+        long deadline = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.abortIfStalled(deadline)));
+    }
+
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    private void notify(String userId, long seq) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers != null) {
+            userSubscribers.forEach(subscriber -> subscriber.announce(seq));
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        openConnections.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.userId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * Utilisateurs touchés par la transaction courante, avec le dernier numéro de séquence de chacun.
+     */
+    private final class PendingNotifications implements TransactionSynchronization {
+
+        private final Map<String, Long> seqs = new HashMap<>();
+
+        @Override
+        public void afterCommit() {
+            seqs.forEach(EventStreamService.this::notify);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(EventStreamService.this);
+        }
+    }
+
+    /**
+     * Un abonné et ce qu'il lui reste à recevoir : le dernier numéro de séquence annoncé et un
+     * éventuel heartbeat. Les envois sont faits par le pool {@code sse-sender}, au plus une tâche
+     * de vidage à la fois par abonné.
+     */
+    private final class Subscriber {
+
+        private final String userId;
+        private final SseEmitter emitter;
+        private final AtomicLong announcedSeq = new AtomicLong(-1);
+        private volatile long sentSeq = -1;
+        // Le premier envoi est l'événement connected, au dernier numéro annoncé
+        private volatile boolean connected;
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Envoi en cours : thread et début, pour la détection des clients bloqués
+        private volatile Thread sendingThread;
+        private volatile long sendStartedAt;
+        private volatile boolean stalled;
+
+        private Subscriber(String userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void announce(long seq) {
+            announcedSeq.accumulateAndGet(seq, Math::max);
+            scheduleDrain();
+        }
+
+        private void heartbeat() {
+            heartbeatDue.set(true);
+            scheduleDrain();
+        }
+
+        private boolean hasPending() {
+            return !connected || announcedSeq.get() > sentSeq || heartbeatDue.get();
+        }
+
+        private void scheduleDrain() {
+            if (!closed.get() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (!closed.get()) {
+                    long seq = announcedSeq.get();
+                    if (!connected) {
+                        send(SseEmitter.event().name("connected").id(Long.toString(seq))
+                                .data(Map.of("seq", seq), MediaType.APPLICATION_JSON).build());
+                        sentSeq = seq;
+                        connected = true;
+                    } else if (seq > sentSeq) {
+                        send(SseEmitter.event().name("change").id(Long.toString(seq))
+                                .data(Map.of("seq", seq), MediaType.APPLICATION_JSON).build());
+                        sentSeq = seq;
+                    } else if (heartbeatDue.getAndSet(false)) {
+                        send(SseEmitter.event().comment("heartbeat").build());
+                    } else {
+                        break;
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                draining.set(false);
+                if (stalled) {
+                    // Fermé par le contrôle des envois bloqués pendant cet envoi : l'émetteur est libéré ici
+                    Thread.interrupted();
+                    emitter.complete();
+                } else if (!closed.get() && hasPending()) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        private void send(Set<DataWithMediaType> data) throws IOException {
+            sendStartedAt = System.nanoTime();
+            sendingThread = Thread.currentThread();
+            try {
+                emitter.send(data);
+            } finally {
+                sendingThread = null;
+            }
+        }
+
+        private void abortIfStalled(long deadline) {
+            Thread thread = sendingThread;
+            if (thread == null || sendStartedAt - deadline > 0) {
+                return;
+            }
+            if (closed.compareAndSet(false, true)) {
+                logger.debug("Event stream of user {} stalled for {} ms, closing it", userId, sendTimeoutMs);
+                stalled = true;
+                remove(this);
+                // L'émetteur est verrouillé par l'envoi en cours : le thread d'envoi le complète en sortant
+                thread.interrupt();
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                remove(this);
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -14,17 +14,27 @@ import java.util.Date;
 @Service
 public class JwtService {
 
+    /** Claim de portée ; seuls les jetons du flux SSE en portent un. */
+    public static final String SCOPE_CLAIM = "scope";
+    public static final String EVENTS_SCOPE = "events";
+
     @Value("${jwt.secret}")
     private String jwtSecretString;
 
     @Value("${jwt.expiration.ms}")
     private long jwtExpirationMs;
 
+    @Value("${events.token-expiration-ms:60000}")
+    private long eventsTokenExpirationMs;
+
     private Key signingKey;
+    // Sans état une fois construit : partagé par toutes les vérifications
+    private JwtParser parser;
 
     @PostConstruct
     public void init() {
         this.signingKey = Keys.hmacShaKeyFor(jwtSecretString.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
     public String generateToken(String username) {
@@ -39,30 +49,86 @@ public class JwtService {
                 .compact();
     }
 
+    /**
+     * Jeton de courte durée réservé au flux {@code /api/events}, seul à accepter un jeton en paramètre
+     * d'URL : une URL journalisée ou conservée dans un historique n'expose pas le jeton de session.
+     */
+    public String generateEventsToken(String username) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + eventsTokenExpirationMs);
+
+        return Jwts.builder()
+                .setSubject(username)
+                .claim(SCOPE_CLAIM, EVENTS_SCOPE)
+                .setIssuedAt(now)
+                .setExpiration(expiryDate)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
+                .compact();
+    }
+
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+        return getClaims(token).getSubject();
+    }
+
+    public Claims getClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public boolean validateToken(String token) {
+        return checkToken(token) == TokenStatus.VALID;
+    }
+
+    /**
+     * Vérifie un jeton et renvoie la raison de son rejet, pour que l'appelant puisse la compter.
+     */
+    public TokenStatus checkToken(String token) {
+        return verify(token).status();
+    }
+
+    /**
+     * Vérifie un jeton en une seule analyse : le statut, et les claims quand il est valide.
+     * Le filtre d'authentification n'a ainsi pas à recalculer la signature pour lire le sujet.
+     */
+    public TokenCheck verify(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(signingKey).build().parseClaimsJws(token);
-            return true;
+            return new TokenCheck(TokenStatus.VALID, parser.parseClaimsJws(token).getBody());
         } catch (SignatureException ex) {
-            // Log error: Invalid JWT signature
+            return TokenCheck.rejected(TokenStatus.BAD_SIGNATURE);
         } catch (MalformedJwtException ex) {
-            // Log error: Invalid JWT token
+            return TokenCheck.rejected(TokenStatus.MALFORMED);
         } catch (ExpiredJwtException ex) {
-            // Log error: Expired JWT token
+            return TokenCheck.rejected(TokenStatus.EXPIRED);
         } catch (UnsupportedJwtException ex) {
-            // Log error: Unsupported JWT token
+            return TokenCheck.rejected(TokenStatus.UNSUPPORTED);
         } catch (IllegalArgumentException ex) {
-            // Log error: JWT claims string is empty
+            return TokenCheck.rejected(TokenStatus.EMPTY);
+        } catch (JwtException ex) {
+            // PrematureJwtException, SecurityException (clé), etc. : tout autre rejet est compté aussi
+            return TokenCheck.rejected(TokenStatus.INVALID);
         }
-        return false;
+    }
+
+    /**
+     * Statut d'un jeton et ses claims, {@code null} s'il est rejeté.
+     */
+    public record TokenCheck(TokenStatus status, Claims claims) {
+
+        static TokenCheck rejected(TokenStatus status) {
+            return new TokenCheck(status, null);
+        }
+    }
+
+    /**
+     * Résultat de la vérification d'un jeton.
+     */
+    public enum TokenStatus {
+        VALID,
+        EXPIRED,
+        BAD_SIGNATURE,
+        MALFORMED,
+        UNSUPPORTED,
+        EMPTY,
+        /** Tout autre rejet de la bibliothèque (jeton pas encore valide, erreur de clé, ...). */
+        INVALID
     }
 }
@@ -0,0 +1,115 @@
+package com.example.todo.service;
+
+import com.example.todo.model.ListMembership;
+import com.example.todo.model.ListPermission;
+import com.example.todo.repository.ListMembershipRepository;
+import com.example.todo.repository.TodoListRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index en mémoire des droits d'accès : pour chaque utilisateur, les listes qu'il possède
+ * ou qui lui sont partagées, avec le niveau d'accès correspondant.
+ * L'index d'un utilisateur est chargé à la première vérification puis répond en O(1) sans requête ;
+ * il est invalidé après le commit de toute modification de propriété ou de partage.
+ */
+@Component
+public class ListAccessIndex {
+
+    private final TodoListRepository todoListRepository;
+    private final ListMembershipRepository membershipRepository;
+    private final Map<String, Map<String, ListPermission>> index = new ConcurrentHashMap<>();
+    // Incrémenté à chaque invalidation : un chargement concurrent à une invalidation n'est pas conservé
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${access-index.max-users:100000}")
+    private int maxUsers;
+
+    public ListAccessIndex(TodoListRepository todoListRepository, ListMembershipRepository membershipRepository) {
+        this.todoListRepository = todoListRepository;
+        this.membershipRepository = membershipRepository;
+    }
+
+    /**
+     * Retourne le niveau d'accès d'un utilisateur à une liste.
+     *
+     * @param userId l'ID de l'utilisateur
+     * @param listId l'ID de la liste
+     * @return le niveau d'accès, ou null si l'utilisateur n'a pas accès à la liste
+     */
+    public ListPermission getPermission(String userId, String listId) {
+        if (userId == null || listId == null) {
+            return null;
+        }
+        Map<String, ListPermission> entries = index.get(userId);
+        if (entries != null && entries.containsKey(listId)) {
+            return entries.get(listId);
+        }
+        // Absent de l'index (ou index non chargé) : on recharge une fois avant de refuser,
+        // pour couvrir les listes créées hors des services. Seuls les refus coûtent une requête.
+        return reload(userId).get(listId);
+    }
+
+    /**
+     * Indique si un utilisateur dispose au moins du niveau d'accès demandé sur une liste.
+     */
+    public boolean hasPermission(String userId, String listId, ListPermission required) {
+        ListPermission permission = getPermission(userId, listId);
+        return permission != null && permission.allows(required);
+    }
+
+    /**
+     * Invalide l'index des utilisateurs donnés, immédiatement puis après le commit de la
+     * transaction courante (pour ne pas conserver un état lu avant le commit).
+     */
+    public void invalidate(Collection<String> userIds) {
+        evict(userIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(userIds);
+                }
+            });
+        }
+    }
+
+    private void evict(Collection<String> userIds) {
+        generation.incrementAndGet();
+        userIds.forEach(index::remove);
+    }
+
+    private Map<String, ListPermission> reload(String userId) {
+        long loadGeneration = generation.get();
+        Map<String, ListPermission> entries = load(userId);
+        if (generation.get() == loadGeneration) {
+            if (index.size() >= maxUsers) {
+                // Borne grossière : on repart d'un index vide plutôt que de croître sans limite
+                index.clear();
+            }
+            index.put(userId, entries);
+        }
+        return entries;
+    }
+
+    private Map<String, ListPermission> load(String userId) {
+        Map<String, ListPermission> entries = new HashMap<>();
+        List<ListMembership> memberships = membershipRepository.findByUserId(userId);
+        for (ListMembership membership : memberships) {
+            entries.put(membership.getListId(), membership.getPermission());
+        }
+        for (String listId : todoListRepository.findIdsByUserId(userId)) {
+            entries.put(listId, ListPermission.OWNER);
+        }
+        return Map.copyOf(entries);
+    }
+}
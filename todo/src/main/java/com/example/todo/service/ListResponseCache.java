@@ -0,0 +1,160 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.ChangeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache des réponses de {@code GET /api/lists} déjà sérialisées, par utilisateur et par format.
+ * Un succès renvoie directement les octets, sans base de données ni Jackson.
+ * <p>
+ * Chaque utilisateur a une version, relevée après la validation de toute transaction qui modifie
+ * une de ses listes (événements {@link ChangeEvent} du journal de modifications, donc toutes les
+ * méthodes d'écriture de {@link TodoListService} et {@link TaskService}). Une entrée n'est servie que
+ * si elle a été calculée à la version courante : une lecture commencée avant une écriture ne peut
+ * pas remettre en cache un état dépassé.
+ * <p>
+ * Les chargements concurrents d'une même réponse sont regroupés par {@link SingleFlight}. La clé
+ * inclut la version : un appel arrivé après une écriture validée ne rejoint jamais un chargement
+ * commencé avant elle.
+ */
+@Component
+public class ListResponseCache implements MeterBinder {
+
+    private final Map<MediaType, ObjectMapper> mappers = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final SingleFlight<Flight, byte[]> singleFlight = new SingleFlight<>();
+    private Cache<String, Long> versions;
+    private Cache<Key, Entry> responses;
+
+    @Value("${lists-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${lists-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${lists-cache.max-users:100000}")
+    private long maxUsers;
+
+    public ListResponseCache(List<AbstractJackson2HttpMessageConverter> converters) {
+        for (AbstractJackson2HttpMessageConverter converter : converters) {
+            for (MediaType mediaType : converter.getSupportedMediaTypes()) {
+                mappers.putIfAbsent(mediaType, converter.getObjectMapper());
+            }
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        responses = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Entry entry) -> entry.bytes().length + 64)
+                .recordStats()
+                .build();
+        // Une version oubliée est recréée depuis la séquence globale, donc toujours nouvelle :
+        // les réponses de l'ancienne version ne peuvent plus être servies et finissent évincées
+        versions = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    /**
+     * Renvoie la réponse sérialisée des listes de l'utilisateur dans le format demandé, depuis le cache
+     * ou à partir du document JSON chargé par {@code jsonLoader} ({@link DashboardService}) : renvoyé
+     * tel quel en JSON, transcodé sans entités pour CBOR et Smile.
+     */
+    public byte[] getDocument(String userId, MediaType mediaType, Supplier<byte[]> jsonLoader) {
+        return get(userId, mediaType, mapper -> {
+            byte[] json = jsonLoader.get();
+            return MediaType.APPLICATION_JSON.equals(mediaType) ? json : transcode(mapper, json);
+        });
+    }
+
+    private byte[] get(String userId, MediaType mediaType, Function<ObjectMapper, byte[]> renderer) {
+        ObjectMapper mapper = mapperFor(mediaType);
+        Key key = new Key(userId, mediaType);
+        long version = currentVersion(userId);
+        if (enabled) {
+            Entry cached = responses.getIfPresent(key);
+            if (cached != null && cached.version() == version) {
+                return cached.bytes();
+            }
+        }
+        return singleFlight.execute(new Flight(key, version), () -> {
+            byte[] bytes = renderer.apply(mapper);
+            // Une écriture validée pendant le chargement a relevé la version : le résultat n'est pas mis en cache
+            if (enabled && currentVersion(userId) == version) {
+                responses.put(key, new Entry(version, bytes));
+            }
+            return bytes;
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onChange(ChangeEvent event) {
+        versions.put(event.getUserId(), sequence.incrementAndGet());
+    }
+
+    private long currentVersion(String userId) {
+        return versions.get(userId, id -> sequence.incrementAndGet());
+    }
+
+    private ObjectMapper mapperFor(MediaType mediaType) {
+        ObjectMapper mapper = mappers.get(mediaType);
+        if (mapper == null) {
+            throw new IllegalArgumentException("Unsupported media type: " + mediaType);
+        }
+        return mapper;
+    }
+
+    private byte[] transcode(ObjectMapper mapper, byte[] json) {
+        try {
+            return mapper.writeValueAsBytes(mapperFor(MediaType.APPLICATION_JSON).readTree(json));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not transcode todo lists document", e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, responses, "lists.response");
+        Gauge.builder("lists.response.cache.bytes", responses,
+                        cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+                .description("Approximate memory held by cached list responses")
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("lists.response.coalesced", singleFlight, SingleFlight::getCoalesced)
+                .description("Reads that shared another caller's in-flight load")
+                .register(registry);
+    }
+
+    private record Key(String userId, MediaType mediaType) {
+    }
+
+    private record Entry(long version, byte[] bytes) {
+    }
+
+    private record Flight(Key key, long version) {
+    }
+}
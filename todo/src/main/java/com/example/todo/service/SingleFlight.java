@@ -0,0 +1,64 @@
+package com.example.todo.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Regroupe les lectures identiques concurrentes : tant qu'un chargement est en cours pour une clé,
+ * les autres appelants de cette clé attendent son résultat au lieu d'en lancer un nouveau.
+ * Une erreur est transmise telle quelle à tous les appelants en attente. Rien n'est conservé
+ * après la fin du chargement : ce n'est pas un cache.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return await(existing);
+        }
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Nombre d'appels servis par le chargement d'un autre appelant.
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+}
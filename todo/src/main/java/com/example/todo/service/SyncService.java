@@ -0,0 +1,112 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.SyncResponse;
+import com.example.todo.model.ChangeEntityType;
+import com.example.todo.model.ChangeLogEntry;
+import com.example.todo.model.ChangeOperation;
+import com.example.todo.model.Task;
+import com.example.todo.model.TodoList;
+import com.example.todo.model.UserSyncState;
+import com.example.todo.repository.ChangeLogRepository;
+import com.example.todo.repository.TaskRepository;
+import com.example.todo.repository.TodoListRepository;
+import com.example.todo.repository.UserSyncStateRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Construit les réponses de synchronisation incrémentale à partir du journal des changements.
+ */
+@Service
+public class SyncService {
+
+    private final ChangeLogRepository changeLogRepository;
+    private final UserSyncStateRepository syncStateRepository;
+    private final TodoListRepository todoListRepository;
+    private final TaskRepository taskRepository;
+
+    public SyncService(ChangeLogRepository changeLogRepository, UserSyncStateRepository syncStateRepository,
+                       TodoListRepository todoListRepository, TaskRepository taskRepository) {
+        this.changeLogRepository = changeLogRepository;
+        this.syncStateRepository = syncStateRepository;
+        this.todoListRepository = todoListRepository;
+        this.taskRepository = taskRepository;
+    }
+
+    /**
+     * Retourne les changements d'un utilisateur postérieurs à un numéro de séquence.
+     * Si le curseur est inconnu, nul ou antérieur à la borne de compaction, un instantané
+     * complet des listes est renvoyé à la place.
+     *
+     * @param userId l'ID de l'utilisateur
+     * @param since le dernier numéro de séquence connu du client
+     * @param limit le nombre maximal d'entrées du journal à parcourir
+     * @return les upserts et suppressions depuis {@code since}
+     */
+    @Transactional(readOnly = true)
+    public SyncResponse getChangesSince(String userId, long since, int limit) {
+        // Le curseur est lu avant les données : un changement concurrent sera au pire rejoué
+        UserSyncState state = syncStateRepository.findById(userId).orElse(new UserSyncState(userId));
+        long current = state.getLastSeq();
+
+        if (since <= 0 || since < state.getCompactedSeq() || since > current) {
+            return SyncResponse.snapshot(current, todoListRepository.findAccessibleByUserId(userId));
+        }
+
+        List<ChangeLogEntry> entries = changeLogRepository
+                .findByUserIdAndSeqGreaterThanOrderBySeqAsc(userId, since, PageRequest.of(0, limit));
+        SyncResponse response = new SyncResponse(false);
+        if (entries.isEmpty()) {
+            response.setSeq(since);
+            return response;
+        }
+        long last = entries.get(entries.size() - 1).getSeq();
+        response.setSeq(last);
+        response.setHasMore(last < current);
+
+        // Seule la dernière opération de chaque entité compte
+        Map<String, ChangeLogEntry> latest = new LinkedHashMap<>();
+        for (ChangeLogEntry entry : entries) {
+            latest.remove(entry.getEntityId());
+            latest.put(entry.getEntityId(), entry);
+        }
+
+        Set<String> deletedLists = new HashSet<>();
+        List<String> listIds = new ArrayList<>();
+        List<String> taskIds = new ArrayList<>();
+        for (ChangeLogEntry entry : latest.values()) {
+            boolean isList = entry.getEntityType() == ChangeEntityType.LIST;
+            if (entry.getOperation() == ChangeOperation.DELETE) {
+                if (isList) {
+                    deletedLists.add(entry.getEntityId());
+                    response.getDeletedLists().add(entry.getEntityId());
+                } else {
+                    response.getDeletedTasks().add(entry.getEntityId());
+                }
+            } else if (isList) {
+                listIds.add(entry.getEntityId());
+            } else {
+                taskIds.add(entry.getEntityId());
+            }
+        }
+
+        for (TodoList list : todoListRepository.findAllById(listIds)) {
+            response.getLists().add(new SyncResponse.ListChange(list));
+        }
+        for (Task task : taskRepository.findAllById(taskIds)) {
+            String listId = task.getTodoList().getId();
+            if (!deletedLists.contains(listId)) {
+                response.getTasks().add(new SyncResponse.TaskChange(listId, task));
+            }
+        }
+        return response;
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.todo.service;
 
+import com.example.todo.datasource.Workload;
+import com.example.todo.datasource.WorkloadType;
+import com.example.todo.model.ChangeOperation;
 import com.example.todo.model.Task;
 import com.example.todo.model.TodoList;
 import com.example.todo.repository.TaskRepository;
@@ -11,28 +14,18 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Service
+@Workload(WorkloadType.INTERACTIVE)
 public class TaskService {
 
     private final TaskRepository taskRepository;
     private final TodoListRepository todoListRepository;
+    private final ChangeLogService changeLogService;
 
-    public TaskService(TaskRepository taskRepository, TodoListRepository todoListRepository) {
+    public TaskService(TaskRepository taskRepository, TodoListRepository todoListRepository,
+                       ChangeLogService changeLogService) {
         this.taskRepository = taskRepository;
         this.todoListRepository = todoListRepository;
-    }
-
-    /**
-     * Vérifie si un utilisateur a accès à une tâche.
-     *
-     * @param taskId l'ID de la tâche
-     * @param userId l'ID de l'utilisateur
-     * @return true si l'utilisateur a accès à la tâche
-     * @throws IllegalArgumentException si la tâche n'existe pas
-     */
-    public boolean hasAccessToTask(String taskId, String userId) {
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new IllegalArgumentException("Task not found with ID: " + taskId));
-        return task.getTodoList().getUserId().equals(userId);
+        this.changeLogService = changeLogService;
     }
 
     /**
@@ -48,12 +41,13 @@ public class TaskService {
                 .orElseThrow(() -> new IllegalArgumentException("TodoList not found with ID: " + listId));
 
         task.setCreatedAt(LocalDateTime.now());
-        task.setTodoList(todoList);
+        // addTask pose les deux côtés de l'association avant la persistance : l'appeler après un
+        // setTodoList ajouterait la tâche deux fois à la liste quand la gestion des associations est active
+        todoList.addTask(task);
         Task savedTask = taskRepository.save(task);
-        
-        todoList.addTask(savedTask);
         todoListRepository.save(todoList);
-        
+        changeLogService.recordTask(savedTask, ChangeOperation.UPSERT);
+
         return savedTask;
     }
 
@@ -77,7 +71,9 @@ public class TaskService {
         existingTask.setText(updatedTask.getText());
         existingTask.setDone(updatedTask.isDone());
 
-        return taskRepository.save(existingTask);
+        Task savedTask = taskRepository.save(existingTask);
+        changeLogService.recordTask(savedTask, ChangeOperation.UPSERT);
+        return savedTask;
     }
 
     /**
@@ -93,7 +89,9 @@ public class TaskService {
                 .orElseThrow(() -> new IllegalArgumentException("Task not found with ID: " + taskId));
         
         task.setDone(done);
-        return taskRepository.save(task);
+        Task savedTask = taskRepository.save(task);
+        changeLogService.recordTask(savedTask, ChangeOperation.UPSERT);
+        return savedTask;
     }
 
     /**
@@ -106,6 +104,9 @@ public class TaskService {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new IllegalArgumentException("Task not found with ID: " + taskId));
 
+        // Le journal a besoin de la liste parente : on enregistre avant de détacher la tâche
+        changeLogService.recordTask(task, ChangeOperation.DELETE);
+
         TodoList todoList = task.getTodoList();
         todoList.removeTask(task);
         todoListRepository.save(todoList);
@@ -0,0 +1,237 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.TaskState;
+import com.example.todo.model.ChangeOperation;
+import com.example.todo.model.Task;
+import com.example.todo.model.TodoList;
+import com.example.todo.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Écriture différée des changements d'état des tâches (opt-in, {@code tasks.toggle-buffer.enabled}).
+ * <p>
+ * Au lieu d'une transaction par {@code PATCH /toggle}, chaque appel dépose l'état voulu dans un tampon
+ * indexé par tâche : plusieurs clics sur la même case se réduisent au dernier état. Le tampon est vidé
+ * toutes les {@code flush-interval-ms} millisecondes, ou dès {@code max-batch} tâches en attente, en une
+ * seule transaction : un {@code UPDATE} en lot JDBC puis une entrée de journal par tâche.
+ * <p>
+ * Validation groupée : l'appelant attend la validation de la transaction qui contient son changement,
+ * la réponse n'est donc envoyée qu'une fois l'état durable. Chaque appelant reçoit la tâche dans l'état
+ * qu'il a demandé, même si un appel plus récent l'a remplacé dans le même lot.
+ */
+@Component
+public class TaskToggleBuffer implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskToggleBuffer.class);
+
+    private final TaskRepository taskRepository;
+    private final ChangeLogService changeLogService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Object lock = new Object();
+    private Map<String, Pending> pending = new LinkedHashMap<>();
+    private boolean flushRequested;
+    private boolean batchFlushRequested;
+    private ScheduledExecutorService flusher;
+    private Counter toggles;
+    private Counter flushes;
+    private DistributionSummary batchSizes;
+
+    @Value("${tasks.toggle-buffer.enabled:false}")
+    private boolean enabled;
+
+    @Value("${tasks.toggle-buffer.flush-interval-ms:5}")
+    private long flushIntervalMs;
+
+    @Value("${tasks.toggle-buffer.max-batch:256}")
+    private int maxBatch;
+
+    @Value("${tasks.toggle-buffer.timeout-ms:5000}")
+    private long timeoutMs;
+
+    public TaskToggleBuffer(TaskRepository taskRepository, ChangeLogService changeLogService,
+                            JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.taskRepository = taskRepository;
+        this.changeLogService = changeLogService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "task-toggle-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (flusher != null) {
+            // Ce qui reste est écrit avant l'arrêt, par le thread d'écriture : jamais en même temps qu'un autre vidage
+            flusher.execute(this::flush);
+            flusher.shutdown();
+            if (!flusher.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+                logger.warn("Toggle buffer still flushing after {} ms, shutting down anyway", timeoutMs);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        toggles = Counter.builder("tasks.toggle.buffered")
+                .description("Task toggles submitted to the write-behind buffer")
+                .register(registry);
+        flushes = Counter.builder("tasks.toggle.flushes")
+                .description("Write transactions committed by the toggle buffer")
+                .register(registry);
+        batchSizes = DistributionSummary.builder("tasks.toggle.batch.size")
+                .description("Distinct tasks written per toggle buffer transaction")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Change l'état d'une tâche et attend que la transaction qui l'écrit soit validée.
+     *
+     * @return la tâche dans l'état demandé, ou vide si la transaction n'est pas validée dans le délai :
+     * le changement reste alors en attente et sera écrit, ou journalisé en erreur
+     * @throws IllegalArgumentException si la tâche n'existe pas
+     */
+    public Optional<TaskState> toggle(String taskId, boolean done) {
+        CompletableFuture<TaskState> result = new CompletableFuture<>();
+        synchronized (lock) {
+            pending.computeIfAbsent(taskId, id -> new Pending()).set(done, result);
+            if (!flushRequested) {
+                flushRequested = true;
+                flusher.schedule(this::flush, flushIntervalMs, TimeUnit.MILLISECONDS);
+            }
+            if (pending.size() >= maxBatch && !batchFlushRequested) {
+                batchFlushRequested = true;
+                flusher.execute(this::flush);
+            }
+        }
+        if (toggles != null) {
+            toggles.increment();
+        }
+        try {
+            return Optional.of(result.get(timeoutMs, TimeUnit.MILLISECONDS));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            logger.debug("Task toggle {} not written within {} ms, still pending", taskId, timeoutMs);
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Écrit tout le contenu du tampon en une transaction, puis libère les appelants.
+     */
+    void flush() {
+        Map<String, Pending> batch;
+        synchronized (lock) {
+            flushRequested = false;
+            batchFlushRequested = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+
+        Map<String, Task> written;
+        try {
+            written = transactionTemplate.execute(status -> write(batch));
+        } catch (RuntimeException e) {
+            logger.error("Failed to write {} buffered task toggles", batch.size(), e);
+            batch.values().forEach(p -> p.waiters.forEach(waiter -> waiter.future.completeExceptionally(e)));
+            return;
+        }
+        if (flushes != null) {
+            flushes.increment();
+            batchSizes.record(batch.size());
+        }
+
+        batch.forEach((taskId, p) -> {
+            Task task = written.get(taskId);
+            for (Waiter waiter : p.waiters) {
+                if (task == null) {
+                    waiter.future.completeExceptionally(new IllegalArgumentException("Task not found with ID: " + taskId));
+                } else {
+                    // Remplacé par un appel plus récent du même lot, l'appelant reçoit quand même l'état qu'il a demandé
+                    waiter.future.complete(new TaskState(task, waiter.done));
+                }
+            }
+        });
+    }
+
+    private Map<String, Task> write(Map<String, Pending> batch) {
+        // Comme une écriture ordinaire : les verrous du journal d'abord, puis les lignes des tâches.
+        // Tous les destinataires du lot sont verrouillés ensemble et triés, pas liste par liste,
+        // sans quoi le lot peut s'interbloquer avec une écriture sur une liste partagée ou avec la compaction
+        changeLogService.lockAudiences(taskRepository.findListsByTaskIdIn(batch.keySet()));
+
+        List<Object[]> arguments = new ArrayList<>(batch.size());
+        batch.forEach((taskId, p) -> arguments.add(new Object[]{p.done, taskId}));
+        jdbcTemplate.batchUpdate("update task set done = ? where id = ?", arguments);
+
+        // Relues après l'UPDATE : les tâches supprimées entre-temps n'y figurent pas
+        List<Task> tasks = taskRepository.findAllWithListByIdIn(batch.keySet());
+        Map<TodoList, List<Task>> byList = tasks.stream()
+                .collect(Collectors.groupingBy(Task::getTodoList, LinkedHashMap::new, Collectors.toList()));
+        byList.forEach((list, listTasks) -> changeLogService.recordTasks(list, listTasks, ChangeOperation.UPSERT));
+        return tasks.stream().collect(Collectors.toMap(Task::getId, task -> task));
+    }
+
+    // Dernier état demandé pour une tâche et appelants qui attendent son écriture
+    private static final class Pending {
+        private boolean done;
+        private final List<Waiter> waiters = new ArrayList<>(1);
+
+        private void set(boolean done, CompletableFuture<TaskState> future) {
+            this.done = done;
+            waiters.add(new Waiter(done, future));
+        }
+    }
+
+    // Un appelant et l'état qu'il a demandé
+    private record Waiter(boolean done, CompletableFuture<TaskState> future) {
+    }
+}
@@ -1,16 +1,26 @@
 package com.example.todo.service;
 
+import com.example.todo.datasource.Workload;
+import com.example.todo.datasource.WorkloadType;
+import com.example.todo.model.ChangeOperation;
+import com.example.todo.model.ListMembership;
+import com.example.todo.model.ListPermission;
 import com.example.todo.model.Task;
 import com.example.todo.model.TodoList;
+import com.example.todo.repository.ListMembershipRepository;
 import com.example.todo.repository.TodoListRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -19,22 +29,30 @@ import java.util.stream.Collectors;
  * Provides methods to create, retrieve, update, and delete Todo Lists.
  */
 @Service
+@Workload(WorkloadType.INTERACTIVE)
 public class TodoListService {
 
     private final TodoListRepository todoListRepository;
+    private final ListMembershipRepository membershipRepository;
+    private final ChangeLogService changeLogService;
+    private final ListAccessIndex accessIndex;
 
-    public TodoListService(TodoListRepository todoListRepository) {
+    public TodoListService(TodoListRepository todoListRepository, ListMembershipRepository membershipRepository,
+                           ChangeLogService changeLogService, ListAccessIndex accessIndex) {
         this.todoListRepository = todoListRepository;
+        this.membershipRepository = membershipRepository;
+        this.changeLogService = changeLogService;
+        this.accessIndex = accessIndex;
     }
 
     /**
-     * Retrieves all Todo Lists for a specific user.
+     * Retrieves all Todo Lists for a specific user, owned or shared with them.
      *
      * @param userId The ID of the user
-     * @return List of all Todo Lists for the user.
+     * @return List of all Todo Lists the user can access.
      */
     public List<TodoList> getAllTodoListsByUserId(String userId) {
-        return todoListRepository.findByUserId(userId);
+        return todoListRepository.findAccessibleByUserId(userId);
     }
 
     /**
@@ -69,7 +87,11 @@ public class TodoListService {
             task.setTodoList(todoList); // Set the bidirectional relationship
         }
 
-        return todoListRepository.save(todoList);
+        TodoList savedList = todoListRepository.save(todoList);
+        changeLogService.recordList(savedList, ChangeOperation.UPSERT);
+        changeLogService.recordTasks(savedList, savedList.getTasks(), ChangeOperation.UPSERT);
+        accessIndex.invalidate(List.of(savedList.getUserId()));
+        return savedList;
     }
 
     /**
@@ -79,17 +101,27 @@ public class TodoListService {
      */
     @Transactional
     public void deleteTodoList(String id) {
-        todoListRepository.deleteById(id);
+        todoListRepository.findById(id).ifPresent(list -> {
+            changeLogService.recordList(list, ChangeOperation.DELETE);
+            List<String> affectedUsers = new ArrayList<>();
+            affectedUsers.add(list.getUserId());
+            membershipRepository.findByListId(id).forEach(m -> affectedUsers.add(m.getUserId()));
+            membershipRepository.deleteByListId(id);
+            todoListRepository.delete(list);
+            accessIndex.invalidate(affectedUsers);
+        });
     }
 
     /**
      * Updates an existing Todo List.
+     * Replaces the whole task collection, so it runs on the bulk connection pool.
      *
      * @param listId The ID of the Todo List to update.
      * @param updatedList The Todo List with updated information.
      * @return The updated Todo List.
      */
     @Transactional
+    @Workload(WorkloadType.BULK)
     public TodoList updateTodoList(String listId, TodoList updatedList) {
         TodoList existingList = todoListRepository.findById(listId)
                 .orElseThrow(() -> new IllegalArgumentException("Todo List not found with ID: " + listId));
@@ -97,17 +129,48 @@ public class TodoListService {
         // Update basic properties
         existingList.setTitle(updatedList.getTitle());
 
+        Set<String> existingIds = existingList.getTasks().stream()
+                .map(Task::getId)
+                .collect(Collectors.toCollection(HashSet::new));
+        Set<String> changedTaskIds = new HashSet<>();
+        Collection<Task> removedTasks = mergeTasks(existingList, updatedList.getTasks(), changedTaskIds);
+
+        // Removed tasks are deleted by orphan removal
+        changeLogService.recordTasks(existingList, removedTasks, ChangeOperation.DELETE);
+
+        TodoList savedList = todoListRepository.save(existingList);
+        changeLogService.recordList(savedList, ChangeOperation.UPSERT);
+        // New tasks only get their ID on save, so they are recorded afterwards
+        List<Task> upsertedTasks = savedList.getTasks().stream()
+                .filter(task -> changedTaskIds.contains(task.getId()) || !existingIds.contains(task.getId()))
+                .collect(Collectors.toList());
+        changeLogService.recordTasks(savedList, upsertedTasks, ChangeOperation.UPSERT);
+        return savedList;
+    }
+
+    /**
+     * Merge the incoming tasks into an existing list: tasks with a known ID are updated in place,
+     * the others are created, and the list's task collection is replaced by the result.
+     *
+     * @param existingList   The managed list to update
+     * @param incoming       The tasks sent by the client
+     * @param changedTaskIds Receives the IDs of existing tasks whose text or status changed
+     * @return The existing tasks missing from the update, which orphan removal will delete
+     */
+    static Collection<Task> mergeTasks(TodoList existingList, List<Task> incoming, Set<String> changedTaskIds) {
         // Create a map of existing tasks by ID for efficient lookup
         Map<String, Task> existingTasksMap = existingList.getTasks().stream()
                 .collect(Collectors.toMap(Task::getId, Function.identity()));
 
-        // Process updated tasks
-        List<Task> updatedTasks = new ArrayList<>();
-        for (Task updatedTask : updatedList.getTasks()) {
+        List<Task> updatedTasks = new ArrayList<>(incoming.size());
+        for (Task updatedTask : incoming) {
             Task task;
             if (updatedTask.getId() != null && existingTasksMap.containsKey(updatedTask.getId())) {
                 // Update existing task
-                task = existingTasksMap.get(updatedTask.getId());
+                task = existingTasksMap.remove(updatedTask.getId());
+                if (task.isDone() != updatedTask.isDone() || !Objects.equals(task.getText(), updatedTask.getText())) {
+                    changedTaskIds.add(task.getId());
+                }
                 task.setText(updatedTask.getText());
                 task.setDone(updatedTask.isDone());
             } else {
@@ -117,14 +180,70 @@ public class TodoListService {
                 task.setDone(updatedTask.isDone());
                 task.setCreatedAt(LocalDateTime.now());
             }
-            task.setTodoList(existingList);
             updatedTasks.add(task);
         }
 
         // Update the list's tasks
         existingList.setTasks(updatedTasks);
+        return existingTasksMap.values();
+    }
 
-        return todoListRepository.save(existingList);
+    /**
+     * Retrieves the users a Todo List is shared with.
+     *
+     * @param listId The ID of the Todo List.
+     * @return The memberships of the list (the owner is not included).
+     */
+    public List<ListMembership> getMembers(String listId) {
+        return membershipRepository.findByListId(listId);
     }
-}
 
+    /**
+     * Shares a Todo List with a user, or changes the permission of an existing share.
+     *
+     * @param listId The ID of the Todo List to share.
+     * @param userId The ID of the user to share it with.
+     * @param permission READ or WRITE.
+     * @return The membership.
+     */
+    @Transactional
+    public ListMembership shareTodoList(String listId, String userId, ListPermission permission) {
+        if (permission == null || permission == ListPermission.OWNER) {
+            throw new IllegalArgumentException("Permission must be READ or WRITE");
+        }
+        TodoList list = todoListRepository.findById(listId)
+                .orElseThrow(() -> new IllegalArgumentException("Todo List not found with ID: " + listId));
+        if (userId.equals(list.getUserId())) {
+            throw new IllegalArgumentException("A list cannot be shared with its owner");
+        }
+
+        ListMembership membership = membershipRepository.findByListIdAndUserId(listId, userId).orElse(null);
+        if (membership == null) {
+            membership = membershipRepository.save(new ListMembership(listId, userId, permission));
+            // The list appears in the new member's sync stream
+            changeLogService.recordListFor(userId, list, ChangeOperation.UPSERT);
+        } else {
+            membership.setPermission(permission);
+        }
+        accessIndex.invalidate(List.of(userId));
+        return membership;
+    }
+
+    /**
+     * Revokes a user's access to a shared Todo List.
+     *
+     * @param listId The ID of the Todo List.
+     * @param userId The ID of the member to remove.
+     */
+    @Transactional
+    public void unshareTodoList(String listId, String userId) {
+        ListMembership membership = membershipRepository.findByListIdAndUserId(listId, userId)
+                .orElseThrow(() -> new IllegalArgumentException("List " + listId + " is not shared with user " + userId));
+        TodoList list = todoListRepository.findById(listId)
+                .orElseThrow(() -> new IllegalArgumentException("Todo List not found with ID: " + listId));
+
+        membershipRepository.delete(membership);
+        changeLogService.recordListFor(userId, list, ChangeOperation.DELETE);
+        accessIndex.invalidate(List.of(userId));
+    }
+}
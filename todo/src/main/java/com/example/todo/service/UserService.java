@@ -1,7 +1,13 @@
 package com.example.todo.service;
 
+import com.example.todo.datasource.Workload;
+import com.example.todo.datasource.WorkloadType;
 import com.example.todo.model.User;
 import com.example.todo.repository.UserRepository;
+import com.example.todo.security.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -9,14 +15,20 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 @Service
+@Workload(WorkloadType.AUTH)
 public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
 
+    // Comptes qui reçoivent ROLE_ADMIN, seul rôle admis sur /actuator/backups ; aucun par défaut
+    @Value("${security.admin-emails:}")
+    private List<String> adminEmails = List.of();
+
     public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
@@ -29,13 +41,19 @@ public class UserService implements UserDetailsService {
             throw new UsernameNotFoundException("User not found with email: " + username);
         }
         User user = userOptional.get();
-        return new org.springframework.security.core.userdetails.User(
+        return new AuthenticatedUser(
+                user.getId(),
                 user.getEmail(),
                 user.getPassword(),
-                Collections.emptyList()
+                authoritiesOf(user)
         );
     }
 
+    private List<GrantedAuthority> authoritiesOf(User user) {
+        boolean admin = adminEmails.stream().anyMatch(email -> email.trim().equalsIgnoreCase(user.getEmail()));
+        return admin ? List.of(new SimpleGrantedAuthority("ROLE_ADMIN")) : Collections.emptyList();
+    }
+
     public User registerUser(User user) {
         if (userRepository.findByEmail(user.getEmail()).isPresent()) {
             throw new IllegalStateException("User already exists with email: " + user.getEmail());
@@ -0,0 +1,140 @@
+package com.example.todo.controller;
+
+import com.example.todo.model.Task;
+import com.example.todo.model.TodoList;
+import com.example.todo.model.User;
+import com.example.todo.repository.TodoListRepository;
+import com.example.todo.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "attachments.dir=build/test-attachments",
+        "attachments.max-file-bytes=1024"
+})
+@AutoConfigureMockMvc
+@Transactional
+class AttachmentControllerIntegrationTest {
+
+    private static final String OWNER_EMAIL = "attachments@example.com";
+    private static final String OTHER_EMAIL = "attachments-other@example.com";
+    private static final byte[] CONTENT = "0123456789abcdefghij".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TodoListRepository todoListRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String attachmentsPath;
+
+    private User createUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setName("Test User");
+        user.setPassword("password");
+        return userRepository.save(user);
+    }
+
+    @BeforeEach
+    void setUp() {
+        User owner = createUser(OWNER_EMAIL);
+        createUser(OTHER_EMAIL);
+        TodoList list = new TodoList();
+        list.setTitle("Attachment List");
+        list.setUserId(owner.getId());
+        Task task = new Task();
+        task.setText("Task with files");
+        list.addTask(task);
+        list = todoListRepository.save(list);
+        attachmentsPath = "/api/lists/" + list.getId() + "/tasks/" + list.getTasks().get(0).getId() + "/attachments";
+    }
+
+    private JsonNode upload(byte[] content) throws Exception {
+        String body = mockMvc.perform(post(attachmentsPath).param("name", "notes.txt")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content(content))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    @Test
+    @WithMockUser(username = OWNER_EMAIL)
+    void uploadAttachment_storesContentUnderItsHash() throws Exception {
+        JsonNode first = upload(CONTENT);
+        JsonNode second = upload(CONTENT);
+
+        mockMvc.perform(get(attachmentsPath))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string("X-Attachment-Quota-Used", String.valueOf(2 * CONTENT.length)));
+        assertEquals(first.get("sha256"), second.get("sha256"));
+    }
+
+    @Test
+    @WithMockUser(username = OWNER_EMAIL)
+    void downloadAttachment_supportsEtagAndRanges() throws Exception {
+        JsonNode attachment = upload(CONTENT);
+        String contentPath = attachmentsPath + "/" + attachment.get("id").asText() + "/content";
+        String etag = "\"" + attachment.get("sha256").asText() + "\"";
+
+        mockMvc.perform(get(contentPath))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(CONTENT));
+
+        mockMvc.perform(get(contentPath).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get(contentPath).header(HttpHeaders.RANGE, "bytes=10-14"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-14/20"))
+                .andExpect(content().string("abcde"));
+
+        mockMvc.perform(get(contentPath).header(HttpHeaders.RANGE, "bytes=100-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */20"));
+    }
+
+    @Test
+    @WithMockUser(username = OWNER_EMAIL)
+    void uploadAttachment_overMaxFileSize_returnsPayloadTooLarge() throws Exception {
+        mockMvc.perform(post(attachmentsPath).param("name", "big.bin")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(new byte[2048]))
+                .andExpect(status().isPayloadTooLarge());
+    }
+
+    @Test
+    @WithMockUser(username = OTHER_EMAIL)
+    void uploadAttachment_asOtherUser_returnsForbidden() throws Exception {
+        mockMvc.perform(post(attachmentsPath).param("name", "notes.txt")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content(CONTENT))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.todo.controller;
+
+import com.example.todo.dto.ChangeEvent;
+import com.example.todo.model.ChangeEntityType;
+import com.example.todo.model.ChangeLogEntry;
+import com.example.todo.model.ChangeOperation;
+import com.example.todo.model.User;
+import com.example.todo.repository.UserRepository;
+import com.example.todo.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Pas de @Transactional : les annonces ne partent qu'au commit
+@SpringBootTest(properties = "events.max-connections-per-user=1")
+@AutoConfigureMockMvc
+class EventStreamControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final String email = "events-" + UUID.randomUUID() + "@example.com";
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail(email);
+        user.setName("Events User");
+        user.setPassword("password");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.delete(user);
+    }
+
+    @Test
+    void streamEvents_oneChangeEventPerCommit() throws Exception {
+        MvcResult stream = openStream();
+        awaitContent(stream, "event:connected");
+
+        commit(5, 6, 7);
+        String content = awaitContent(stream, "id:7");
+        assertEquals(1, count(content, "event:change"));
+        assertFalse(content.contains("id:5") || content.contains("id:6"));
+
+        commit(8);
+        content = awaitContent(stream, "id:8");
+        assertEquals(2, count(content, "event:change"));
+    }
+
+    @Test
+    void streamEvents_rolledBackTransaction_announcesNothing() throws Exception {
+        MvcResult stream = openStream();
+        awaitContent(stream, "event:connected");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            publish(3);
+            status.setRollbackOnly();
+        });
+        commit(4);
+
+        String content = awaitContent(stream, "id:4");
+        assertFalse(content.contains("id:3"));
+        assertEquals(1, count(content, "event:change"));
+    }
+
+    @Test
+    void streamEvents_perUserCapReached_returns503WithRetryAfter() throws Exception {
+        openStream();
+
+        mockMvc.perform(get("/api/events")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtService.generateToken(email)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "30"));
+    }
+
+    @Test
+    void streamEvents_eventsTokenInQueryString_isAccepted() throws Exception {
+        mockMvc.perform(get("/api/events").param("access_token", jwtService.generateEventsToken(email)))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void streamEvents_sessionTokenInQueryString_isRejected() throws Exception {
+        mockMvc.perform(get("/api/events").param("access_token", jwtService.generateToken(email)))
+                .andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    void eventsTokenInHeader_isRejected() throws Exception {
+        String eventsToken = jwtService.generateEventsToken(email);
+
+        mockMvc.perform(get("/api/events").header(HttpHeaders.AUTHORIZATION, "Bearer " + eventsToken))
+                .andExpect(status().is4xxClientError());
+        mockMvc.perform(get("/api/lists").header(HttpHeaders.AUTHORIZATION, "Bearer " + eventsToken))
+                .andExpect(status().is4xxClientError());
+    }
+
+    private MvcResult openStream() throws Exception {
+        return mockMvc.perform(get("/api/events")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtService.generateToken(email)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    // Une transaction validée qui écrit une entrée du journal par numéro de séquence
+    private void commit(long... seqs) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (long seq : seqs) {
+                publish(seq);
+            }
+        });
+    }
+
+    private void publish(long seq) {
+        eventPublisher.publishEvent(new ChangeEvent(new ChangeLogEntry(user.getId(), seq, ChangeEntityType.TASK,
+                "task-" + seq, "list", ChangeOperation.UPSERT)));
+    }
+
+    private static String awaitContent(MvcResult stream, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String content = stream.getResponse().getContentAsString();
+        while (!content.contains(expected)) {
+            if (System.nanoTime() > deadline) {
+                fail("No " + expected + " in the stream: " + content);
+            }
+            Thread.sleep(10);
+            content = stream.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    private static int count(String content, String text) {
+        return content.split(text, -1).length - 1;
+    }
+}
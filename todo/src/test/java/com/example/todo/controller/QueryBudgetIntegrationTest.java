@@ -0,0 +1,66 @@
+package com.example.todo.controller;
+
+import com.example.todo.model.Task;
+import com.example.todo.model.TodoList;
+import com.example.todo.model.User;
+import com.example.todo.repository.TodoListRepository;
+import com.example.todo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// sql.budget.enforce=true : un dépassement de @QueryBudget fait échouer la requête, donc le test
+@SpringBootTest(properties = {"sql.budget.enforce=true", "sql.stats.headers=true"})
+@AutoConfigureMockMvc
+@Transactional
+class QueryBudgetIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoListRepository todoListRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @WithMockUser(username = "budget@example.com")
+    void getAllTodoLists_staysWithinQueryBudget_withoutNPlusOne() throws Exception {
+        User user = new User();
+        user.setEmail("budget@example.com");
+        user.setName("Budget User");
+        user.setPassword("password");
+        String userId = userRepository.save(user).getId();
+        for (int i = 0; i < 5; i++) {
+            TodoList list = new TodoList();
+            list.setTitle("Budget list " + i);
+            list.setUserId(userId);
+            for (int j = 0; j < 3; j++) {
+                Task task = new Task();
+                task.setText("Budget task " + j);
+                list.addTask(task);
+            }
+            todoListRepository.save(list);
+        }
+        // Les insertions en attente ne doivent pas être comptées dans la requête
+        todoListRepository.flush();
+
+        mockMvc.perform(get("/api/lists")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[0].tasks", hasSize(3)))
+                .andExpect(header().exists("X-SQL-Count"))
+                .andExpect(header().doesNotExist("X-SQL-N-Plus-One"));
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.todo.controller;
+
+import com.example.todo.model.Task;
+import com.example.todo.model.TodoList;
+import com.example.todo.model.User;
+import com.example.todo.repository.TaskRepository;
+import com.example.todo.repository.TodoListRepository;
+import com.example.todo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class TaskControllerIntegrationTest {
+
+    private static final String OWNER_EMAIL = "owner@example.com";
+    private static final String OTHER_EMAIL = "other@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TodoListRepository todoListRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private TodoList ownerList;
+    private TodoList secondOwnerList;
+    private Task ownerTask;
+
+    private User createUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setName("Test User");
+        user.setPassword("password");
+        return userRepository.save(user);
+    }
+
+    private TodoList createList(String title, String userId, String... taskTexts) {
+        TodoList list = new TodoList();
+        list.setTitle(title);
+        list.setUserId(userId);
+        for (String text : taskTexts) {
+            Task task = new Task();
+            task.setText(text);
+            list.addTask(task);
+        }
+        return todoListRepository.save(list);
+    }
+
+    @BeforeEach
+    void setUp() {
+        User owner = createUser(OWNER_EMAIL);
+        createUser(OTHER_EMAIL);
+        ownerList = createList("Owner List", owner.getId(), "Owner Task");
+        secondOwnerList = createList("Second Owner List", owner.getId());
+        ownerTask = ownerList.getTasks().get(0);
+    }
+
+    @Test
+    @WithMockUser(username = OWNER_EMAIL)
+    void toggleTaskStatus_asOwner_returnsOk() throws Exception {
+        mockMvc.perform(patch("/api/lists/" + ownerList.getId() + "/tasks/" + ownerTask.getId() + "/toggle")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.done", is(true)));
+    }
+
+    @Test
+    @WithMockUser(username = OTHER_EMAIL)
+    void toggleTaskStatus_asOtherUser_returnsForbidden() throws Exception {
+        mockMvc.perform(patch("/api/lists/" + ownerList.getId() + "/tasks/" + ownerTask.getId() + "/toggle")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("true"))
+                .andExpect(status().isForbidden());
+
+        assertFalse(taskRepository.findById(ownerTask.getId()).orElseThrow().isDone());
+    }
+
+    @Test
+    @WithMockUser(username = OTHER_EMAIL)
+    void deleteTask_asOtherUser_returnsForbidden() throws Exception {
+        mockMvc.perform(delete("/api/lists/" + ownerList.getId() + "/tasks/" + ownerTask.getId()))
+                .andExpect(status().isForbidden());
+
+        assertTrue(taskRepository.existsById(ownerTask.getId()));
+    }
+
+    @Test
+    @WithMockUser(username = OTHER_EMAIL)
+    void createTask_inOtherUsersList_returnsForbidden() throws Exception {
+        mockMvc.perform(post("/api/lists/" + ownerList.getId() + "/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\": \"Intruder task\"}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = OWNER_EMAIL)
+    void deleteTask_throughWrongList_returnsNotFound() throws Exception {
+        mockMvc.perform(delete("/api/lists/" + secondOwnerList.getId() + "/tasks/" + ownerTask.getId()))
+                .andExpect(status().isNotFound());
+
+        assertTrue(taskRepository.existsById(ownerTask.getId()));
+    }
+
+    @Test
+    @WithMockUser(username = OWNER_EMAIL)
+    void updateTask_nonExistentList_returnsNotFound() throws Exception {
+        mockMvc.perform(put("/api/lists/nonexistent-list-id/tasks/" + ownerTask.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\": \"Updated\", \"done\": true}"))
+                .andExpect(status().isNotFound());
+    }
+}
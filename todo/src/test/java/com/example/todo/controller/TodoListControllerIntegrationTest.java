@@ -86,6 +86,21 @@ class TodoListControllerIntegrationTest {
                 .andExpect(jsonPath("$[1].title", is("List 2")));
     }
 
+    @Test
+    void getAllTodoLists_withUnsupportedAccept_returnsNotAcceptable() throws Exception {
+        mockMvc.perform(get("/api/lists")
+                        .header("Accept", "application/xml"))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    void getAllTodoLists_withJsonRefused_returnsNextAcceptedFormat() throws Exception {
+        mockMvc.perform(get("/api/lists")
+                        .header("Accept", "application/json;q=0, application/cbor;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+    }
+
     @Test
     void createTodoList_withValidTitle_returnsCreatedList() throws Exception {
         TodoList newList = new TodoList();
@@ -0,0 +1,119 @@
+package com.example.todo.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkloadAspectTest {
+
+    private final WorkloadRoutingDataSource dataSource = routingDataSource();
+
+    @Test
+    void annotatedMethod_usesItsPool_classAnnotationOtherwise() {
+        ClassTarget target = proxy(new ClassTarget(dataSource), true);
+
+        assertEquals("bulk", target.bulk());
+        assertEquals("auth", target.classWorkload());
+    }
+
+    @Test
+    void jdkProxy_findsAnnotationOnImplementationMethod() {
+        // La signature désigne la méthode de l'interface, qui n'est pas annotée
+        PoolReader target = proxy(new InterfaceTarget(dataSource), false);
+
+        assertEquals("bulk", target.bulk());
+    }
+
+    @Test
+    void joiningOpenTransaction_keepsItsPool() {
+        ClassTarget target = proxy(new ClassTarget(dataSource), true);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        // La transaction ouverte hors @Workload a pris une connexion du pool interactif
+        assertEquals("interactive", transaction.execute(status -> target.bulk()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Object target, boolean proxyTargetClass) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(proxyTargetClass);
+        factory.addAspect(new WorkloadAspect());
+        return (T) factory.getProxy();
+    }
+
+    private static WorkloadRoutingDataSource routingDataSource() {
+        Map<WorkloadType, DataSource> pools = new EnumMap<>(WorkloadType.class);
+        for (WorkloadType type : WorkloadType.values()) {
+            pools.put(type, new DriverManagerDataSource(
+                    "jdbc:h2:mem:workload-" + type.name().toLowerCase(), "sa", ""));
+        }
+        WorkloadRoutingDataSource dataSource = new WorkloadRoutingDataSource(pools);
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+
+    /**
+     * Nom du pool qui a fourni la connexion, lu dans l'URL de la base.
+     */
+    private static String pool(DataSource dataSource) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            return connection.getMetaData().getURL().substring("jdbc:h2:mem:workload-".length());
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    public interface PoolReader {
+
+        String bulk();
+    }
+
+    @Workload(WorkloadType.AUTH)
+    public static class ClassTarget implements PoolReader {
+
+        private final DataSource dataSource;
+
+        public ClassTarget(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        @Workload(WorkloadType.BULK)
+        public String bulk() {
+            return pool(dataSource);
+        }
+
+        public String classWorkload() {
+            return pool(dataSource);
+        }
+    }
+
+    public static class InterfaceTarget implements PoolReader {
+
+        private final DataSource dataSource;
+
+        public InterfaceTarget(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        @Workload(WorkloadType.BULK)
+        public String bulk() {
+            return pool(dataSource);
+        }
+    }
+}
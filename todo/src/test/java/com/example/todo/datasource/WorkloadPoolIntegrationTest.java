@@ -0,0 +1,94 @@
+package com.example.todo.datasource;
+
+import com.example.todo.repository.TodoListRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.stereotype.Service;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Pas de @Transactional : une transaction de test garderait sa connexion pendant toute la requête
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import({WorkloadPoolIntegrationTest.ProbeController.class, WorkloadPoolIntegrationTest.BulkProbe.class})
+class WorkloadPoolIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @WithMockUser
+    void bulkService_afterInteractiveQueryInSameRequest_runsOnBulkPool() throws Exception {
+        mockMvc.perform(get("/api/test/workload-probe"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bulk", is(1)))
+                .andExpect(jsonPath("$.interactive", is(0)));
+    }
+
+    /**
+     * Comme une requête réelle : une vérification d'accès hors transaction (pool interactif),
+     * puis l'appel d'un service BULK.
+     */
+    @RestController
+    static class ProbeController {
+
+        private final TodoListRepository todoListRepository;
+        private final BulkProbe bulkProbe;
+
+        ProbeController(TodoListRepository todoListRepository, BulkProbe bulkProbe) {
+            this.todoListRepository = todoListRepository;
+            this.bulkProbe = bulkProbe;
+        }
+
+        @GetMapping("/api/test/workload-probe")
+        public Map<String, Integer> probe() throws SQLException {
+            todoListRepository.existsById("workload-probe");
+            return bulkProbe.activeConnections();
+        }
+    }
+
+    /**
+     * Service BULK qui relève, dans sa transaction, les connexions actives de chaque pool.
+     */
+    @Service
+    @Workload(WorkloadType.BULK)
+    static class BulkProbe {
+
+        private final DataSource interactive;
+        private final DataSource bulk;
+
+        BulkProbe(@Qualifier("interactiveDataSource") DataSource interactive,
+                  @Qualifier("bulkDataSource") DataSource bulk) {
+            this.interactive = interactive;
+            this.bulk = bulk;
+        }
+
+        @Transactional
+        public Map<String, Integer> activeConnections() throws SQLException {
+            return Map.of(
+                    "interactive", active(interactive),
+                    "bulk", active(bulk));
+        }
+
+        private static int active(DataSource dataSource) throws SQLException {
+            return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean().getActiveConnections();
+        }
+    }
+}
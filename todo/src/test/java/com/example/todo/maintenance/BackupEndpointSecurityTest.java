@@ -0,0 +1,96 @@
+package com.example.todo.maintenance;
+
+import com.example.todo.model.User;
+import com.example.todo.repository.UserRepository;
+import com.example.todo.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sur le vrai port de management : MockMvc ne sert pas le contexte enfant d'Actuator
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "management.server.port=0",
+        "backup.dir=build/test-backups-security",
+        "backup.cron=-",
+        "security.admin-emails=backup-admin@example.com"
+})
+class BackupEndpointSecurityTest {
+
+    private static final String ADMIN_EMAIL = "backup-admin@example.com";
+    private static final String USER_EMAIL = "backup-user@example.com";
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        save(ADMIN_EMAIL);
+        save(USER_EMAIL);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findByEmail(ADMIN_EMAIL).ifPresent(userRepository::delete);
+        userRepository.findByEmail(USER_EMAIL).ifPresent(userRepository::delete);
+    }
+
+    @Test
+    void backups_asRegularUser_returnsForbidden() {
+        assertEquals(HttpStatus.FORBIDDEN, exchange(HttpMethod.GET, USER_EMAIL).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, exchange(HttpMethod.POST, USER_EMAIL).getStatusCode());
+    }
+
+    @Test
+    void backups_withoutToken_isRejected() {
+        ResponseEntity<String> response = exchange(HttpMethod.GET, null);
+
+        assertTrue(response.getStatusCode().is4xxClientError());
+    }
+
+    @Test
+    void backups_asAdmin_listsBackups() {
+        ResponseEntity<String> response = exchange(HttpMethod.GET, ADMIN_EMAIL);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    private ResponseEntity<String> exchange(HttpMethod method, String email) {
+        HttpHeaders headers = new HttpHeaders();
+        if (email != null) {
+            headers.setBearerAuth(jwtService.generateToken(email));
+        }
+        return restTemplate.exchange("http://localhost:" + managementPort + "/actuator/backups",
+                method, new HttpEntity<>(headers), String.class);
+    }
+
+    private void save(String email) {
+        if (userRepository.findByEmail(email).isPresent()) {
+            return;
+        }
+        User user = new User();
+        user.setEmail(email);
+        user.setName("Backup Test");
+        user.setPassword("password");
+        userRepository.save(user);
+    }
+}
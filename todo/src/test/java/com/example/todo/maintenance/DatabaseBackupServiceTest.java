@@ -0,0 +1,76 @@
+package com.example.todo.maintenance;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "backup.dir=build/test-backups",
+        "backup.retention=2",
+        "backup.cron=-"
+})
+class DatabaseBackupServiceTest {
+
+    @Autowired
+    private DatabaseBackupService backupService;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(Path.of("build/test-backups"));
+    }
+
+    @Test
+    void backup_writesArchiveThatVerifiesAsFreshInstance() throws IOException {
+        DatabaseBackupService.BackupInfo backup = backupService.backup();
+
+        assertTrue(Files.size(Path.of("build/test-backups", backup.name())) > 0);
+        assertNotNull(backup.sha256());
+        assertNull(backup.verifiedAt());
+
+        DatabaseBackupService.BackupInfo verified = backupService.verify(backup.name());
+        assertNotNull(verified.verifiedAt());
+        assertNull(verified.verificationError());
+        assertTrue(verified.rows().containsKey("todo_list"));
+        assertTrue(verified.rows().containsKey("task"));
+    }
+
+    @Test
+    void verifyPending_onlyVerifiesNewBackups() throws IOException {
+        backupService.backup();
+        assertEquals(1, backupService.verifyPending().size());
+        assertEquals(0, backupService.verifyPending().size());
+
+        backupService.backup();
+        assertEquals(1, backupService.verifyPending().size());
+    }
+
+    @Test
+    void verify_detectsCorruptedArchive() throws IOException {
+        DatabaseBackupService.BackupInfo backup = backupService.backup();
+        Path file = Path.of("build/test-backups", backup.name());
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x7f;
+        Files.write(file, bytes);
+
+        assertNotNull(backupService.verify(backup.name()).verificationError());
+    }
+
+    @Test
+    void backup_keepsOnlyConfiguredNumberOfArchives() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            backupService.backup();
+        }
+
+        List<DatabaseBackupService.BackupInfo> backups = backupService.listBackups();
+        assertEquals(2, backups.size());
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.todo.monitoring;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryBudgetFilterTest {
+
+    // Un contrôleur avec un budget de 1 qui exécute deux instructions et écrit sa réponse
+    private final FilterChain overBudget = (request, response) -> {
+        QueryStats stats = QueryTracker.current();
+        stats.setBudget(1, "TestController#handle");
+        stats.record("select 1", 0);
+        stats.record("select 2", 0);
+        response.getWriter().write("body");
+    };
+
+    @Test
+    void overBudget_enforced_failsBeforeBufferedBodyIsSent() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThrows(QueryBudgetExceededException.class, () ->
+                new QueryBudgetFilter(true, true, 3).doFilter(new MockHttpServletRequest("GET", "/api/lists"),
+                        response, overBudget));
+
+        assertEquals("", response.getContentAsString());
+        assertFalse(response.isCommitted());
+    }
+
+    @Test
+    void overBudget_notEnforced_sendsBodyWithHeaders() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new QueryBudgetFilter(true, false, 3).doFilter(new MockHttpServletRequest("GET", "/api/lists"),
+                response, overBudget);
+
+        assertEquals("body", response.getContentAsString());
+        assertEquals("2", response.getHeader("X-SQL-Count"));
+    }
+}
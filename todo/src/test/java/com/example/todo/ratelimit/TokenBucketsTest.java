@@ -0,0 +1,83 @@
+package com.example.todo.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketsTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryConsume_rejectsOnceTheBucketIsEmpty() {
+        TokenBuckets buckets = new TokenBuckets(4, 10, 1, SECOND);
+        assertTrue(buckets.tryConsume("alice", 6, 0).allowed());
+
+        TokenBuckets.Result result = buckets.tryConsume("alice", 6, 0);
+
+        assertFalse(result.allowed());
+        assertEquals(4, result.remaining());
+        assertEquals(2 * SECOND, result.waitNanos(), 1_000);
+    }
+
+    @Test
+    void tryConsume_refillsOverTimeUpToCapacity() {
+        TokenBuckets buckets = new TokenBuckets(4, 10, 2, SECOND);
+        buckets.tryConsume("alice", 10, 0);
+
+        assertTrue(buckets.tryConsume("alice", 3, 2 * SECOND).allowed());
+        assertFalse(buckets.tryConsume("alice", 3, 2 * SECOND).allowed());
+        assertEquals(10, buckets.tryConsume("alice", 0, 100 * SECOND).remaining());
+    }
+
+    @Test
+    void tryConsume_toleratesRoundingOfTheRefill() {
+        TokenBuckets buckets = new TokenBuckets(4, 10, 7.5, SECOND);
+        buckets.tryConsume("alice", 10, 0);
+
+        // 0,4 s à 7,5 jetons/s : 2.9999999999999996 en virgule flottante, soit 3 jetons
+        long now = TimeUnit.MILLISECONDS.toNanos(400);
+        assertEquals(3, buckets.tryConsume("alice", 0, now).remaining());
+        assertTrue(buckets.tryConsume("alice", 3, now).allowed());
+    }
+
+    @Test
+    void charge_putsTheBucketInDebt() {
+        TokenBuckets buckets = new TokenBuckets(1, 10, 1, SECOND);
+        buckets.charge("alice", 15, 0);
+
+        TokenBuckets.Result result = buckets.tryConsume("alice", 1, 0);
+        assertFalse(result.allowed());
+        assertEquals(0, result.remaining());
+        assertEquals(6 * SECOND, result.waitNanos(), 1_000);
+
+        // Endetté, le seau n'est pas encore plein après le délai d'inactivité (10 s)
+        assertEquals(0, buckets.evictIdle(11 * SECOND));
+        assertEquals(1, buckets.evictIdle(16 * SECOND));
+    }
+
+    @Test
+    void tryConsume_keepsUsersIndependent() {
+        TokenBuckets buckets = new TokenBuckets(4, 10, 1, SECOND);
+        buckets.tryConsume("alice", 10, 0);
+
+        assertFalse(buckets.tryConsume("alice", 1, 0).allowed());
+        assertTrue(buckets.tryConsume("bob", 1, 0).allowed());
+    }
+
+    @Test
+    void evictIdle_dropsOnlyBucketsThatAreFullAgain() {
+        TokenBuckets buckets = new TokenBuckets(1, 10, 1, SECOND);
+        buckets.tryConsume("alice", 10, 0);
+        buckets.tryConsume("bob", 10, 8 * SECOND);
+
+        // Le délai d'inactivité est porté au temps de remplissage (10 s)
+        buckets.evictIdle(5 * SECOND);
+        assertEquals(2, buckets.size());
+
+        assertEquals(1, buckets.evictIdle(11 * SECOND));
+        assertEquals(1, buckets.size());
+    }
+}
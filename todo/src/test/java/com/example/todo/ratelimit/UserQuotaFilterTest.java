@@ -0,0 +1,24 @@
+package com.example.todo.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserQuotaFilterTest {
+
+    @Test
+    void countingRequest_countsBytesActuallyRead() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/lists/list-1");
+        request.setContent(new byte[10_000]);
+        UserQuotaFilter.CountingRequest counting = new UserQuotaFilter.CountingRequest(request);
+
+        assertEquals(4_000, counting.getInputStream().readNBytes(4_000).length);
+        assertEquals(4_000, counting.getBytesRead());
+
+        counting.getInputStream().readAllBytes();
+        assertEquals(10_000, counting.getBytesRead());
+    }
+}
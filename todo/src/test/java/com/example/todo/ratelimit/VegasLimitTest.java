@@ -0,0 +1,50 @@
+package com.example.todo.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VegasLimitTest {
+
+    private static final long BASE_RTT = 10_000_000L;
+
+    @Test
+    void onSample_growsWhileLatencyStaysAtBaseline() {
+        VegasLimit limit = new VegasLimit(20, 5, 200, 10_000);
+        limit.onSample(BASE_RTT, 20, false);
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(BASE_RTT, limit.getLimit(), false);
+        }
+        assertTrue(limit.getLimit() > 20);
+    }
+
+    @Test
+    void onSample_shrinksWhenRequestsQueue() {
+        VegasLimit limit = new VegasLimit(100, 5, 200, 10_000);
+        limit.onSample(BASE_RTT, 100, false);
+        for (int i = 0; i < 20; i++) {
+            // Latence multipliée par 4 : la majorité des requêtes admises attendent
+            limit.onSample(4 * BASE_RTT, limit.getLimit(), false);
+        }
+        assertTrue(limit.getLimit() < 100);
+        assertTrue(limit.getChanges() > 0);
+    }
+
+    @Test
+    void onSample_ignoresLatencyWhenLightlyLoaded() {
+        VegasLimit limit = new VegasLimit(100, 5, 200, 10_000);
+        limit.onSample(BASE_RTT, 100, false);
+        limit.onSample(4 * BASE_RTT, 10, false);
+        assertEquals(100, limit.getLimit());
+    }
+
+    @Test
+    void onSample_neverDropsBelowMinimum() {
+        VegasLimit limit = new VegasLimit(10, 8, 200, 10_000);
+        limit.onSample(BASE_RTT, 10, false);
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(BASE_RTT, limit.getLimit(), true);
+        }
+        assertEquals(8, limit.getLimit());
+    }
+}
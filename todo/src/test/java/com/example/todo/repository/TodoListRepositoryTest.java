@@ -0,0 +1,78 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.ListMembership;
+import com.example.todo.model.ListPermission;
+import com.example.todo.model.Task;
+import com.example.todo.model.TodoList;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class TodoListRepositoryTest {
+
+    private static final String USER_ID = "repository-user";
+    private static final String OTHER_USER_ID = "repository-other-user";
+
+    @Autowired
+    private TodoListRepository todoListRepository;
+
+    @Autowired
+    private ListMembershipRepository membershipRepository;
+
+    @Test
+    void findAccessibleByUserId_returnsOwnedAndSharedListsOldestFirst() {
+        LocalDateTime now = LocalDateTime.now();
+        TodoList shared = save("Shared", OTHER_USER_ID, now.minusHours(2), 0);
+        TodoList owned = save("Owned", USER_ID, now.minusHours(1), 0);
+        save("Not shared", OTHER_USER_ID, now, 0);
+        membershipRepository.save(new ListMembership(shared.getId(), USER_ID, ListPermission.READ));
+
+        List<TodoList> lists = todoListRepository.findAccessibleByUserId(USER_ID);
+
+        assertEquals(List.of(shared.getId(), owned.getId()), lists.stream().map(TodoList::getId).toList());
+        // findByUserId ne renvoie que les listes possédées
+        assertEquals(List.of(owned.getId()), todoListRepository.findByUserId(USER_ID).stream()
+                .map(TodoList::getId).toList());
+    }
+
+    @Test
+    void findAccessibleByUserId_returnsEachListOnceWithItsTasks() {
+        TodoList list = save("With tasks", USER_ID, LocalDateTime.now(), 3);
+        // Propriétaire et membre à la fois : la liste ne doit pas apparaître deux fois
+        membershipRepository.save(new ListMembership(list.getId(), USER_ID, ListPermission.OWNER));
+
+        List<TodoList> lists = todoListRepository.findAccessibleByUserId(USER_ID);
+
+        assertEquals(1, lists.size());
+        assertEquals(3, lists.get(0).getTasks().size());
+    }
+
+    @Test
+    void findAccessibleByUserId_withoutLists_returnsEmptyList() {
+        save("Someone else's", OTHER_USER_ID, LocalDateTime.now(), 1);
+
+        assertTrue(todoListRepository.findAccessibleByUserId(USER_ID).isEmpty());
+    }
+
+    private TodoList save(String title, String userId, LocalDateTime createdAt, int taskCount) {
+        TodoList list = new TodoList();
+        list.setTitle(title);
+        list.setUserId(userId);
+        list.setCreatedAt(createdAt);
+        for (int i = 0; i < taskCount; i++) {
+            Task task = new Task();
+            task.setText("Task " + i);
+            task.setCreatedAt(createdAt.plusSeconds(i));
+            list.addTask(task);
+        }
+        return todoListRepository.saveAndFlush(list);
+    }
+}
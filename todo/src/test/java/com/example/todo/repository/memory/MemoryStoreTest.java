@@ -0,0 +1,157 @@
+package com.example.todo.repository.memory;
+
+import com.example.todo.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private MemoryStore store;
+    private MemoryUserRepository users;
+    private String userId;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        open();
+        // Hors transaction : validé aussitôt
+        userId = users.save(user("before@example.com", "Before")).getId();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void jpaCommitFailure_leavesMemoryUntouched() throws IOException {
+        DatabaseTransactionManager transactionManager = new DatabaseTransactionManager(true, () -> {
+            // Rien n'est publié avant la validation de la base
+            assertEquals("Before", store.users.get(userId).name());
+            assertNull(store.userByEmail("created@example.com"));
+        });
+
+        assertThrows(DataAccessResourceFailureException.class, () ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    users.findById(userId).orElseThrow().setName("After");
+                    users.save(user("created@example.com", "Created"));
+                }));
+
+        assertUnchanged();
+
+        // Rien n'a été écrit dans le journal
+        store.close();
+        open();
+        assertUnchanged();
+    }
+
+    @Test
+    void jpaCommit_publishesOnceDatabaseCommitted() throws IOException {
+        DatabaseTransactionManager transactionManager = new DatabaseTransactionManager(false, () ->
+                assertEquals("Before", store.users.get(userId).name()));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            users.findById(userId).orElseThrow().setName("After");
+            users.save(user("created@example.com", "Created"));
+        });
+
+        assertEquals("After", store.users.get(userId).name());
+        assertNotNull(store.userByEmail("created@example.com"));
+
+        store.close();
+        open();
+        assertEquals("After", store.users.get(userId).name());
+        assertNotNull(store.userByEmail("created@example.com"));
+    }
+
+    @Test
+    void sameEmail_reservedUntilPublished() {
+        DatabaseTransactionManager transactionManager = new DatabaseTransactionManager(false, () -> {
+            // Une autre transaction inscrit le même e-mail pendant la validation de la base
+            CompletionException failure = assertThrows(CompletionException.class, () ->
+                    CompletableFuture.runAsync(() ->
+                            new TransactionTemplate(new DatabaseTransactionManager(false, () -> { }))
+                                    .executeWithoutResult(status -> users.save(user("created@example.com", "Other"))))
+                            .join());
+            assertInstanceOf(DataIntegrityViolationException.class, failure.getCause());
+        });
+
+        String createdId = new TransactionTemplate(transactionManager).execute(status ->
+                users.save(user("created@example.com", "Created")).getId());
+
+        assertEquals(createdId, store.userByEmail("created@example.com").id());
+        assertEquals(2, store.users.size());
+    }
+
+    private void assertUnchanged() {
+        assertEquals("Before", store.users.get(userId).name());
+        assertNull(store.userByEmail("created@example.com"));
+        assertEquals(1, store.users.size());
+    }
+
+    private void open() throws IOException {
+        store = new MemoryStore(dir, 1 << 20, false);
+        users = new MemoryUserRepository(store);
+    }
+
+    private static User user(String email, String name) {
+        User user = new User();
+        user.setEmail(email);
+        user.setName(name);
+        user.setPassword("password");
+        return user;
+    }
+
+    /**
+     * Gestionnaire de la base : {@code duringCommit} s'exécute pendant sa validation, qui peut échouer
+     * comme un commit H2 refusé (la transaction est alors annulée).
+     */
+    private static final class DatabaseTransactionManager extends AbstractPlatformTransactionManager {
+
+        private final boolean fail;
+        private final Runnable duringCommit;
+
+        private DatabaseTransactionManager(boolean fail, Runnable duringCommit) {
+            this.fail = fail;
+            this.duringCommit = duringCommit;
+        }
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            duringCommit.run();
+            if (fail) {
+                throw new DataAccessResourceFailureException("Commit failed");
+            }
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.todo.security;
+
+import com.example.todo.service.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "test-secret-that-is-long-enough-for-hmac-sha-512-signatures-0123456789";
+    private static final String EMAIL = "user@example.com";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JwtService jwtService;
+    private UserDetailsService userDetailsService;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecretString", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpirationMs", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "eventsTokenExpirationMs", 60_000L);
+        jwtService.init();
+        userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername(EMAIL))
+                .thenReturn(new AuthenticatedUser("user-1", EMAIL, "password", List.of()));
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validBearerToken_authenticatesAndCountsValidOnce() throws Exception {
+        filter(request("/api/lists", "Bearer " + jwtService.generateToken(EMAIL)));
+
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        assertOutcomes("valid");
+    }
+
+    @Test
+    void unknownUser_countsOnlyUnknownUser() throws Exception {
+        when(userDetailsService.loadUserByUsername("gone@example.com"))
+                .thenThrow(new UsernameNotFoundException("gone"));
+
+        filter(request("/api/lists", "Bearer " + jwtService.generateToken("gone@example.com")));
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertOutcomes("unknown_user");
+    }
+
+    @Test
+    void eventsTokenInHeader_isRejectedAsWrongScope() throws Exception {
+        filter(request("/api/lists", "Bearer " + jwtService.generateEventsToken(EMAIL)));
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertOutcomes("wrong_scope");
+    }
+
+    @Test
+    void sessionTokenInQueryString_isRejectedAsWrongScope() throws Exception {
+        MockHttpServletRequest request = request("/api/events", null);
+        request.setParameter("access_token", jwtService.generateToken(EMAIL));
+
+        filter(request);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertOutcomes("wrong_scope");
+    }
+
+    @Test
+    void eventsTokenInQueryString_authenticatesOnEventsPathOnly() throws Exception {
+        MockHttpServletRequest events = request("/api/events", null);
+        events.setParameter("access_token", jwtService.generateEventsToken(EMAIL));
+        filter(events);
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest lists = request("/api/lists", null);
+        lists.setParameter("access_token", jwtService.generateEventsToken(EMAIL));
+        filter(lists);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private void filter(MockHttpServletRequest request) throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    private static MockHttpServletRequest request(String uri, String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        return request;
+    }
+
+    // Exactement un résultat compté pour la requête, celui attendu
+    private void assertOutcomes(String expected) {
+        double total = meterRegistry.find("auth.jwt.requests").counters().stream()
+                .mapToDouble(counter -> counter.count()).sum();
+        assertEquals(1, total);
+        assertEquals(1, meterRegistry.get("auth.jwt.requests").tag("outcome", expected).counter().count());
+    }
+}
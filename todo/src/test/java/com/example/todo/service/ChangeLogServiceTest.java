@@ -0,0 +1,104 @@
+package com.example.todo.service;
+
+import com.example.todo.model.ChangeLogEntry;
+import com.example.todo.model.Task;
+import com.example.todo.model.TodoList;
+import com.example.todo.repository.ChangeLogRepository;
+import com.example.todo.repository.UserSyncStateRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Pas de @Transactional : les premières écritures concurrentes doivent valider chacune leur transaction
+@SpringBootTest
+class ChangeLogServiceTest {
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    @Autowired
+    private UserSyncStateRepository syncStateRepository;
+
+    private final String userId = "change-log-" + UUID.randomUUID();
+    private final List<String> listIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        listIds.forEach(todoListService::deleteTodoList);
+    }
+
+    @Test
+    void firstWritesOfNewUser_concurrently_allSucceedWithDistinctSeqs() throws Exception {
+        int writers = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        List<Future<TodoList>> results = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            String title = "Concurrent list " + i;
+            results.add(executor.submit(() -> {
+                start.await();
+                return todoListService.createTodoList(list(title, 3));
+            }));
+        }
+        start.countDown();
+        for (Future<TodoList> result : results) {
+            listIds.add(result.get().getId());
+        }
+        executor.shutdown();
+
+        // Une liste et trois tâches par écriture, numérotées sans trou ni doublon
+        List<Long> seqs = changeLogRepository.findByUserIdAndSeqGreaterThanOrderBySeqAsc(userId, 0, Pageable.unpaged())
+                .stream().map(ChangeLogEntry::getSeq).toList();
+        assertEquals(writers * 4, seqs.size());
+        for (int i = 0; i < seqs.size(); i++) {
+            assertEquals(i + 1L, (long) seqs.get(i));
+        }
+    }
+
+    @Test
+    void compact_expiredEntries_raisesFloorAndDeletesThem() {
+        listIds.add(todoListService.createTodoList(list("Expiring list", 3)).getId());
+        long retentionHours = (long) ReflectionTestUtils.getField(changeLogService, "retentionHours");
+        ReflectionTestUtils.setField(changeLogService, "retentionHours", -1L);
+        try {
+            // Hors transaction : chaque utilisateur est compacté dans sa propre transaction
+            changeLogService.compact();
+        } finally {
+            ReflectionTestUtils.setField(changeLogService, "retentionHours", retentionHours);
+        }
+
+        assertTrue(changeLogRepository.findByUserIdAndSeqGreaterThanOrderBySeqAsc(userId, 0, Pageable.unpaged()).isEmpty());
+        assertEquals(4, syncStateRepository.findById(userId).orElseThrow().getCompactedSeq());
+    }
+
+    private TodoList list(String title, int taskCount) {
+        TodoList list = new TodoList();
+        list.setTitle(title);
+        list.setUserId(userId);
+        for (int i = 0; i < taskCount; i++) {
+            Task task = new Task();
+            task.setText("Task " + i);
+            list.addTask(task);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.todo.service;
+
+import com.example.todo.model.DashboardDocument;
+import com.example.todo.model.Task;
+import com.example.todo.model.TodoList;
+import com.example.todo.repository.DashboardDocumentRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Pas de @Transactional : le document est écrit juste avant le commit des écritures
+@SpringBootTest
+class DashboardServiceTest {
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private DashboardDocumentRepository documentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final String userId = "dashboard-" + UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        documentRepository.deleteById(userId);
+    }
+
+    @Test
+    void writes_keepDocumentInSyncWithLists() throws IOException {
+        TodoList newList = new TodoList();
+        newList.setTitle("Dashboard List");
+        newList.setUserId(userId);
+        TodoList list = todoListService.createTodoList(newList);
+
+        JsonNode document = document();
+        assertEquals(1, document.size());
+        assertEquals("Dashboard List", document.get(0).get("title").asText());
+        assertEquals(0, document.get(0).get("tasks").size());
+
+        Task task = new Task();
+        task.setText("Dashboard Task");
+        Task created = taskService.createTask(list.getId(), task);
+        taskService.toggleTaskStatus(created.getId(), true);
+
+        JsonNode tasks = document().get(0).get("tasks");
+        assertEquals(1, tasks.size());
+        assertEquals("Dashboard Task", tasks.get(0).get("text").asText());
+        assertTrue(tasks.get(0).get("done").asBoolean());
+
+        todoListService.deleteTodoList(list.getId());
+        assertEquals(0, document().size());
+    }
+
+    @Test
+    void writes_patchOnlyTouchedListInPlace() throws IOException {
+        TodoList first = todoListService.createTodoList(list("First"));
+        TodoList second = todoListService.createTodoList(list("Second"));
+
+        Task task = new Task();
+        task.setText("First Task");
+        taskService.createTask(first.getId(), task);
+
+        // La liste modifiée garde sa place, l'autre est inchangée
+        JsonNode document = document();
+        assertEquals(2, document.size());
+        assertEquals(first.getId(), document.get(0).get("id").asText());
+        assertEquals(1, document.get(0).get("tasks").size());
+        assertEquals(second.getId(), document.get(1).get("id").asText());
+        assertEquals(0, document.get(1).get("tasks").size());
+
+        todoListService.deleteTodoList(first.getId());
+        document = document();
+        assertEquals(1, document.size());
+        assertEquals(second.getId(), document.get(0).get("id").asText());
+
+        todoListService.deleteTodoList(second.getId());
+    }
+
+    @Test
+    void getDocument_withoutDocument_computesFromLists() throws IOException {
+        assertFalse(documentRepository.existsById(userId));
+
+        JsonNode document = objectMapper.readTree(dashboardService.getDocument(userId));
+
+        assertTrue(document.isArray());
+        assertEquals(0, document.size());
+        assertFalse(documentRepository.existsById(userId));
+    }
+
+    private TodoList list(String title) {
+        TodoList list = new TodoList();
+        list.setTitle(title);
+        list.setUserId(userId);
+        return list;
+    }
+
+    private JsonNode document() throws IOException {
+        DashboardDocument document = documentRepository.findById(userId).orElseThrow();
+        return objectMapper.readTree(document.getBody());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.todo.service;
+
+import com.example.todo.repository.UserSyncStateRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventStreamServiceTest {
+
+    private EventStreamService eventStreamService;
+
+    @BeforeEach
+    void setUp() {
+        UserSyncStateRepository syncStateRepository = mock(UserSyncStateRepository.class);
+        when(syncStateRepository.findById(anyString())).thenReturn(Optional.empty());
+        eventStreamService = new EventStreamService(syncStateRepository);
+        ReflectionTestUtils.setField(eventStreamService, "maxConnections", 3);
+        ReflectionTestUtils.setField(eventStreamService, "maxConnectionsPerUser", 2);
+        ReflectionTestUtils.setField(eventStreamService, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(eventStreamService, "sendTimeoutMs", 10_000L);
+        ReflectionTestUtils.setField(eventStreamService, "senderThreads", 1);
+        eventStreamService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventStreamService.shutdown();
+    }
+
+    @Test
+    void subscribe_perUserCapReached_isRejected() {
+        eventStreamService.subscribe("user-1");
+        eventStreamService.subscribe("user-1");
+
+        assertThrows(IllegalStateException.class, () -> eventStreamService.subscribe("user-1"));
+
+        // Le refus ne garde pas de place, et les autres utilisateurs ne sont pas touchés
+        assertEquals(2, eventStreamService.getOpenConnections());
+        assertNotNull(eventStreamService.subscribe("user-2"));
+    }
+
+    @Test
+    void subscribe_globalCapReached_isRejected() {
+        eventStreamService.subscribe("user-1");
+        eventStreamService.subscribe("user-2");
+        eventStreamService.subscribe("user-3");
+
+        assertThrows(IllegalStateException.class, () -> eventStreamService.subscribe("user-4"));
+        assertEquals(3, eventStreamService.getOpenConnections());
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.todo.service;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-that-is-long-enough-for-hmac-sha-512-signatures-0123456789";
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecretString", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpirationMs", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "eventsTokenExpirationMs", 60_000L);
+        jwtService.init();
+    }
+
+    @Test
+    void checkToken_validToken_isValid() {
+        assertEquals(JwtService.TokenStatus.VALID, jwtService.checkToken(jwtService.generateToken("user@example.com")));
+    }
+
+    @Test
+    void checkToken_notYetValidToken_isInvalid() {
+        String token = Jwts.builder()
+                .setSubject("user@example.com")
+                .setNotBefore(new Date(System.currentTimeMillis() + 3_600_000))
+                .setExpiration(new Date(System.currentTimeMillis() + 7_200_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+
+        assertEquals(JwtService.TokenStatus.INVALID, jwtService.checkToken(token));
+    }
+
+    @Test
+    void checkToken_expiredToken_isExpired() {
+        String token = Jwts.builder()
+                .setSubject("user@example.com")
+                .setExpiration(new Date(System.currentTimeMillis() - 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+
+        assertEquals(JwtService.TokenStatus.EXPIRED, jwtService.checkToken(token));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.ChangeEvent;
+import com.example.todo.model.ChangeEntityType;
+import com.example.todo.model.ChangeLogEntry;
+import com.example.todo.model.ChangeOperation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListResponseCacheTest {
+
+    private ListResponseCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new ListResponseCache(List.of(
+                new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build()),
+                new MappingJackson2CborHttpMessageConverter(Jackson2ObjectMapperBuilder.cbor().build())));
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxBytes", 1_000_000L);
+        ReflectionTestUtils.setField(cache, "maxUsers", 100L);
+        cache.init();
+    }
+
+    private byte[] load(String title) {
+        loads.incrementAndGet();
+        return document(title);
+    }
+
+    // Document JSON tel que DashboardService le stocke
+    private static byte[] document(String title) {
+        return ("[{\"title\":\"" + title + "\",\"tasks\":[]}]").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private ChangeEvent change(String userId) {
+        return new ChangeEvent(new ChangeLogEntry(userId, 1, ChangeEntityType.LIST, "list-1", "list-1",
+                ChangeOperation.UPSERT));
+    }
+
+    @Test
+    void getDocument_servesSecondReadFromCache() {
+        byte[] first = cache.getDocument("user-1", MediaType.APPLICATION_JSON, () -> load("A"));
+        byte[] second = cache.getDocument("user-1", MediaType.APPLICATION_JSON, () -> load("B"));
+
+        assertEquals(1, loads.get());
+        assertArrayEquals(first, second);
+        assertArrayEquals(document("A"), first);
+    }
+
+    @Test
+    void getDocument_transcodesDocumentToCbor() throws IOException {
+        byte[] cbor = cache.getDocument("user-1", MediaType.APPLICATION_CBOR, () -> load("A"));
+
+        assertEquals(new ObjectMapper().readTree(document("A")), new ObjectMapper(new CBORFactory()).readTree(cbor));
+        // Format distinct, entrée distincte
+        cache.getDocument("user-1", MediaType.APPLICATION_JSON, () -> load("A"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void onChange_invalidatesOnlyThatUser() {
+        cache.getDocument("user-1", MediaType.APPLICATION_JSON, () -> load("A"));
+        cache.getDocument("user-2", MediaType.APPLICATION_JSON, () -> load("A"));
+
+        cache.onChange(change("user-1"));
+        String reloaded = new String(cache.getDocument("user-1", MediaType.APPLICATION_JSON, () -> load("B")));
+        cache.getDocument("user-2", MediaType.APPLICATION_JSON, () -> load("B"));
+
+        assertEquals(3, loads.get());
+        assertTrue(reloaded.contains("\"B\""));
+    }
+
+    @Test
+    void getDocument_doesNotCacheResultLoadedDuringAWrite() {
+        // Une écriture validée pendant le chargement : le résultat chargé est peut-être déjà périmé
+        cache.getDocument("user-1", MediaType.APPLICATION_JSON, () -> {
+            cache.onChange(change("user-1"));
+            return load("stale");
+        });
+        String next = new String(cache.getDocument("user-1", MediaType.APPLICATION_JSON, () -> load("fresh")));
+
+        assertEquals(2, loads.get());
+        assertTrue(next.contains("\"fresh\""));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.todo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    /**
+     * Lance {@link #CALLERS} appels concurrents ; le premier chargement attend que tous les autres
+     * appelants soient en file avant de se terminer.
+     */
+    private List<Future<String>> callConcurrently(AtomicInteger loads, RuntimeException failure) throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("user-1", () -> {
+                loads.incrementAndGet();
+                await(release);
+                if (failure != null) {
+                    throw failure;
+                }
+                return "lists";
+            })));
+        }
+        while (singleFlight.getCoalesced() < CALLERS - 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        return results;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void execute_concurrentCallersShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        for (Future<String> result : callConcurrently(loads, null)) {
+            assertEquals("lists", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    @Test
+    void execute_failureReachesEveryWaiter() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        IllegalStateException failure = new IllegalStateException("database down");
+        for (Future<String> result : callConcurrently(loads, failure)) {
+            ExecutionException thrown = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, thrown.getCause());
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void execute_loadsAgainOnceTheFlightHasLanded() {
+        AtomicInteger loads = new AtomicInteger();
+        singleFlight.execute("user-1", () -> "v" + loads.incrementAndGet());
+        assertEquals("v2", singleFlight.execute("user-1", () -> "v" + loads.incrementAndGet()));
+    }
+}
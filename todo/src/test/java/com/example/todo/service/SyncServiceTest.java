@@ -0,0 +1,106 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.SyncResponse;
+import com.example.todo.model.Task;
+import com.example.todo.model.TodoList;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class SyncServiceTest {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Autowired
+    private TaskService taskService;
+
+    private final String userId = "sync-user";
+
+    private TodoList createList(String title, String... taskTexts) {
+        TodoList list = new TodoList();
+        list.setTitle(title);
+        list.setUserId(userId);
+        for (String text : taskTexts) {
+            Task task = new Task();
+            task.setText(text);
+            list.addTask(task);
+        }
+        return todoListService.createTodoList(list);
+    }
+
+    @Test
+    void getChangesSince_zero_returnsSnapshot() {
+        createList("Snapshot List", "Task A");
+
+        SyncResponse response = syncService.getChangesSince(userId, 0, 100);
+
+        assertTrue(response.isSnapshot());
+        assertEquals(1, response.getSnapshotLists().size());
+        assertEquals(2, response.getSeq());
+    }
+
+    @Test
+    void getChangesSince_returnsOnlyLaterChanges() {
+        TodoList list = createList("Delta List", "Task A", "Task B");
+        long seq = syncService.getChangesSince(userId, 0, 100).getSeq();
+
+        Task taskA = list.getTasks().get(0);
+        Task taskB = list.getTasks().get(1);
+        taskService.toggleTaskStatus(taskA.getId(), true);
+        taskService.deleteTask(taskB.getId());
+
+        SyncResponse response = syncService.getChangesSince(userId, seq, 100);
+
+        assertFalse(response.isSnapshot());
+        assertEquals(seq + 2, response.getSeq());
+        assertTrue(response.getLists().isEmpty());
+        assertEquals(1, response.getTasks().size());
+        assertEquals(taskA.getId(), response.getTasks().get(0).getTask().getId());
+        assertTrue(response.getTasks().get(0).getTask().isDone());
+        assertEquals(List.of(taskB.getId()), response.getDeletedTasks());
+    }
+
+    @Test
+    void getChangesSince_collapsesRepeatedChangesAndPages() {
+        TodoList list = createList("Paged List", "Task A");
+        long seq = syncService.getChangesSince(userId, 0, 100).getSeq();
+        String taskId = list.getTasks().get(0).getId();
+
+        taskService.toggleTaskStatus(taskId, true);
+        taskService.toggleTaskStatus(taskId, false);
+        taskService.toggleTaskStatus(taskId, true);
+
+        SyncResponse firstPage = syncService.getChangesSince(userId, seq, 2);
+        assertTrue(firstPage.isHasMore());
+        assertEquals(1, firstPage.getTasks().size());
+
+        SyncResponse secondPage = syncService.getChangesSince(userId, firstPage.getSeq(), 2);
+        assertFalse(secondPage.isHasMore());
+        assertTrue(secondPage.getTasks().get(0).getTask().isDone());
+    }
+
+    @Test
+    void getChangesSince_deletedList_returnsTombstoneWithoutItsTasks() {
+        TodoList list = createList("Doomed List", "Task A");
+        long seq = syncService.getChangesSince(userId, 0, 100).getSeq();
+
+        taskService.toggleTaskStatus(list.getTasks().get(0).getId(), true);
+        todoListService.deleteTodoList(list.getId());
+
+        SyncResponse response = syncService.getChangesSince(userId, seq, 100);
+
+        assertEquals(List.of(list.getId()), response.getDeletedLists());
+        assertTrue(response.getTasks().isEmpty());
+    }
+}
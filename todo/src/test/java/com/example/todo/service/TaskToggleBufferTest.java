@@ -0,0 +1,125 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.TaskState;
+import com.example.todo.model.Task;
+import com.example.todo.model.TodoList;
+import com.example.todo.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Pas de @Transactional : le tampon écrit dans ses propres transactions, sur un autre thread
+@SpringBootTest(properties = {
+        "tasks.toggle-buffer.enabled=true",
+        "tasks.toggle-buffer.flush-interval-ms=50"
+})
+class TaskToggleBufferTest {
+
+    @Autowired
+    private TaskToggleBuffer toggleBuffer;
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TodoList list;
+
+    @AfterEach
+    void tearDown() {
+        if (list != null) {
+            todoListService.deleteTodoList(list.getId());
+        }
+    }
+
+    @Test
+    void toggle_coalescesConcurrentTogglesIntoFewTransactions() throws Exception {
+        TodoList newList = new TodoList();
+        newList.setTitle("Toggle Buffer List");
+        newList.setUserId("toggle-buffer-user");
+        for (String text : List.of("Task A", "Task B")) {
+            Task task = new Task();
+            task.setText(text);
+            newList.addTask(task);
+        }
+        list = todoListService.createTodoList(newList);
+        String taskA = list.getTasks().get(0).getId();
+        String taskB = list.getTasks().get(1).getId();
+        double flushesBefore = meterRegistry.counter("tasks.toggle.flushes").count();
+
+        int toggles = 20;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(toggles);
+        List<Future<TaskState>> results = new ArrayList<>();
+        for (int i = 0; i < toggles; i++) {
+            String taskId = i % 2 == 0 ? taskA : taskB;
+            results.add(executor.submit(() -> {
+                start.await();
+                return toggleBuffer.toggle(taskId, true).orElseThrow();
+            }));
+        }
+        start.countDown();
+        for (Future<TaskState> result : results) {
+            assertTrue(result.get().isDone());
+        }
+        executor.shutdown();
+
+        assertTrue(taskRepository.findById(taskA).orElseThrow().isDone());
+        assertTrue(taskRepository.findById(taskB).orElseThrow().isDone());
+        assertTrue(meterRegistry.counter("tasks.toggle.flushes").count() - flushesBefore < toggles);
+    }
+
+    @Test
+    void toggle_eachCallerGetsTheStateItAskedFor() throws Exception {
+        TodoList newList = new TodoList();
+        newList.setTitle("Toggle Buffer List");
+        newList.setUserId("toggle-buffer-user");
+        Task newTask = new Task();
+        newTask.setText("Task A");
+        newList.addTask(newTask);
+        list = todoListService.createTodoList(newList);
+        String taskId = list.getTasks().get(0).getId();
+
+        // Deux états contraires dans le même lot : seul le dernier est écrit
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<TaskState> checked = executor.submit(() -> {
+            start.await();
+            return toggleBuffer.toggle(taskId, true).orElseThrow();
+        });
+        Future<TaskState> unchecked = executor.submit(() -> {
+            start.await();
+            return toggleBuffer.toggle(taskId, false).orElseThrow();
+        });
+        start.countDown();
+
+        assertTrue(checked.get().isDone());
+        assertFalse(unchecked.get().isDone());
+        // L'appel remplacé reçoit aussi l'id et le texte de la tâche
+        assertEquals(taskId, checked.get().getId());
+        assertEquals(taskId, unchecked.get().getId());
+        assertEquals("Task A", checked.get().getText());
+        assertEquals("Task A", unchecked.get().getText());
+        executor.shutdown();
+    }
+
+    @Test
+    void toggle_unknownTask_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> toggleBuffer.toggle("missing-task", true));
+    }
+}
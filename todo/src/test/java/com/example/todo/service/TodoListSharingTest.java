@@ -0,0 +1,70 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.SyncResponse;
+import com.example.todo.model.ListPermission;
+import com.example.todo.model.TodoList;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class TodoListSharingTest {
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Autowired
+    private ListAccessIndex accessIndex;
+
+    @Autowired
+    private SyncService syncService;
+
+    private final String ownerId = "owner-user";
+    private final String memberId = "member-user";
+
+    private TodoList createList(String title) {
+        TodoList list = new TodoList();
+        list.setTitle(title);
+        list.setUserId(ownerId);
+        return todoListService.createTodoList(list);
+    }
+
+    @Test
+    void shareTodoList_grantsAccessAndListsItForMember() {
+        TodoList list = createList("Shared List");
+        assertNull(accessIndex.getPermission(memberId, list.getId()));
+
+        todoListService.shareTodoList(list.getId(), memberId, ListPermission.READ);
+
+        assertEquals(ListPermission.READ, accessIndex.getPermission(memberId, list.getId()));
+        assertFalse(accessIndex.hasPermission(memberId, list.getId(), ListPermission.WRITE));
+        assertEquals(ListPermission.OWNER, accessIndex.getPermission(ownerId, list.getId()));
+        assertEquals(1, todoListService.getAllTodoListsByUserId(memberId).size());
+    }
+
+    @Test
+    void unshareTodoList_revokesAccessAndSendsTombstone() {
+        TodoList list = createList("Revoked List");
+        todoListService.shareTodoList(list.getId(), memberId, ListPermission.WRITE);
+        long seq = syncService.getChangesSince(memberId, 0, 100).getSeq();
+
+        todoListService.unshareTodoList(list.getId(), memberId);
+
+        assertNull(accessIndex.getPermission(memberId, list.getId()));
+        assertTrue(todoListService.getAllTodoListsByUserId(memberId).isEmpty());
+        SyncResponse response = syncService.getChangesSince(memberId, seq, 100);
+        assertEquals(1, response.getDeletedLists().size());
+    }
+
+    @Test
+    void shareTodoList_withOwner_isRejected() {
+        TodoList list = createList("Owner List");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> todoListService.shareTodoList(list.getId(), ownerId, ListPermission.WRITE));
+    }
+}